@@ -1,12 +1,22 @@
 package campo;
 
+import util.TextoUtil;
+
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -16,10 +26,13 @@ import java.util.function.Function;
  * 
  * <h3>Recursos:</h3>
  * <ul>
- *   <li>Busca em tempo real</li>
+ *   <li>Busca em tempo real, indexada, sem diferenciar maiúsculas e acentos</li>
+ *   <li>Tolerância a erros de digitação ({@link #setBuscaAproximada})</li>
+ *   <li>Sugestões ordenadas por relevância (limitadas a {@link #setMaxSugestoes})</li>
  *   <li>Dropdown de sugestões</li>
  *   <li>Navegação por teclado</li>
  *   <li>Funções de filtro customizáveis</li>
+ *   <li>Busca no servidor ({@link #setProvedor}) com atraso, cancelamento e cache</li>
  *   <li>Compatível com NetBeans GUI Builder</li>
  * </ul>
  * 
@@ -34,6 +47,13 @@ import java.util.function.Function;
  * CampoBusca<Cliente> buscaCliente = new CampoBusca<>(clientes);
  * buscaCliente.setFuncaoExibicao(Cliente::getNome);
  * buscaCliente.setFuncaoFiltro((c, texto) -> c.getNome().toLowerCase().contains(texto));
+ * 
+ * // Com busca no servidor
+ * CampoBusca<Cliente> buscaRemota = new CampoBusca<>();
+ * buscaRemota.setFuncaoExibicao(Cliente::getNome);
+ * buscaRemota.setProvedor(texto -> api.buscarClientes(texto, 50));
+ * // opcional: o servidor filtra por "nome contém" e retorna até 50 itens
+ * buscaRemota.setRefinamentoLocal(50, (c, texto) -> TextoUtil.normalizar(c.getNome()).contains(TextoUtil.normalizar(texto)));
  * }</pre>
  * 
  * @param <T> Tipo dos itens da lista
@@ -44,14 +64,47 @@ public class CampoBusca<T> extends JPanel {
     private final JTextField textField;
     private final JPopupMenu popup;
     private final JList<T> listaSugestoes;
-    private final DefaultListModel<T> listModel;
+    private final ModeloLista<T> listModel;
     
     private List<T> todosItens;
     private Function<T, String> funcaoExibicao;
+    /** Filtro customizado; null usa o índice. */
     private FuncaoFiltro<T> funcaoFiltro;
     private Consumer<T> callbackSelecao;
     private boolean mostrarTodosAoFocar = true;
     private int maxLinhasVisiveis = 8;
+    private int maxSugestoes = 50;
+    private boolean buscaAproximada = true;
+    private boolean prototipoDefinido;
+    
+    /** Texto normalizado de cada item de {@link #todosItens}; null = recalcular. */
+    private List<String> chaves;
+    /** Índice de {@link #chaves}; null = reconstruir. */
+    private IndiceBusca indice;
+    /** Item de cada id do {@link #indice}, incluindo os removidos (marcados no índice). */
+    private List<T> itensIndice;
+    /** O dropdown está mostrando a própria {@link #todosItens}. */
+    private boolean mostrandoTodos;
+    
+    // Busca no servidor
+    private Function<String, CompletableFuture<List<T>>> provedor;
+    private Consumer<Exception> aoErro;
+    private final Timer temporizadorBusca;
+    private String textoPendente;
+    private CompletableFuture<List<T>> pedidoAtual;
+    /** Incrementada a cada alteração do texto, para descartar respostas antigas. */
+    private int geracao = 0;
+    /** Respostas recentes por texto normalizado, da usada há mais tempo para a mais recente. */
+    private final LinkedHashMap<String, List<T>> cacheConsultas = new LinkedHashMap<String, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<T>> maisAntiga) {
+            return size() > maxConsultasCache;
+        }
+    };
+    private int maxConsultasCache = 50;
+    /** Refinamento local (opcional): limite de itens por resposta e o mesmo filtro do servidor. */
+    private int limiteResposta;
+    private FuncaoFiltro<T> filtroProvedor;
     
     /**
      * Interface funcional para filtro customizado.
@@ -82,8 +135,6 @@ public class CampoBusca<T> extends JPanel {
     public CampoBusca(List<T> itens) {
         this.todosItens = new ArrayList<>(itens);
         this.funcaoExibicao = Object::toString;
-        this.funcaoFiltro = (item, texto) -> 
-            funcaoExibicao.apply(item).toLowerCase().contains(texto.toLowerCase());
         
         setLayout(new BorderLayout(4, 0));
         setOpaque(false);
@@ -99,7 +150,7 @@ public class CampoBusca<T> extends JPanel {
         add(textField, BorderLayout.CENTER);
         
         // Lista de sugestões
-        listModel = new DefaultListModel<>();
+        listModel = new ModeloLista<>();
         listaSugestoes = new JList<>(listModel);
         listaSugestoes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         listaSugestoes.setCellRenderer(new DefaultListCellRenderer() {
@@ -123,6 +174,9 @@ public class CampoBusca<T> extends JPanel {
         scrollPane.setBorder(null);
         popup.add(scrollPane);
         
+        temporizadorBusca = new Timer(300, e -> executarPedido());
+        temporizadorBusca.setRepeats(false);
+        
         // Listeners
         configurarListeners();
     }
@@ -210,32 +264,208 @@ public class CampoBusca<T> extends JPanel {
     
     private void atualizarSugestoes() {
         String texto = textField.getText().trim();
-        listModel.clear();
+        cancelarPedido();
         
         if (texto.isEmpty()) {
             if (mostrarTodosAoFocar) {
                 mostrarTodosItens();
             } else {
+                exibirSugestoes(null);
                 popup.setVisible(false);
             }
             return;
         }
         
-        // Filtrar itens
-        for (T item : todosItens) {
-            if (funcaoFiltro.corresponde(item, texto)) {
-                listModel.addElement(item);
-            }
+        if (provedor != null) {
+            buscarNoProvedor(texto);
+            return;
         }
         
+        exibirSugestoes(funcaoFiltro != null ? filtrar(texto, todosItens) : buscarNoIndice(texto));
         mostrarPopup();
     }
     
-    private void mostrarTodosItens() {
-        listModel.clear();
-        for (T item : todosItens) {
-            listModel.addElement(item);
+    // ==================== Busca no servidor ====================
+    
+    /**
+     * Responde pelo cache quando possível; senão agenda o pedido ao provedor.
+     */
+    private void buscarNoProvedor(String texto) {
+        List<T> local = resultadoLocal(texto, TextoUtil.normalizar(texto));
+        if (local != null) {
+            exibirSugestoes(local);
+            // Como na resposta do provedor: texto definido por código não abre o popup
+            if (textField.isFocusOwner()) {
+                mostrarPopup();
+            }
+            return;
+        }
+        textoPendente = texto;
+        temporizadorBusca.restart();
+    }
+    
+    /**
+     * Resposta do cache para o texto ou, com {@link #setRefinamentoLocal} ativo e se a
+     * resposta de um prefixo veio completa (menos itens que o limite do servidor),
+     * essa resposta filtrada com o filtro do servidor.
+     */
+    private List<T> resultadoLocal(String texto, String consulta) {
+        List<T> guardado = cacheConsultas.get(consulta);
+        if (guardado != null || filtroProvedor == null) return guardado;
+        
+        for (int n = consulta.length() - 1; n > 0; n--) {
+            List<T> anterior = cacheConsultas.get(consulta.substring(0, n));
+            if (anterior != null && anterior.size() < limiteResposta) {
+                List<T> refinado = new ArrayList<>();
+                for (T item : anterior) {
+                    if (filtroProvedor.corresponde(item, texto)) refinado.add(item);
+                }
+                cacheConsultas.put(consulta, refinado);
+                return refinado;
+            }
+        }
+        return null;
+    }
+    
+    private void executarPedido() {
+        if (provedor == null || textoPendente == null) return;
+        String texto = textoPendente;
+        String consulta = TextoUtil.normalizar(texto);
+        textoPendente = null;
+        int geracaoPedido = ++geracao;
+        
+        CompletableFuture<List<T>> pedido;
+        try {
+            pedido = provedor.apply(texto);
+        } catch (RuntimeException e) {
+            notificarErro(e);
+            return;
+        }
+        if (pedido == null) return;
+        pedidoAtual = pedido;
+        
+        pedido.whenComplete((resultado, erro) -> SwingUtilities.invokeLater(() -> {
+            if (pedidoAtual == pedido) {
+                pedidoAtual = null;
+            }
+            if (erro != null) {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+                if (geracaoPedido == geracao && !(causa instanceof CancellationException)) {
+                    notificarErro(causa instanceof Exception ? (Exception) causa : new RuntimeException(causa));
+                }
+                return;
+            }
+            List<T> sugestoes = resultado != null ? new ArrayList<>(resultado) : Collections.emptyList();
+            // Guarda mesmo se o texto já mudou: pode servir de prefixo
+            cacheConsultas.put(consulta, sugestoes);
+            if (geracaoPedido == geracao) {
+                exibirSugestoes(sugestoes);
+                if (textField.isFocusOwner()) {
+                    mostrarPopup();
+                }
+            }
+        }));
+    }
+    
+    /**
+     * Descarta o pedido agendado e cancela o que está em andamento.
+     */
+    private void cancelarPedido() {
+        geracao++;
+        textoPendente = null;
+        temporizadorBusca.stop();
+        if (pedidoAtual != null) {
+            pedidoAtual.cancel(true);
+            pedidoAtual = null;
+        }
+    }
+    
+    private void notificarErro(Exception e) {
+        if (aoErro != null) {
+            aoErro.accept(e);
+        } else {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Os melhores itens segundo o índice (igual, começa com, começa palavra, contém).
+     */
+    private List<T> buscarNoIndice(String texto) {
+        int[] ids = getIndice().buscar(TextoUtil.normalizar(texto), maxSugestoes, buscaAproximada);
+        return resultado(ids, itensIndice);
+    }
+    
+    private List<T> resultado(int[] ids, List<T> itens) {
+        List<T> sugestoes = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            sugestoes.add(itens.get(id));
+        }
+        return sugestoes;
+    }
+    
+    /**
+     * Os primeiros itens aceitos pelo filtro customizado.
+     */
+    private List<T> filtrar(String texto, List<T> itens) {
+        List<T> sugestoes = new ArrayList<>();
+        for (T item : itens) {
+            if (funcaoFiltro.corresponde(item, texto)) {
+                sugestoes.add(item);
+                if (sugestoes.size() >= maxSugestoes) break;
+            }
         }
+        return sugestoes;
+    }
+    
+    private IndiceBusca getIndice() {
+        if (chaves == null) {
+            chaves = new ArrayList<>(todosItens.size());
+            for (T item : todosItens) {
+                chaves.add(chave(item));
+            }
+        }
+        if (indice == null) {
+            indice = new IndiceBusca();
+            itensIndice = new ArrayList<>(todosItens);
+            for (String chave : chaves) {
+                indice.adicionar(chave);
+            }
+        }
+        return indice;
+    }
+    
+    /**
+     * Id do item no índice: o primeiro igual que não foi removido. Ids e posições
+     * de {@link #todosItens} seguem a mesma ordem.
+     */
+    private int idNoIndice(T item) {
+        for (int id = 0; id < itensIndice.size(); id++) {
+            if (!indice.isRemovido(id) && Objects.equals(itensIndice.get(id), item)) return id;
+        }
+        return -1;
+    }
+    
+    private String chave(T item) {
+        return TextoUtil.normalizar(funcaoExibicao.apply(item));
+    }
+    
+    /**
+     * Troca o conteúdo do dropdown de uma vez, sem seleção.
+     */
+    private void exibirSugestoes(List<T> sugestoes) {
+        listaSugestoes.clearSelection();
+        // Sem protótipo a JList mede cada item ao abrir
+        if (!prototipoDefinido && sugestoes != null && sugestoes.size() >= ModeloLista.LIMIAR_PROTOTIPO
+                && listaSugestoes.getPrototypeCellValue() == null) {
+            listaSugestoes.setPrototypeCellValue(ModeloLista.sugerirPrototipo(sugestoes));
+        }
+        listModel.setItens(sugestoes);
+        mostrandoTodos = sugestoes == todosItens;
+    }
+    
+    private void mostrarTodosItens() {
+        exibirSugestoes(todosItens);
         mostrarPopup();
     }
     
@@ -278,6 +508,8 @@ public class CampoBusca<T> extends JPanel {
         if (selecionado != null) {
             textField.setText(funcaoExibicao.apply(selecionado));
             popup.setVisible(false);
+            // Não buscar o texto que acabou de ser preenchido
+            cancelarPedido();
             
             if (callbackSelecao != null) {
                 callbackSelecao.accept(selecionado);
@@ -293,7 +525,13 @@ public class CampoBusca<T> extends JPanel {
      */
     public void setItens(List<T> itens) {
         this.todosItens = new ArrayList<>(itens);
-        listModel.clear();
+        exibirSugestoes(null);
+        // Chaves e índice montados uma vez aqui, não a cada tecla
+        chaves = null;
+        indice = null;
+        if (funcaoFiltro == null) {
+            getIndice();
+        }
     }
     
     /**
@@ -302,6 +540,18 @@ public class CampoBusca<T> extends JPanel {
      */
     public void adicionarItem(T item) {
         this.todosItens.add(item);
+        if (chaves != null) {
+            String chave = chave(item);
+            chaves.add(chave);
+            if (indice != null) {
+                indice.adicionar(chave);
+                itensIndice.add(item);
+            }
+        }
+        if (mostrandoTodos) {
+            int ultimo = todosItens.size() - 1;
+            listModel.itensInseridos(ultimo, ultimo);
+        }
     }
     
     /**
@@ -309,7 +559,23 @@ public class CampoBusca<T> extends JPanel {
      * @param item Item a remover
      */
     public void removerItem(T item) {
-        this.todosItens.remove(item);
+        int posicao = todosItens.indexOf(item);
+        if (posicao >= 0) {
+            todosItens.remove(posicao);
+            if (chaves != null) {
+                chaves.remove(posicao);
+            }
+            if (indice != null) {
+                indice.remover(idNoIndice(item));
+                // Com metade dos ids removidos, o índice é refeito (com as mesmas chaves) na próxima busca
+                if (indice.getRemovidos() * 2 > indice.getTotal()) {
+                    indice = null;
+                }
+            }
+            if (mostrandoTodos) {
+                listModel.itensRemovidos(posicao, posicao);
+            }
+        }
     }
     
     /**
@@ -317,7 +583,10 @@ public class CampoBusca<T> extends JPanel {
      */
     public void limparItens() {
         this.todosItens.clear();
-        listModel.clear();
+        chaves = null;
+        indice = null;
+        itensIndice = null;
+        exibirSugestoes(null);
     }
     
     /**
@@ -342,16 +611,129 @@ public class CampoBusca<T> extends JPanel {
      */
     public void setFuncaoExibicao(Function<T, String> funcao) {
         this.funcaoExibicao = funcao;
+        chaves = null;
+        indice = null;
     }
     
     /**
-     * Define a função de filtro customizada.
-     * @param funcao Função que determina se item corresponde ao texto
+     * Define a função de filtro customizada. Com filtro customizado o índice não
+     * é usado e as sugestões são os primeiros itens aceitos, na ordem da lista.
+     * @param funcao Função que determina se item corresponde ao texto (null volta à busca indexada)
      */
     public void setFuncaoFiltro(FuncaoFiltro<T> funcao) {
         this.funcaoFiltro = funcao;
     }
     
+    /**
+     * Define o número máximo de sugestões exibidas para um texto digitado.
+     * @param max Número de sugestões (padrão: 50)
+     */
+    public void setMaxSugestoes(int max) {
+        this.maxSugestoes = Math.max(1, max);
+    }
+    
+    /**
+     * Define o item usado para medir as linhas do dropdown, em vez de medir cada item.
+     * Listas com mais de 1000 itens usam o primeiro item se nenhum for definido.
+     * @param prototipo Item de tamanho típico (null volta a medir todos)
+     */
+    public void setPrototipoCelula(T prototipo) {
+        prototipoDefinido = prototipo != null;
+        listaSugestoes.setPrototypeCellValue(prototipo);
+    }
+    
+    /**
+     * Define se a busca tolera erros de digitação. Quando os itens que contêm o texto
+     * não completam as sugestões, entram os que têm um trecho a até 1 edição
+     * (textos de 4 a 7 caracteres) ou 2 edições (8 ou mais) do texto digitado.
+     * Não se aplica ao filtro customizado.
+     * @param aproximada true para tolerar erros (padrão)
+     */
+    public void setBuscaAproximada(boolean aproximada) {
+        this.buscaAproximada = aproximada;
+    }
+    
+    /**
+     * Busca as sugestões no servidor em vez da lista de itens.
+     * 
+     * <p>A função recebe o texto digitado e deve retornar sem bloquear (a resposta chega
+     * pelo {@code CompletableFuture}, fora da EDT). O pedido só é feito depois de uma
+     * pausa na digitação ({@link #setAtrasoBusca}); digitar de novo cancela o pedido
+     * em andamento e respostas antigas são descartadas.</p>
+     * 
+     * <p>As respostas ficam em cache por texto. Só o mesmo texto é respondido pelo cache;
+     * para filtrar localmente textos mais longos, veja {@link #setRefinamentoLocal}.</p>
+     * 
+     * @param provedor Função texto → sugestões (null volta à lista de itens)
+     */
+    public void setProvedor(Function<String, CompletableFuture<List<T>>> provedor) {
+        cancelarPedido();
+        this.provedor = provedor;
+        cacheConsultas.clear();
+    }
+    
+    /**
+     * Ativa o refinamento local das respostas do provedor. Uma resposta com menos de
+     * {@code limiteResposta} itens é tida como completa, e textos que começam com o
+     * texto dela são respondidos filtrando essa resposta, sem novo pedido.
+     * 
+     * <p>O filtro deve ser o mesmo que o servidor aplica (ex.: "nome contém o texto"),
+     * e um texto mais longo nunca pode aceitar itens que o mais curto recusou. Com outro
+     * filtro, as sugestões locais seriam diferentes das do servidor.</p>
+     * 
+     * @param limiteResposta Máximo de itens que o servidor retorna por pedido
+     * @param filtroServidor Regra do servidor (null desativa o refinamento, padrão)
+     */
+    public void setRefinamentoLocal(int limiteResposta, FuncaoFiltro<T> filtroServidor) {
+        this.limiteResposta = Math.max(0, limiteResposta);
+        this.filtroProvedor = filtroServidor;
+    }
+    
+    /**
+     * Define a pausa na digitação antes de chamar o provedor.
+     * @param milissegundos Atraso (padrão: 300)
+     */
+    public void setAtrasoBusca(int milissegundos) {
+        temporizadorBusca.setInitialDelay(Math.max(0, milissegundos));
+    }
+    
+    /**
+     * Define quantas respostas do provedor ficam em cache.
+     * @param max Número de textos (padrão: 50)
+     */
+    public void setMaxConsultasCache(int max) {
+        this.maxConsultasCache = Math.max(0, max);
+        Iterator<String> it = cacheConsultas.keySet().iterator();
+        while (cacheConsultas.size() > maxConsultasCache && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+    
+    /**
+     * Descarta as respostas do provedor em cache (ex.: após alterar dados no servidor).
+     */
+    public void limparCache() {
+        cacheConsultas.clear();
+    }
+    
+    /**
+     * Verifica se há pedido ao provedor agendado ou em andamento.
+     * @return true se buscando
+     */
+    public boolean isBuscando() {
+        return pedidoAtual != null || temporizadorBusca.isRunning();
+    }
+    
+    /**
+     * Define ação executada (na EDT) quando o provedor falha.
+     * Sem ação definida, o erro é impresso no console.
+     * @param acao Ação que recebe o erro
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
+    }
+    
     /**
      * Define o callback de seleção.
      * @param callback Função chamada quando um item é selecionado
@@ -1,7 +1,10 @@
 package campo;
 
 import javax.swing.*;
+import javax.swing.plaf.basic.ComboPopup;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -13,6 +16,7 @@ import java.util.function.Function;
  * <ul>
  *   <li>Função de exibição customizada</li>
  *   <li>Placeholder "Selecione..."</li>
+ *   <li>Listas grandes sem evento nem medição por item ({@link #setItems})</li>
  *   <li>API fluente</li>
  *   <li>Compatível com NetBeans GUI Builder</li>
  * </ul>
@@ -32,8 +36,11 @@ import java.util.function.Function;
 public class CampoComboBox<T> extends CampoForm<T> {
     
     private final JComboBox<T> comboBox;
-    private final DefaultComboBoxModel<T> model;
+    private final ModeloLista<T> model;
     private Function<T, String> displayFunction;
+    /** Itens exibidos (referenciados pelo modelo, sem cópia). */
+    private List<T> itens = new ArrayList<>();
+    private boolean prototipoDefinido;
     
     /**
      * Construtor padrão para GUI Builder.
@@ -58,12 +65,15 @@ public class CampoComboBox<T> extends CampoForm<T> {
     public CampoComboBox(String labelText, Function<T, String> displayFunction) {
         super(labelText);
         this.displayFunction = displayFunction;
-        this.model = new DefaultComboBoxModel<>();
+        this.model = new ModeloLista<>();
+        this.model.setItens(itens);
         this.comboBox = new JComboBox<>(model);
         
         // ComboBox
         comboBox.setPreferredSize(new Dimension(200, 32));
         add(comboBox, BorderLayout.CENTER);
+        // Troca de Look and Feel cria um popup novo, sem o protótipo da lista
+        comboBox.addPropertyChangeListener("UI", e -> aplicarPrototipoPopup(comboBox.getPrototypeDisplayValue()));
         
         setupRenderer();
     }
@@ -77,9 +87,11 @@ public class CampoComboBox<T> extends CampoForm<T> {
     public CampoComboBox(String labelText, T... items) {
         this(labelText, (Function<T, String>) null);
         if (items != null) {
+            List<T> lista = new ArrayList<>(items.length);
             for (T item : items) {
-                model.addElement(item);
+                lista.add(item);
             }
+            addItems(lista);
         }
     }
     
@@ -132,18 +144,23 @@ public class CampoComboBox<T> extends CampoForm<T> {
      * @return this para encadeamento
      */
     public CampoComboBox<T> addItem(T item) {
-        model.addElement(item);
-        return this;
+        return addItems(Collections.singletonList(item));
     }
     
     /**
-     * Adiciona vários itens ao ComboBox.
+     * Adiciona vários itens ao ComboBox, com um único evento.
      * @param items lista de itens
      * @return this para encadeamento
      */
     public CampoComboBox<T> addItems(List<T> items) {
-        for (T item : items) {
-            model.addElement(item);
+        if (items.isEmpty()) return this;
+        int primeiro = itens.size();
+        itens.addAll(items);
+        atualizarPrototipo();
+        model.itensInseridos(primeiro, itens.size() - 1);
+        // Como o DefaultComboBoxModel: o primeiro item adicionado fica selecionado
+        if (primeiro == 0 && model.getSelectedItem() == null) {
+            model.setSelectedItem(itens.get(0));
         }
         return this;
     }
@@ -155,21 +172,27 @@ public class CampoComboBox<T> extends CampoForm<T> {
      */
     @SafeVarargs
     public final CampoComboBox<T> addItems(T... items) {
+        // Copiado aqui: repassar o array genérico geraria aviso de heap pollution
+        List<T> lista = new ArrayList<>(items.length);
         for (T item : items) {
-            model.addElement(item);
+            lista.add(item);
         }
-        return this;
+        return addItems(lista);
     }
     
     /**
-     * Define os itens do ComboBox (remove os anteriores).
+     * Define os itens do ComboBox (remove os anteriores), com um único evento.
+     * A lista é copiada uma vez (sem evento por item); alterações feitas depois
+     * pelo chamador não são vistas.
      * @param items nova lista de itens
      * @return this para encadeamento
      */
     public CampoComboBox<T> setItems(List<T> items) {
-        model.removeAllElements();
-        for (T item : items) {
-            model.addElement(item);
+        itens = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        atualizarPrototipo();
+        model.setItens(itens);
+        if (!itens.isEmpty() && itens.get(0) != null) {
+            model.setSelectedItem(itens.get(0));
         }
         return this;
     }
@@ -179,10 +202,49 @@ public class CampoComboBox<T> extends CampoForm<T> {
      * @return this para encadeamento
      */
     public CampoComboBox<T> clearItems() {
-        model.removeAllElements();
+        itens = new ArrayList<>();
+        model.setItens(itens);
+        return this;
+    }
+    
+    /**
+     * Define o item usado para medir as células, em vez de medir cada item.
+     * Listas com mais de 1000 itens usam o primeiro item se nenhum for definido.
+     * @param prototipo item de tamanho típico (null volta a medir todos)
+     * @return this para encadeamento
+     */
+    public CampoComboBox<T> setPrototipo(T prototipo) {
+        prototipoDefinido = prototipo != null;
+        aplicarPrototipo(prototipo);
         return this;
     }
     
+    /**
+     * Chamado antes do evento do modelo: sem protótipo a lista do popup mede cada item.
+     */
+    private void atualizarPrototipo() {
+        if (!prototipoDefinido && itens.size() >= ModeloLista.LIMIAR_PROTOTIPO
+                && comboBox.getPrototypeDisplayValue() == null) {
+            aplicarPrototipo(ModeloLista.sugerirPrototipo(itens));
+        }
+    }
+    
+    private void aplicarPrototipo(T prototipo) {
+        comboBox.setPrototypeDisplayValue(prototipo);
+        aplicarPrototipoPopup(prototipo);
+    }
+    
+    /**
+     * A lista do popup também mediria cada item. O popup pertence à UI,
+     * então o protótipo é reaplicado a cada troca de UI.
+     */
+    private void aplicarPrototipoPopup(T prototipo) {
+        Object popup = comboBox.getUI().getAccessibleChild(comboBox, 0);
+        if (popup instanceof ComboPopup) {
+            ((ComboPopup) popup).getList().setPrototypeCellValue(prototipo);
+        }
+    }
+    
     /**
      * Adiciona um item placeholder no início (ex: "Selecione...").
      * @param placeholderText texto do placeholder
@@ -190,7 +252,8 @@ public class CampoComboBox<T> extends CampoForm<T> {
      */
     @SuppressWarnings("unchecked")
     public CampoComboBox<T> addPlaceholder(String placeholderText) {
-        model.insertElementAt(null, 0);
+        itens.add(0, null);
+        model.itensInseridos(0, 0);
         comboBox.setSelectedIndex(0);
         
         comboBox.setRenderer(new DefaultListCellRenderer() {
@@ -0,0 +1,372 @@
+package campo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Índice de busca usado pelo {@link CampoBusca}.
+ *
+ * <p>Guarda a chave normalizada de cada item (ver {@link util.TextoUtil#normalizar})
+ * e, para cada trigrama, a lista dos itens que o contêm. Uma consulta de três ou mais
+ * caracteres só testa os itens presentes em todas as listas dos seus trigramas;
+ * consultas menores percorrem as chaves, sem criar strings. O resultado são os
+ * {@code limite} melhores itens: igual, começa com, começa uma palavra, contém.</p>
+ *
+ * <p>Na busca aproximada, se faltarem itens para completar o limite, entram os que
+ * têm um trecho a poucas edições da consulta (erros de digitação), ordenados pelo
+ * número de edições. A distância é calculada com o algoritmo de Myers, em paralelo
+ * nos bits de um {@code long}, uma passada por chave.</p>
+ *
+ * <p>Itens removidos só são marcados e deixam de aparecer nos resultados; os ids dos
+ * demais não mudam. Quem usa o índice decide quando reconstruí-lo para liberar o espaço.</p>
+ *
+ * @author alefi
+ */
+final class IndiceBusca {
+
+    private static final int PONTOS_IGUAL = 4;
+    private static final int PONTOS_PREFIXO = 3;
+    private static final int PONTOS_PALAVRA = 2;
+    private static final int PONTOS_CONTEM = 1;
+    /** Consultas maiores não usam a busca aproximada (um bit por caractere). */
+    private static final int MAX_APROXIMADA = 64;
+
+    private String[] chaves = new String[16];
+    /** Caracteres presentes em cada chave, um bit por {@code c % 64}. */
+    private long[] assinaturas = new long[16];
+    private int total;
+    /** Ids removidos (continuam nas listas de trigramas, mas são ignorados). */
+    private final BitSet removidos = new BitSet();
+    private int quantidadeRemovidos;
+
+    // Tabela de espalhamento aberta: trigrama → lista de itens (ids crescentes)
+    private long[] trigramas = new long[1024];
+    private int[][] listas = new int[1024][];
+    private int[] tamanhos = new int[1024];
+    private int ocupados;
+
+    /**
+     * Adiciona a chave (já normalizada) do próximo item.
+     *
+     * @return id do item, na ordem de inserção
+     */
+    int adicionar(String chave) {
+        if (total == chaves.length) {
+            chaves = Arrays.copyOf(chaves, total * 2);
+            assinaturas = Arrays.copyOf(assinaturas, total * 2);
+        }
+        int id = total++;
+        chaves[id] = chave;
+        assinaturas[id] = assinatura(chave);
+        for (int i = 0; i + 3 <= chave.length(); i++) {
+            anexar(trigrama(chave, i), id);
+        }
+        return id;
+    }
+
+    /**
+     * Marca o item como removido. Os ids dos demais itens não mudam.
+     */
+    void remover(int id) {
+        if (id >= 0 && id < total && !removidos.get(id)) {
+            removidos.set(id);
+            quantidadeRemovidos++;
+        }
+    }
+
+    boolean isRemovido(int id) {
+        return removidos.get(id);
+    }
+
+    /** Total de ids, incluindo os removidos. */
+    int getTotal() {
+        return total;
+    }
+
+    int getRemovidos() {
+        return quantidadeRemovidos;
+    }
+
+    String getChave(int id) {
+        return chaves[id];
+    }
+
+    /**
+     * Busca os melhores itens cuja chave contém a consulta.
+     *
+     * @param consulta Texto já normalizado
+     * @param limite Máximo de resultados
+     * @param aproximada Completar com itens a poucas edições da consulta
+     * @return Ids dos itens, do melhor para o pior
+     */
+    int[] buscar(String consulta, int limite, boolean aproximada) {
+        if (consulta.isEmpty() || limite <= 0) return new int[0];
+        MelhoresK melhores = new MelhoresK(limite);
+
+        if (consulta.length() < 3) {
+            for (int id = 0; id < total; id++) {
+                avaliar(id, consulta, melhores);
+            }
+        } else {
+            int[] candidatos = candidatos(consulta);
+            for (int id : candidatos) {
+                avaliar(id, consulta, melhores);
+            }
+        }
+
+        int erros = errosPermitidos(consulta.length());
+        if (aproximada && erros > 0 && melhores.tamanho < limite) {
+            buscarAproximada(consulta, erros, melhores);
+        }
+        return melhores.ordenados();
+    }
+
+    /**
+     * Edições toleradas: nenhuma até 3 caracteres, uma até 7, duas a partir daí.
+     */
+    static int errosPermitidos(int tamanhoConsulta) {
+        if (tamanhoConsulta < 4 || tamanhoConsulta > MAX_APROXIMADA) return 0;
+        return tamanhoConsulta < 8 ? 1 : 2;
+    }
+
+    private void buscarAproximada(String consulta, int erros, MelhoresK melhores) {
+        long[] mascaras = new long[128];
+        for (int i = 0; i < consulta.length(); i++) {
+            char c = consulta.charAt(i);
+            if (c < 128) mascaras[c] |= 1L << i;
+        }
+        long assinaturaConsulta = assinatura(consulta);
+        for (int id = 0; id < total; id++) {
+            // Cada edição traz no máximo um caractere que falta na chave
+            if (Long.bitCount(assinaturaConsulta & ~assinaturas[id]) > erros || removidos.get(id)) continue;
+            String chave = chaves[id];
+            int distancia = distancia(chave, consulta, mascaras);
+            // distância 0 = contém, já avaliado
+            if (distancia > 0 && distancia <= erros) {
+                melhores.oferecer(id, -distancia * 1_000_000 - Math.min(chave.length(), 999_999));
+            }
+        }
+    }
+
+    /**
+     * Menor distância de edição entre a consulta e algum trecho da chave.
+     *
+     * @param mascaras Bits das posições de cada caractere ASCII na consulta
+     */
+    static int distancia(String chave, String consulta, long[] mascaras) {
+        int m = consulta.length();
+        long alto = 1L << (m - 1);
+        long pv = -1L, mv = 0L;
+        int pontuacao = m, menor = m;
+        for (int i = 0, n = chave.length(); i < n; i++) {
+            char c = chave.charAt(i);
+            long eq = c < 128 ? mascaras[c] : mascara(consulta, c);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & alto) != 0) {
+                pontuacao++;
+            } else if ((mh & alto) != 0) {
+                pontuacao--;
+            }
+            // Sem "| 1": o trecho pode começar em qualquer posição da chave
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            if (pontuacao < menor) menor = pontuacao;
+        }
+        return menor;
+    }
+
+    private static long assinatura(String texto) {
+        long bits = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            bits |= 1L << texto.charAt(i);
+        }
+        return bits;
+    }
+
+    private static long mascara(String consulta, char c) {
+        long bits = 0;
+        for (int i = 0; i < consulta.length(); i++) {
+            if (consulta.charAt(i) == c) bits |= 1L << i;
+        }
+        return bits;
+    }
+
+    private void avaliar(int id, String consulta, MelhoresK melhores) {
+        if (removidos.get(id)) return;
+        String chave = chaves[id];
+        int pos = chave.indexOf(consulta);
+        if (pos < 0) return;
+        int pontos;
+        if (pos == 0) {
+            pontos = chave.length() == consulta.length() ? PONTOS_IGUAL : PONTOS_PREFIXO;
+        } else if (!Character.isLetterOrDigit(chave.charAt(pos - 1))) {
+            pontos = PONTOS_PALAVRA;
+        } else {
+            pontos = PONTOS_CONTEM;
+        }
+        // Dentro da mesma categoria, chaves mais curtas primeiro
+        melhores.oferecer(id, pontos * 1_000_000 - Math.min(chave.length(), 999_999));
+    }
+
+    /**
+     * Interseção das listas dos trigramas da consulta, começando pela menor.
+     */
+    private int[] candidatos(String consulta) {
+        int n = consulta.length() - 2;
+        int[][] usadas = new int[n][];
+        int[] tamanhosUsados = new int[n];
+        for (int i = 0; i < n; i++) {
+            int slot = localizar(trigrama(consulta, i));
+            if (trigramas[slot] == 0) return new int[0];
+            usadas[i] = listas[slot];
+            tamanhosUsados[i] = tamanhos[slot];
+        }
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) ordem[i] = i;
+        Arrays.sort(ordem, (a, b) -> Integer.compare(tamanhosUsados[a], tamanhosUsados[b]));
+
+        int[] resultado = Arrays.copyOf(usadas[ordem[0]], tamanhosUsados[ordem[0]]);
+        int quantidade = resultado.length;
+        for (int k = 1; k < n && quantidade > 0; k++) {
+            int[] outra = usadas[ordem[k]];
+            int tamanhoOutra = tamanhosUsados[ordem[k]];
+            int escrito = 0, j = 0;
+            for (int i = 0; i < quantidade && j < tamanhoOutra; i++) {
+                int id = resultado[i];
+                while (j < tamanhoOutra && outra[j] < id) j++;
+                if (j < tamanhoOutra && outra[j] == id) resultado[escrito++] = id;
+            }
+            quantidade = escrito;
+        }
+        return Arrays.copyOf(resultado, quantidade);
+    }
+
+    // ==================== TABELA DE TRIGRAMAS ====================
+
+    /** Três caracteres em um long; nunca é 0 (marca de posição vazia). */
+    private static long trigrama(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2) | (1L << 48);
+    }
+
+    private int localizar(long trigrama) {
+        int mascara = trigramas.length - 1;
+        int slot = Long.hashCode(trigrama * 0x9E3779B97F4A7C15L) & mascara;
+        while (trigramas[slot] != 0 && trigramas[slot] != trigrama) {
+            slot = (slot + 1) & mascara;
+        }
+        return slot;
+    }
+
+    private void anexar(long trigrama, int id) {
+        int slot = localizar(trigrama);
+        if (trigramas[slot] == 0) {
+            trigramas[slot] = trigrama;
+            listas[slot] = new int[4];
+            if (++ocupados * 2 > trigramas.length) {
+                crescer();
+                slot = localizar(trigrama);
+            }
+        }
+        int tamanho = tamanhos[slot];
+        int[] lista = listas[slot];
+        if (tamanho > 0 && lista[tamanho - 1] == id) return; // trigrama repetido na chave
+        if (tamanho == lista.length) {
+            lista = listas[slot] = Arrays.copyOf(lista, tamanho * 2);
+        }
+        lista[tamanho] = id;
+        tamanhos[slot] = tamanho + 1;
+    }
+
+    private void crescer() {
+        long[] antigosTrigramas = trigramas;
+        int[][] antigasListas = listas;
+        int[] antigosTamanhos = tamanhos;
+        trigramas = new long[antigosTrigramas.length * 2];
+        listas = new int[trigramas.length][];
+        tamanhos = new int[trigramas.length];
+        for (int i = 0; i < antigosTrigramas.length; i++) {
+            if (antigosTrigramas[i] != 0) {
+                int slot = localizar(antigosTrigramas[i]);
+                trigramas[slot] = antigosTrigramas[i];
+                listas[slot] = antigasListas[i];
+                tamanhos[slot] = antigosTamanhos[i];
+            }
+        }
+    }
+
+    // ==================== MELHORES K ====================
+
+    /**
+     * Heap de mínimo com os K melhores (pontos maiores; empate, id menor).
+     */
+    static final class MelhoresK {
+        private final int[] ids;
+        private final int[] pontos;
+        private int tamanho;
+
+        MelhoresK(int limite) {
+            ids = new int[limite];
+            pontos = new int[limite];
+        }
+
+        void oferecer(int id, int pontuacao) {
+            if (tamanho < ids.length) {
+                ids[tamanho] = id;
+                pontos[tamanho] = pontuacao;
+                subir(tamanho++);
+            } else if (melhor(id, pontuacao, ids[0], pontos[0])) {
+                ids[0] = id;
+                pontos[0] = pontuacao;
+                descer(0);
+            }
+        }
+
+        int[] ordenados() {
+            int n = tamanho;
+            int[] resultado = new int[n];
+            // Retira o pior de cada vez, preenchendo do fim para o início
+            for (int i = n - 1; i >= 0; i--) {
+                resultado[i] = ids[0];
+                tamanho--;
+                ids[0] = ids[tamanho];
+                pontos[0] = pontos[tamanho];
+                descer(0);
+            }
+            return resultado;
+        }
+
+        private static boolean melhor(int idA, int pontosA, int idB, int pontosB) {
+            return pontosA != pontosB ? pontosA > pontosB : idA < idB;
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int pai = (i - 1) / 2;
+                if (!melhor(ids[pai], pontos[pai], ids[i], pontos[i])) break;
+                trocar(i, pai);
+                i = pai;
+            }
+        }
+
+        private void descer(int i) {
+            while (true) {
+                int esq = 2 * i + 1, dir = esq + 1, pior = i;
+                if (esq < tamanho && melhor(ids[pior], pontos[pior], ids[esq], pontos[esq])) pior = esq;
+                if (dir < tamanho && melhor(ids[pior], pontos[pior], ids[dir], pontos[dir])) pior = dir;
+                if (pior == i) return;
+                trocar(i, pior);
+                i = pior;
+            }
+        }
+
+        private void trocar(int a, int b) {
+            int id = ids[a]; ids[a] = ids[b]; ids[b] = id;
+            int p = pontos[a]; pontos[a] = pontos[b]; pontos[b] = p;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package campo;
+
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ListModel/ComboBoxModel somente leitura que referencia uma lista, sem copiar os itens.
+ *
+ * <p>Trocar a lista dispara um único evento, em vez de um {@code addElement} por item
+ * como no {@code DefaultListModel}/{@code DefaultComboBoxModel}. Quem mantém a lista
+ * avisa as alterações pelos métodos {@link #itensInseridos} e {@link #atualizar}.</p>
+ *
+ * <p>Para listas grandes, use também um valor de protótipo na {@code JList}/{@code JComboBox}
+ * ({@link #sugerirPrototipo}): sem ele o Swing mede cada item para calcular o tamanho.</p>
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * ModeloLista<Cliente> modelo = new ModeloLista<>();
+ * JComboBox<Cliente> combo = new JComboBox<>(modelo);
+ * modelo.setItens(clientes);
+ * combo.setPrototypeDisplayValue(modelo.sugerirPrototipo());
+ * }</pre>
+ *
+ * @param <T> Tipo dos itens
+ * @author alefi
+ * @since 2.1
+ */
+public class ModeloLista<T> extends AbstractListModel<T> implements ComboBoxModel<T> {
+
+    /** A partir deste tamanho os componentes do pacote passam a usar protótipo. */
+    static final int LIMIAR_PROTOTIPO = 1_000;
+
+    private List<T> itens = Collections.emptyList();
+    private Object selecionado;
+
+    /**
+     * Troca os itens exibidos, com um único evento. A lista não é copiada
+     * e a seleção é descartada.
+     *
+     * @param itens Novos itens
+     */
+    public void setItens(List<T> itens) {
+        int tamanhoAnterior = this.itens.size();
+        this.itens = itens != null ? itens : Collections.emptyList();
+        selecionado = null;
+        atualizar(tamanhoAnterior);
+    }
+
+    /**
+     * Notifica que a lista referenciada foi alterada por fora.
+     *
+     * @param tamanhoAnterior Tamanho da lista antes da alteração
+     */
+    public void atualizar(int tamanhoAnterior) {
+        int maior = Math.max(tamanhoAnterior, itens.size());
+        if (maior > 0) {
+            fireContentsChanged(this, 0, maior - 1);
+        }
+    }
+
+    /**
+     * Notifica que a lista referenciada ganhou os itens do intervalo.
+     *
+     * @param primeiro Índice do primeiro item inserido
+     * @param ultimo Índice do último item inserido
+     */
+    public void itensInseridos(int primeiro, int ultimo) {
+        if (primeiro <= ultimo) {
+            fireIntervalAdded(this, primeiro, ultimo);
+        }
+    }
+
+    /**
+     * Notifica que os itens do intervalo foram removidos da lista referenciada.
+     *
+     * @param primeiro Índice (anterior) do primeiro item removido
+     * @param ultimo Índice (anterior) do último item removido
+     */
+    public void itensRemovidos(int primeiro, int ultimo) {
+        if (primeiro <= ultimo) {
+            fireIntervalRemoved(this, primeiro, ultimo);
+        }
+    }
+
+    /**
+     * Remove todos os itens.
+     */
+    public void limpar() {
+        setItens(null);
+    }
+
+    /**
+     * Retorna os itens (somente leitura).
+     *
+     * @return Lista de itens
+     */
+    public List<T> getItens() {
+        return Collections.unmodifiableList(itens);
+    }
+
+    /**
+     * Verifica se o modelo está vazio.
+     *
+     * @return true se não há itens
+     */
+    public boolean isEmpty() {
+        return itens.isEmpty();
+    }
+
+    /**
+     * Sugere um protótipo de célula: o primeiro item não nulo entre os primeiros da lista.
+     *
+     * @return Item ou null se não houver
+     */
+    public T sugerirPrototipo() {
+        return sugerirPrototipo(itens);
+    }
+
+    /**
+     * Como {@link #sugerirPrototipo()}, para uma lista que ainda vai ser exibida
+     * (o protótipo deve ser definido antes do evento, senão a lista mede cada item).
+     */
+    static <T> T sugerirPrototipo(List<T> itens) {
+        for (int i = 0, n = Math.min(itens.size(), 10); i < n; i++) {
+            T item = itens.get(i);
+            if (item != null) return item;
+        }
+        return null;
+    }
+
+    @Override
+    public int getSize() {
+        return itens.size();
+    }
+
+    @Override
+    public T getElementAt(int index) {
+        return index >= 0 && index < itens.size() ? itens.get(index) : null;
+    }
+
+    // ==================== IMPLEMENTAÇÃO ComboBoxModel ====================
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (!Objects.equals(selecionado, item)) {
+            selecionado = item;
+            // Mesmo evento do DefaultComboBoxModel
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selecionado;
+    }
+}
@@ -1,8 +1,9 @@
 package dialogo;
 
+import tabela.TabelaModeloConversor;
+
 import javax.swing.*;
 import javax.swing.event.*;
-import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
@@ -29,7 +30,7 @@ public class DialogoBusca<T> extends JDialog {
     
     private JTextField campoFiltro;
     private JTable tabela;
-    private DefaultTableModel modeloTabela;
+    private TabelaModeloConversor<T> modeloTabela;
     private JButton btnSelecionar;
     
     private String[] colunas = {"Item"};
@@ -78,13 +79,8 @@ public class DialogoBusca<T> extends JDialog {
         painel.add(painelFiltro, BorderLayout.NORTH);
         
         // Tabela
-        modeloTabela = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        modeloTabela.setColumnIdentifiers(colunas);
+        modeloTabela = new TabelaModeloConversor<>();
+        modeloTabela.setColunas(colunas);
         
         tabela = new JTable(modeloTabela);
         tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -169,18 +165,9 @@ public class DialogoBusca<T> extends JDialog {
     }
     
     private void atualizarTabela(List<T> novosItens) {
-        this.itens = novosItens;
-        modeloTabela.setRowCount(0);
-        
-        for (T item : itens) {
-            Object[] linha;
-            if (conversor != null) {
-                linha = conversor.apply(item);
-            } else {
-                linha = new Object[]{item.toString()};
-            }
-            modeloTabela.addRow(linha);
-        }
+        this.itens = novosItens != null ? novosItens : new ArrayList<>();
+        // Um único evento para a lista toda
+        modeloTabela.setItens(itens);
     }
     
     private void selecionar() {
@@ -201,7 +188,7 @@ public class DialogoBusca<T> extends JDialog {
      */
     public void setColunas(String... colunas) {
         this.colunas = colunas;
-        modeloTabela.setColumnIdentifiers(colunas);
+        modeloTabela.setColunas(colunas);
     }
     
     /**
@@ -209,6 +196,7 @@ public class DialogoBusca<T> extends JDialog {
      */
     public void setConversor(Function<T, Object[]> conversor) {
         this.conversor = conversor;
+        modeloTabela.setConversor(conversor);
     }
     
     /**
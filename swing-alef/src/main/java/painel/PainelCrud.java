@@ -4,10 +4,10 @@ import componente.Toast;
 import dialogo.DialogoFormulario;
 import dialogo.DialogoUtil;
 import nucleo.FabricaDialogo;
+import tabela.FiltroTexto;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
 
 /**
@@ -57,6 +57,7 @@ import java.awt.*;
 public abstract class PainelCrud extends JPanel {
 
     private boolean crudConfigurado = false;
+    private FiltroTexto filtroTexto;
 
     /**
      * Construtor padrão.
@@ -109,6 +110,16 @@ public abstract class PainelCrud extends JPanel {
     protected JLabel getLblStatus() {
         return null;
     }
+    
+    /**
+     * Indica se o filtro deve ser avaliado fora da EDT (opcional).
+     * Sobrescreva retornando true em tabelas muito grandes, para a digitação
+     * no campo de filtro não travar.
+     * @return true para filtrar em segundo plano
+     */
+    protected boolean isFiltroAssincrono() {
+        return false;
+    }
 
     // ==================== CONFIGURAÇÃO ====================
     
@@ -228,9 +239,10 @@ public abstract class PainelCrud extends JPanel {
     }
     
     private void configurarFiltro(JTextField filtro) {
+        // A espera pela pausa na digitação fica com o FiltroTexto
         filtro.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
             private void update() {
-                filtrar(filtro.getText());
+                agendarFiltro(filtro.getText());
             }
             @Override public void insertUpdate(javax.swing.event.DocumentEvent e) { update(); }
             @Override public void removeUpdate(javax.swing.event.DocumentEvent e) { update(); }
@@ -399,35 +411,35 @@ public abstract class PainelCrud extends JPanel {
     }
     
     /**
-     * Filtra a tabela por texto.
+     * Filtra a tabela por texto, ignorando maiúsculas e acentos.
+     * Quando o texto estende o anterior, só as linhas que já passavam são testadas.
      * @param texto texto do filtro
      */
     public void filtrar(String texto) {
+        FiltroTexto filtro = obterFiltroTexto();
+        if (filtro != null) filtro.filtrar(texto);
+    }
+    
+    /**
+     * Agenda o filtro para quando o usuário parar de digitar (ver {@link FiltroTexto#agendar}).
+     * @param texto texto do filtro
+     */
+    public void agendarFiltro(String texto) {
+        FiltroTexto filtro = obterFiltroTexto();
+        if (filtro != null) filtro.agendar(texto);
+    }
+    
+    private FiltroTexto obterFiltroTexto() {
         JTable tabela = getTabela();
-        if (tabela == null) return;
-        
-        // Configura RowSorter se ainda não existe
-        if (tabela.getRowSorter() == null) {
-            tabela.setRowSorter(new TableRowSorter<>(tabela.getModel()));
-        }
+        if (tabela == null) return null;
         
-        if (tabela.getRowSorter() instanceof TableRowSorter) {
-            @SuppressWarnings("unchecked")
-            TableRowSorter<? extends javax.swing.table.TableModel> sorter = 
-                (TableRowSorter<? extends javax.swing.table.TableModel>) tabela.getRowSorter();
-            
-            if (texto == null || texto.trim().isEmpty()) {
-                sorter.setRowFilter(null);
-            } else {
-                try {
-                    // Filtro case-insensitive em todas as colunas
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + texto));
-                } catch (java.util.regex.PatternSyntaxException e) {
-                    // Ignora padrão inválido
-                }
-            }
-            atualizarStatus();
+        if (filtroTexto == null) {
+            filtroTexto = new FiltroTexto(tabela);
+            filtroTexto.setAssincrono(isFiltroAssincrono());
+            // No modo assíncrono o resultado chega depois
+            filtroTexto.setAoFiltrar(this::atualizarStatus);
         }
+        return filtroTexto;
     }
     
     /**
@@ -439,7 +451,9 @@ public abstract class PainelCrud extends JPanel {
         
         if (lblStatus != null && tabela != null) {
             int total = tabela.getModel().getRowCount();
-            int visiveis = tabela.getRowCount();
+            // A contagem do filtro vem do resultado já calculado
+            int visiveis = filtroTexto != null && tabela.getRowSorter() != null
+                    ? filtroTexto.getTotalFiltrado() : tabela.getRowCount();
             if (total == visiveis) {
                 lblStatus.setText(total + " registro" + (total != 1 ? "s" : ""));
             } else {
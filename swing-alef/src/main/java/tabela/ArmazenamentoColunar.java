@@ -0,0 +1,432 @@
+package tabela;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Armazenamento em colunas usado pelo modo colunar do {@link TabelaModelo}.
+ *
+ * <p>Cada coluna guarda seus valores em um array próprio (int[], long[], double[],
+ * boolean[], códigos de dicionário ou Object[]). Os extratores são executados uma
+ * única vez, na inserção ou atualização da linha, e a leitura das células vem
+ * direto dos arrays.</p>
+ *
+ * <p>Quando há um materializador, os objetos originais não são mantidos e são
+ * reconstruídos a partir dos valores das colunas sempre que solicitados.
+ * Sem materializador, os objetos são mantidos junto com as colunas.</p>
+ *
+ * @param <T> Tipo do objeto de cada linha
+ * @author alefi
+ */
+final class ArmazenamentoColunar<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<Coluna<T>> colunas = new ArrayList<>();
+    private final Function<TabelaModelo.LinhaColunar, T> materializador;
+    private final List<T> objetos;
+    private int tamanho;
+    private int capacidade;
+
+    ArmazenamentoColunar(Function<TabelaModelo.LinhaColunar, T> materializador) {
+        this.materializador = materializador;
+        this.objetos = materializador == null ? new ArrayList<>() : null;
+    }
+
+    // ==================== COLUNAS ====================
+
+    /**
+     * Adiciona uma coluna, extraindo os valores das linhas já existentes.
+     * Sem objetos mantidos, cada linha é recriada pelo materializador com as colunas
+     * atuais (a coluna nova ainda lê 0/false/null) e o extrator preenche a nova a partir dela.
+     */
+    void adicionarColuna(Function<T, ?> extrator, Class<?> tipo, boolean dicionario) {
+        Coluna<T> coluna = criarColuna(extrator, tipo, dicionario);
+        coluna.redimensionar(capacidade);
+        for (int i = 0; i < tamanho; i++) {
+            coluna.gravar(i, extrator.apply(get(i)));
+        }
+        colunas.add(coluna);
+    }
+
+    /**
+     * Remove todas as colunas. Sem objetos mantidos, só é permitido sem linhas:
+     * os valores das colunas são a única cópia dos dados.
+     *
+     * @throws IllegalStateException se há linhas e os objetos não são mantidos
+     */
+    void limparColunas() {
+        if (objetos == null && tamanho > 0) {
+            throw new IllegalStateException(
+                    "Colunas não podem ser removidas com linhas que só existem nas colunas; limpe os dados antes");
+        }
+        colunas.clear();
+    }
+
+    /**
+     * Lê o valor de uma célula sem executar o extrator.
+     */
+    Object getValor(int linha, int coluna) {
+        return colunas.get(coluna).ler(linha);
+    }
+
+    boolean mantemObjetos() {
+        return objetos != null;
+    }
+
+    /**
+     * Copia os valores de uma coluna primitiva sem boxing: {@code long[]} para colunas
+     * int, long e boolean (1/0) e {@code double[]} para colunas double.
+     *
+     * @return Cópia com uma posição por linha, ou null se a coluna não é primitiva
+     */
+    Object copiarPrimitivos(int coluna) {
+        Coluna<T> c = colunas.get(coluna);
+        if (c instanceof ColunaLong) return Arrays.copyOf(((ColunaLong<T>) c).valores, tamanho);
+        if (c instanceof ColunaDouble) return Arrays.copyOf(((ColunaDouble<T>) c).valores, tamanho);
+        if (c instanceof ColunaInt) {
+            int[] origem = ((ColunaInt<T>) c).valores;
+            long[] copia = new long[tamanho];
+            for (int i = 0; i < tamanho; i++) copia[i] = origem[i];
+            return copia;
+        }
+        if (c instanceof ColunaBoolean) {
+            boolean[] origem = ((ColunaBoolean<T>) c).valores;
+            long[] copia = new long[tamanho];
+            for (int i = 0; i < tamanho; i++) copia[i] = origem[i] ? 1 : 0;
+            return copia;
+        }
+        return null;
+    }
+
+    private static <T> Coluna<T> criarColuna(Function<T, ?> extrator, Class<?> tipo, boolean dicionario) {
+        if (dicionario) return new ColunaDicionario<>(extrator);
+        if (tipo == int.class) return new ColunaInt<>(extrator);
+        if (tipo == long.class) return new ColunaLong<>(extrator);
+        if (tipo == double.class) return new ColunaDouble<>(extrator);
+        if (tipo == boolean.class) return new ColunaBoolean<>(extrator);
+        return new ColunaObjeto<>(extrator);
+    }
+
+    // ==================== IMPLEMENTAÇÃO List ====================
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= tamanho) {
+            throw new IndexOutOfBoundsException("Linha: " + index + ", tamanho: " + tamanho);
+        }
+        if (objetos != null) return objetos.get(index);
+        return materializador.apply(new Linha(index));
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    @Override
+    public T set(int index, T item) {
+        T anterior = get(index);
+        for (Coluna<T> coluna : colunas) {
+            coluna.gravar(index, coluna.extrator.apply(item));
+        }
+        if (objetos != null) objetos.set(index, item);
+        return anterior;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        if (index < 0 || index > tamanho) {
+            throw new IndexOutOfBoundsException("Linha: " + index + ", tamanho: " + tamanho);
+        }
+        if (tamanho == capacidade) {
+            capacidade = Math.max(16, capacidade + (capacidade >> 1));
+            for (Coluna<T> coluna : colunas) {
+                coluna.redimensionar(capacidade);
+            }
+        }
+        for (Coluna<T> coluna : colunas) {
+            if (index < tamanho) coluna.deslocar(index, index + 1, tamanho - index);
+            coluna.gravar(index, coluna.extrator.apply(item));
+        }
+        if (objetos != null) objetos.add(index, item);
+        tamanho++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        T removido = get(index);
+        for (Coluna<T> coluna : colunas) {
+            coluna.deslocar(index + 1, index, tamanho - index - 1);
+            coluna.gravar(tamanho - 1, null);
+        }
+        if (objetos != null) objetos.remove(index);
+        tamanho--;
+        modCount++;
+        return removido;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> itens) {
+        return addAll(tamanho, itens);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> itens) {
+        if (index < 0 || index > tamanho) {
+            throw new IndexOutOfBoundsException("Linha: " + index + ", tamanho: " + tamanho);
+        }
+        int quantidade = itens.size();
+        if (quantidade == 0) return false;
+        if (tamanho + quantidade > capacidade) {
+            capacidade = Math.max(tamanho + quantidade, capacidade + (capacidade >> 1));
+            for (Coluna<T> coluna : colunas) {
+                coluna.redimensionar(capacidade);
+            }
+        }
+        // Um único deslocamento para todo o bloco
+        for (Coluna<T> coluna : colunas) {
+            coluna.deslocar(index, index + quantidade, tamanho - index);
+        }
+        int linha = index;
+        for (T item : itens) {
+            for (Coluna<T> coluna : colunas) {
+                coluna.gravar(linha, coluna.extrator.apply(item));
+            }
+            linha++;
+        }
+        if (objetos != null) objetos.addAll(index, itens);
+        tamanho += quantidade;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int inicio, int fim) {
+        int quantidade = fim - inicio;
+        if (quantidade <= 0) return;
+        for (Coluna<T> coluna : colunas) {
+            coluna.deslocar(fim, inicio, tamanho - fim);
+            for (int i = tamanho - quantidade; i < tamanho; i++) {
+                coluna.gravar(i, null);
+            }
+        }
+        if (objetos != null) objetos.subList(inicio, fim).clear();
+        tamanho -= quantidade;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        for (Coluna<T> coluna : colunas) {
+            coluna.redimensionar(0);
+        }
+        if (objetos != null) objetos.clear();
+        tamanho = 0;
+        capacidade = 0;
+        modCount++;
+    }
+
+    // ==================== LINHA (MATERIALIZAÇÃO) ====================
+
+    /**
+     * Visão de uma linha usada pelo materializador. Colunas primitivas são lidas
+     * sem boxing; uma coluna ainda não criada (durante {@link #adicionarColuna})
+     * lê 0/false/null.
+     */
+    private final class Linha implements TabelaModelo.LinhaColunar {
+        private final int linha;
+
+        Linha(int linha) {
+            this.linha = linha;
+        }
+
+        private Coluna<T> coluna(int coluna) {
+            return coluna < colunas.size() ? colunas.get(coluna) : null;
+        }
+
+        @Override
+        public int getInt(int coluna) {
+            Coluna<T> c = coluna(coluna);
+            return c != null ? (int) c.lerLong(linha) : 0;
+        }
+
+        @Override
+        public long getLong(int coluna) {
+            Coluna<T> c = coluna(coluna);
+            return c != null ? c.lerLong(linha) : 0L;
+        }
+
+        @Override
+        public double getDouble(int coluna) {
+            Coluna<T> c = coluna(coluna);
+            return c != null ? c.lerDouble(linha) : 0.0;
+        }
+
+        @Override
+        public boolean getBoolean(int coluna) {
+            Coluna<T> c = coluna(coluna);
+            if (c instanceof ColunaBoolean) return ((ColunaBoolean<T>) c).valores[linha];
+            return c != null && Boolean.TRUE.equals(c.ler(linha));
+        }
+
+        @Override
+        public String getTexto(int coluna) {
+            Object valor = getValor(coluna);
+            return valor != null ? valor.toString() : null;
+        }
+
+        @Override
+        public Object getValor(int coluna) {
+            Coluna<T> c = coluna(coluna);
+            return c != null ? c.ler(linha) : null;
+        }
+    }
+
+    // ==================== COLUNAS TIPADAS ====================
+
+    /**
+     * Coluna com array próprio. Valores nulos em colunas primitivas viram 0/false.
+     */
+    private abstract static class Coluna<T> {
+        final Function<T, ?> extrator;
+
+        Coluna(Function<T, ?> extrator) {
+            this.extrator = extrator;
+        }
+
+        abstract Object array();
+        abstract void redimensionar(int capacidade);
+        abstract void gravar(int linha, Object valor);
+        abstract Object ler(int linha);
+
+        /** Valor numérico da célula; colunas primitivas sobrescrevem sem boxing. */
+        long lerLong(int linha) {
+            Object valor = ler(linha);
+            return valor instanceof Number ? ((Number) valor).longValue() : 0L;
+        }
+
+        double lerDouble(int linha) {
+            Object valor = ler(linha);
+            return valor instanceof Number ? ((Number) valor).doubleValue() : 0.0;
+        }
+
+        void deslocar(int origem, int destino, int quantidade) {
+            if (quantidade > 0) {
+                System.arraycopy(array(), origem, array(), destino, quantidade);
+            }
+        }
+    }
+
+    private static final class ColunaInt<T> extends Coluna<T> {
+        int[] valores = new int[0];
+
+        ColunaInt(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return valores; }
+        @Override void redimensionar(int capacidade) { valores = Arrays.copyOf(valores, capacidade); }
+        @Override void gravar(int linha, Object valor) { valores[linha] = valor instanceof Number ? ((Number) valor).intValue() : 0; }
+        @Override Object ler(int linha) { return valores[linha]; }
+        @Override long lerLong(int linha) { return valores[linha]; }
+        @Override double lerDouble(int linha) { return valores[linha]; }
+    }
+
+    private static final class ColunaLong<T> extends Coluna<T> {
+        long[] valores = new long[0];
+
+        ColunaLong(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return valores; }
+        @Override void redimensionar(int capacidade) { valores = Arrays.copyOf(valores, capacidade); }
+        @Override void gravar(int linha, Object valor) { valores[linha] = valor instanceof Number ? ((Number) valor).longValue() : 0L; }
+        @Override Object ler(int linha) { return valores[linha]; }
+        @Override long lerLong(int linha) { return valores[linha]; }
+        @Override double lerDouble(int linha) { return valores[linha]; }
+    }
+
+    private static final class ColunaDouble<T> extends Coluna<T> {
+        double[] valores = new double[0];
+
+        ColunaDouble(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return valores; }
+        @Override void redimensionar(int capacidade) { valores = Arrays.copyOf(valores, capacidade); }
+        @Override void gravar(int linha, Object valor) { valores[linha] = valor instanceof Number ? ((Number) valor).doubleValue() : 0.0; }
+        @Override Object ler(int linha) { return valores[linha]; }
+        @Override long lerLong(int linha) { return (long) valores[linha]; }
+        @Override double lerDouble(int linha) { return valores[linha]; }
+    }
+
+    private static final class ColunaBoolean<T> extends Coluna<T> {
+        boolean[] valores = new boolean[0];
+
+        ColunaBoolean(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return valores; }
+        @Override void redimensionar(int capacidade) { valores = Arrays.copyOf(valores, capacidade); }
+        @Override void gravar(int linha, Object valor) { valores[linha] = Boolean.TRUE.equals(valor); }
+        @Override Object ler(int linha) { return valores[linha]; }
+    }
+
+    private static final class ColunaObjeto<T> extends Coluna<T> {
+        Object[] valores = new Object[0];
+
+        ColunaObjeto(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return valores; }
+        @Override void redimensionar(int capacidade) { valores = Arrays.copyOf(valores, capacidade); }
+        @Override void gravar(int linha, Object valor) { valores[linha] = valor; }
+        @Override Object ler(int linha) { return valores[linha]; }
+    }
+
+    /**
+     * Coluna de texto codificada por dicionário: cada linha guarda apenas o
+     * código (int) do texto. Ideal para colunas com poucos valores distintos.
+     */
+    private static final class ColunaDicionario<T> extends Coluna<T> {
+        int[] codigos = new int[0];
+        final List<String> textos = new ArrayList<>();
+        final Map<String, Integer> indice = new HashMap<>();
+
+        ColunaDicionario(Function<T, ?> extrator) { super(extrator); }
+
+        @Override Object array() { return codigos; }
+
+        @Override
+        void redimensionar(int capacidade) {
+            codigos = Arrays.copyOf(codigos, capacidade);
+            if (capacidade == 0) {
+                textos.clear();
+                indice.clear();
+            }
+        }
+
+        @Override
+        void gravar(int linha, Object valor) {
+            if (valor == null) {
+                codigos[linha] = -1;
+                return;
+            }
+            String texto = valor.toString();
+            Integer codigo = indice.get(texto);
+            if (codigo == null) {
+                codigo = textos.size();
+                textos.add(texto);
+                indice.put(texto, codigo);
+            }
+            codigos[linha] = codigo;
+        }
+
+        @Override
+        Object ler(int linha) {
+            int codigo = codigos[linha];
+            return codigo < 0 ? null : textos.get(codigo);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package tabela;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache de valores extraídos por célula usado pelo {@link TabelaModelo}.
+ *
+ * <p>Guarda, por linha, um array com o valor de cada coluna já calculado.
+ * A quantidade de linhas em cache é limitada: ao atingir o limite, a linha
+ * acessada há mais tempo é descartada (LRU). Como o tamanho é limitado,
+ * deslocar índices após uma remoção custa no máximo o limite, não o total de linhas.</p>
+ *
+ * @author alefi
+ */
+final class CacheCelulas {
+
+    /** Marca células ainda não calculadas. */
+    static final Object NAO_CALCULADO = new Object();
+
+    private final int maxLinhas;
+    private LinkedHashMap<Integer, Object[]> linhas;
+    private long acertos;
+    private long falhas;
+
+    CacheCelulas(int maxLinhas) {
+        this.maxLinhas = Math.max(1, maxLinhas);
+        this.linhas = criarMapa();
+    }
+
+    private LinkedHashMap<Integer, Object[]> criarMapa() {
+        return new LinkedHashMap<Integer, Object[]>(Math.min(maxLinhas, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> maisAntiga) {
+                return size() > maxLinhas;
+            }
+        };
+    }
+
+    /**
+     * Retorna o valor em cache ou {@link #NAO_CALCULADO}.
+     */
+    Object get(int linha, int coluna) {
+        Object[] valores = linhas.get(linha);
+        if (valores != null && coluna < valores.length && valores[coluna] != NAO_CALCULADO) {
+            acertos++;
+            return valores[coluna];
+        }
+        falhas++;
+        return NAO_CALCULADO;
+    }
+
+    void put(int linha, int coluna, int totalColunas, Object valor) {
+        Object[] valores = linhas.get(linha);
+        if (valores == null || valores.length < totalColunas) {
+            valores = valores == null ? novoArray(totalColunas) : ampliar(valores, totalColunas);
+            linhas.put(linha, valores);
+        }
+        valores[coluna] = valor;
+    }
+
+    // ==================== INVALIDAÇÃO ====================
+
+    void invalidarLinha(int linha) {
+        linhas.remove(linha);
+    }
+
+    void invalidarIntervalo(int primeira, int ultima) {
+        if (ultima - primeira + 1 >= linhas.size()) {
+            linhas.keySet().removeIf(l -> l >= primeira && l <= ultima);
+        } else {
+            for (int l = primeira; l <= ultima; l++) {
+                linhas.remove(l);
+            }
+        }
+    }
+
+    /**
+     * Remove o intervalo e desloca as linhas seguintes para cima,
+     * acompanhando a remoção feita no modelo.
+     */
+    void removerLinhas(int primeira, int ultima) {
+        int quantidade = ultima - primeira + 1;
+        deslocar(primeira, ultima, -quantidade);
+    }
+
+    /**
+     * Desloca as linhas a partir de {@code primeira} para baixo,
+     * acompanhando uma inserção no meio do modelo.
+     */
+    void inserirLinhas(int primeira, int ultima) {
+        int quantidade = ultima - primeira + 1;
+        deslocar(primeira, -1, quantidade);
+    }
+
+    private void deslocar(int inicio, int fimRemovido, int delta) {
+        boolean afeta = false;
+        for (Integer l : linhas.keySet()) {
+            if (l >= inicio) {
+                afeta = true;
+                break;
+            }
+        }
+        if (!afeta) return;
+
+        // Reconstrói preservando a ordem de acesso (LRU)
+        List<Map.Entry<Integer, Object[]>> entradas = new ArrayList<>(linhas.entrySet());
+        LinkedHashMap<Integer, Object[]> novo = criarMapa();
+        for (Map.Entry<Integer, Object[]> e : entradas) {
+            int l = e.getKey();
+            if (l < inicio) {
+                novo.put(l, e.getValue());
+            } else if (l > fimRemovido) {
+                novo.put(l + delta, e.getValue());
+            }
+        }
+        linhas = novo;
+    }
+
+    void invalidarColuna(int coluna) {
+        for (Object[] valores : linhas.values()) {
+            if (coluna < valores.length) valores[coluna] = NAO_CALCULADO;
+        }
+    }
+
+    void limpar() {
+        linhas.clear();
+    }
+
+    // ==================== ESTATÍSTICAS ====================
+
+    long getAcertos() {
+        return acertos;
+    }
+
+    long getFalhas() {
+        return falhas;
+    }
+
+    int getLinhasEmCache() {
+        return linhas.size();
+    }
+
+    void zerarEstatisticas() {
+        acertos = 0;
+        falhas = 0;
+    }
+
+    private static Object[] novoArray(int tamanho) {
+        Object[] valores = new Object[tamanho];
+        Arrays.fill(valores, NAO_CALCULADO);
+        return valores;
+    }
+
+    private static Object[] ampliar(Object[] valores, int tamanho) {
+        int anterior = valores.length;
+        Object[] novo = Arrays.copyOf(valores, tamanho);
+        Arrays.fill(novo, anterior, tamanho, NAO_CALCULADO);
+        return novo;
+    }
+}
@@ -0,0 +1,518 @@
+package tabela;
+
+import util.TarefaAssincrona;
+import util.TextoUtil;
+
+import javax.swing.DefaultRowSorter;
+import javax.swing.JTable;
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Filtro de texto incremental para JTable, usado por {@link TabelaBase} e pelo PainelCrud.
+ *
+ * <p>Em vez de um {@code RowFilter.regexFilter} novo a cada tecla (que chama
+ * {@code toString} em todas as células de todas as linhas), guarda por linha um texto
+ * já em minúsculas e sem acentos e o resultado do último filtro em um {@link BitSet}:</p>
+ * <ul>
+ *   <li>Se a nova consulta contém a anterior (o usuário digitou mais), só as linhas
+ *       que passavam antes são testadas de novo.</li>
+ *   <li>Se a nova consulta está contida na anterior (apagou um caractere), as linhas
+ *       que passavam continuam passando e só as demais são testadas.</li>
+ *   <li>Alterações no modelo atualizam apenas as linhas afetadas.</li>
+ * </ul>
+ *
+ * <p>A busca ignora maiúsculas e acentos ("joao" encontra "João") e procura o trecho
+ * em cada coluna. Use {@link #agendar(String)} para aplicar o filtro só quando o
+ * usuário para de digitar, e {@link #setAssincrono(boolean)} para avaliar fora da EDT
+ * em tabelas muito grandes.</p>
+ *
+ * <p>Se a tabela ainda não tem RowSorter, é criado um {@link OrdenadorTabela}, que aplica
+ * o resultado sem reordenar. Com um {@code TableRowSorter} ordenado, cada troca de filtro
+ * reordena todas as linhas na EDT.</p>
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * FiltroTexto filtro = new FiltroTexto(tabela);
+ * txtBusca.addKeyListener(new KeyAdapter() {
+ *     public void keyReleased(KeyEvent e) { filtro.agendar(txtBusca.getText()); }
+ * });
+ * filtro.setAoFiltrar(() -> lblStatus.setText(filtro.getTotalFiltrado() + " registros"));
+ * }</pre>
+ *
+ * @author alefi
+ * @since 2.1
+ */
+public class FiltroTexto extends RowFilter<TableModel, Integer> {
+
+    private static final int TAMANHO_BLOCO = 4096;
+
+    private final JTable tabela;
+    private final TableModelListener ouvinteModelo = this::modeloAlterado;
+    private TableModel modelo;
+
+    /** Texto normalizado de cada linha do modelo; null = ainda não calculado. */
+    private List<String> textos;
+    /** {@link #textos} está sendo lida em segundo plano: copiar antes de alterar. */
+    private boolean textosEmUso;
+    /** Linhas que passam na consulta atual. */
+    private BitSet resultado = new BitSet();
+    /** Linhas alteradas no modelo cujo bit em {@link #resultado} precisa ser recalculado. */
+    private final BitSet sujas = new BitSet();
+    private String consulta = "";
+
+    private final Timer temporizador;
+    private String textoAgendado;
+    private Runnable aoFiltrar;
+    private Consumer<Exception> aoErro;
+
+    private boolean assincrono;
+    /** Sinal de cancelamento da avaliação em segundo plano em andamento. */
+    private AtomicBoolean execucaoAtual;
+    /** Incrementada a cada evento do modelo; resultados de versões antigas são refeitos. */
+    private int versaoModelo;
+
+    /**
+     * Cria um filtro para a tabela. O filtro acompanha trocas de modelo da tabela.
+     *
+     * @param tabela Tabela a filtrar
+     */
+    public FiltroTexto(JTable tabela) {
+        this.tabela = tabela;
+        this.temporizador = new Timer(150, e -> filtrar(textoAgendado));
+        this.temporizador.setRepeats(false);
+        vincular(tabela.getModel());
+        tabela.addPropertyChangeListener("model", e -> vincular((TableModel) e.getNewValue()));
+    }
+
+    // ==================== CONFIGURAÇÃO ====================
+
+    /**
+     * Define o tempo de espera de {@link #agendar(String)}.
+     *
+     * @param ms Milissegundos sem digitação antes de filtrar (padrão: 150)
+     */
+    public void setAtraso(int ms) {
+        temporizador.setInitialDelay(Math.max(0, ms));
+    }
+
+    /**
+     * Define ação executada sempre que o filtro é aplicado (ex: atualizar contagem).
+     *
+     * @param acao Callback
+     */
+    public void setAoFiltrar(Runnable acao) {
+        this.aoFiltrar = acao;
+    }
+
+    /**
+     * Define ação executada (na EDT) quando a avaliação em segundo plano falha,
+     * por exemplo um conversor de coluna que lança exceção. A tabela fica com o
+     * último resultado aplicado. Sem ação definida, o erro é impresso no console.
+     *
+     * @param acao Callback que recebe a exceção
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
+    }
+
+    /**
+     * Ativa a avaliação fora da EDT, em blocos paralelos. Consultas novas cancelam
+     * a avaliação anterior, e a tabela só muda quando o resultado fica pronto
+     * (em um único passo na EDT). Indicado para modelos muito grandes.
+     *
+     * <p>Com um {@link TabelaModelo}, os valores das linhas também são lidos fora da
+     * EDT, a partir de uma cópia das referências dos itens; com outros modelos (ou no
+     * modo colunar), as linhas ainda sem texto são lidas na EDT antes de começar.</p>
+     *
+     * @param assincrono true para avaliar em segundo plano
+     */
+    public void setAssincrono(boolean assincrono) {
+        this.assincrono = assincrono;
+    }
+
+    /**
+     * Verifica se há uma avaliação em segundo plano em andamento.
+     *
+     * @return true enquanto o resultado não foi aplicado
+     */
+    public boolean isFiltrando() {
+        return execucaoAtual != null;
+    }
+
+    // ==================== FILTRAGEM ====================
+
+    /**
+     * Agenda a filtragem, reiniciando a espera a cada chamada.
+     * Útil em listeners de digitação.
+     *
+     * @param texto Texto a procurar
+     */
+    public void agendar(String texto) {
+        textoAgendado = texto;
+        temporizador.restart();
+    }
+
+    /**
+     * Aplica o filtro. Texto vazio ou nulo remove o filtro.
+     *
+     * <p>No modo {@link #setAssincrono(boolean) assíncrono}, a avaliação roda em
+     * segundo plano e o resultado é aplicado à tabela quando fica pronto.</p>
+     *
+     * @param texto Texto a procurar
+     */
+    public void filtrar(String texto) {
+        temporizador.stop();
+        RowSorter<? extends TableModel> sorter = obterSorter();
+        if (sorter == null) return;
+
+        cancelarExecucao();
+        String nova = TextoUtil.normalizar(texto != null ? texto.trim() : null);
+        if (nova.isEmpty()) {
+            consulta = "";
+            definirFiltro(sorter, null);
+            notificar();
+            return;
+        }
+
+        // Linhas que certamente passam (base) e linhas a testar (candidatas)
+        int total = modelo.getRowCount();
+        boolean incremental = !consulta.isEmpty();
+        if (textos == null || textos.size() != total) {
+            textos = new ArrayList<>(Collections.nCopies(total, (String) null));
+            incremental = false;
+        }
+        BitSet base = new BitSet();
+        BitSet candidatas = new BitSet();
+        if (incremental && nova.contains(consulta)) {
+            // Refinamento: só quem passava (ou mudou) pode continuar passando
+            candidatas.or(resultado);
+            candidatas.or(sujas);
+        } else if (incremental && consulta.contains(nova)) {
+            // Ampliação: quem passava continua passando
+            base.or(resultado);
+            base.andNot(sujas);
+            candidatas.set(0, total);
+            candidatas.andNot(base);
+        } else {
+            // Textos já calculados são reaproveitados; só o resultado é refeito
+            candidatas.set(0, total);
+        }
+
+        if (assincrono) {
+            filtrarEmSegundoPlano(nova, base, candidatas);
+            return;
+        }
+        for (int i = candidatas.nextSetBit(0); i >= 0 && i < total; i = candidatas.nextSetBit(i + 1)) {
+            if (texto(i).contains(nova)) base.set(i);
+        }
+        aplicar(sorter, nova, base);
+    }
+
+    /**
+     * Remove o filtro.
+     */
+    public void limpar() {
+        filtrar(null);
+    }
+
+    /**
+     * Retorna a consulta atual, já normalizada.
+     *
+     * @return Consulta ("" se sem filtro)
+     */
+    public String getConsulta() {
+        return consulta;
+    }
+
+    /**
+     * Retorna quantas linhas do modelo passam no filtro, sem percorrer o modelo.
+     *
+     * @return Linhas filtradas (ou total do modelo, se sem filtro)
+     */
+    public int getTotalFiltrado() {
+        if (consulta.isEmpty() || modelo == null) {
+            return modelo != null ? modelo.getRowCount() : 0;
+        }
+        return resultado.cardinality();
+    }
+
+    @Override
+    public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+        if (consulta.isEmpty()) return true;
+        int linha = entry.getIdentifier();
+        if (textos == null || textos.size() != modelo.getRowCount()) {
+            // Evento perdido ou fora de ordem: refaz tudo na EDT
+            int total = modelo.getRowCount();
+            textos = new ArrayList<>(Collections.nCopies(total, (String) null));
+            sujas.clear();
+            sujas.set(0, total);
+        }
+        if (sujas.get(linha)) {
+            resultado.set(linha, texto(linha).contains(consulta));
+            sujas.clear(linha);
+        }
+        return resultado.get(linha);
+    }
+
+    private void aplicar(RowSorter<? extends TableModel> sorter, String nova, BitSet novoResultado) {
+        resultado = novoResultado;
+        sujas.clear();
+        consulta = nova;
+        definirFiltro(sorter, this);
+        notificar();
+    }
+
+    private String texto(int linha) {
+        String texto = textos.get(linha);
+        if (texto == null) {
+            texto = montarTexto(valoresLinha(linha));
+            textosEditaveis().set(linha, texto);
+        }
+        return texto;
+    }
+
+    /**
+     * Copia {@link #textos} se uma avaliação em segundo plano (mesmo cancelada) ainda pode lê-la.
+     */
+    private List<String> textosEditaveis() {
+        if (textosEmUso) {
+            textos = new ArrayList<>(textos);
+            textosEmUso = false;
+        }
+        return textos;
+    }
+
+    private Object[] valoresLinha(int linha) {
+        Object[] valores = new Object[modelo.getColumnCount()];
+        for (int c = 0; c < valores.length; c++) {
+            valores[c] = modelo.getValueAt(linha, c);
+        }
+        return valores;
+    }
+
+    private static String montarTexto(Object[] valores) {
+        StringBuilder sb = new StringBuilder();
+        for (Object valor : valores) {
+            if (valor != null) sb.append(TextoUtil.normalizar(valor.toString()));
+            sb.append('\n'); // separador: o trecho não atravessa colunas
+        }
+        return sb.toString();
+    }
+
+    // ==================== AVALIAÇÃO EM SEGUNDO PLANO ====================
+
+    /**
+     * Avalia as candidatas fora da EDT, em blocos paralelos. A lista de textos é
+     * compartilhada com a tarefa (a EDT passa a copiá-la antes de alterar), e os
+     * textos que faltam são montados na tarefa a partir de um leitor instantâneo do
+     * modelo. Na EDT fica só a aplicação do resultado, como um conjunto já calculado.
+     */
+    private void filtrarEmSegundoPlano(String nova, BitSet base, BitSet candidatas) {
+        List<String> lista = textos;
+        textosEmUso = true;
+        IntFunction<Object[]> leitor = modelo instanceof TabelaModelo
+                ? ((TabelaModelo<?>) modelo).leitorInstantaneo() : null;
+        // Sem leitor, as linhas sem texto são lidas aqui, na EDT
+        int[] pendentesLidas = null;
+        Object[][] valoresLidos = null;
+        if (leitor == null) {
+            pendentesLidas = candidatas.stream().filter(i -> lista.get(i) == null).toArray();
+            valoresLidos = new Object[pendentesLidas.length][];
+            for (int k = 0; k < pendentesLidas.length; k++) {
+                valoresLidos[k] = valoresLinha(pendentesLidas[k]);
+            }
+        }
+        int[] lidas = pendentesLidas;
+        Object[][] valores = valoresLidos;
+
+        AtomicBoolean cancelado = new AtomicBoolean();
+        execucaoAtual = cancelado;
+        int minhaVersao = versaoModelo;
+        TarefaAssincrona.executar(() -> {
+            int[] pendentes = lidas != null ? lidas
+                    : candidatas.stream().filter(i -> lista.get(i) == null).toArray();
+            String[] novos = new String[pendentes.length];
+            IntStream.range(0, pendentes.length).parallel().forEach(k -> {
+                if (cancelado.get()) return;
+                novos[k] = montarTexto(valores != null ? valores[k] : leitor.apply(pendentes[k]));
+            });
+            if (cancelado.get()) return null;
+            List<String> completa = new ArrayList<>(lista);
+            for (int k = 0; k < pendentes.length; k++) {
+                completa.set(pendentes[k], novos[k]);
+            }
+            BitSet encontradas = avaliarEmBlocos(completa, candidatas, nova, cancelado);
+            encontradas.or(base);
+            return new Avaliacao(completa, encontradas);
+        }, avaliacao -> {
+            if (cancelado.get() || avaliacao == null) return;
+            execucaoAtual = null;
+            if (minhaVersao != versaoModelo) {
+                // O modelo mudou durante a avaliação: refaz com os dados atuais
+                filtrar(nova);
+                return;
+            }
+            textos = avaliacao.textos;
+            textosEmUso = false;
+            RowSorter<? extends TableModel> sorter = obterSorter();
+            if (sorter != null) aplicar(sorter, nova, avaliacao.encontradas);
+        }, erro -> {
+            // Avaliação substituída por outra consulta: o erro não interessa mais
+            if (execucaoAtual != cancelado) return;
+            execucaoAtual = null;
+            textosEmUso = false;
+            notificarErro(erro);
+        });
+    }
+
+    private void notificarErro(Exception e) {
+        if (aoErro != null) {
+            aoErro.accept(e);
+        } else {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Resultado de uma avaliação em segundo plano.
+     */
+    private static final class Avaliacao {
+        final List<String> textos;
+        final BitSet encontradas;
+
+        Avaliacao(List<String> textos, BitSet encontradas) {
+            this.textos = textos;
+            this.encontradas = encontradas;
+        }
+    }
+
+    private static BitSet avaliarEmBlocos(List<String> textos, BitSet candidatas, String consulta, AtomicBoolean cancelado) {
+        int blocos = (textos.size() + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        return IntStream.range(0, blocos).parallel().mapToObj(b -> {
+            BitSet parcial = new BitSet();
+            if (cancelado.get()) return parcial;
+            int fim = Math.min(textos.size(), (b + 1) * TAMANHO_BLOCO);
+            for (int i = candidatas.nextSetBit(b * TAMANHO_BLOCO); i >= 0 && i < fim; i = candidatas.nextSetBit(i + 1)) {
+                if (textos.get(i).contains(consulta)) parcial.set(i);
+            }
+            return parcial;
+        }).collect(BitSet::new, BitSet::or, BitSet::or);
+    }
+
+    private void cancelarExecucao() {
+        if (execucaoAtual != null) {
+            execucaoAtual.set(true);
+            execucaoAtual = null;
+        }
+    }
+
+    private void notificar() {
+        if (aoFiltrar != null) aoFiltrar.run();
+    }
+
+    /**
+     * Sorter da tabela que aceita o filtro: {@link DefaultRowSorter} ou {@link OrdenadorTabela}.
+     */
+    private RowSorter<? extends TableModel> obterSorter() {
+        if (modelo == null) return null;
+        RowSorter<? extends TableModel> atual = tabela.getRowSorter();
+        if (atual != null && atual.getModel() == modelo) {
+            boolean aceitaFiltro = atual instanceof DefaultRowSorter || atual instanceof OrdenadorTabela;
+            return aceitaFiltro ? atual : null; // RowSorter próprio sem suporte a RowFilter
+        }
+        // Aplica o filtro sobre a ordem atual, sem reordenar
+        OrdenadorTabela<TableModel> novo = new OrdenadorTabela<>(modelo);
+        tabela.setRowSorter(novo);
+        return novo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void definirFiltro(RowSorter<? extends TableModel> sorter, RowFilter<TableModel, Integer> filtro) {
+        if (sorter instanceof OrdenadorTabela) {
+            OrdenadorTabela<? extends TableModel> ordenador = (OrdenadorTabela<? extends TableModel>) sorter;
+            if (filtro != null || ordenador.getRowFilter() != null) ordenador.setRowFilter(filtro);
+        } else {
+            DefaultRowSorter<? extends TableModel, Integer> padrao = (DefaultRowSorter<? extends TableModel, Integer>) sorter;
+            if (filtro != null || padrao.getRowFilter() != null) padrao.setRowFilter(filtro);
+        }
+    }
+
+    // ==================== EVENTOS DO MODELO ====================
+
+    private void vincular(TableModel novo) {
+        cancelarExecucao();
+        versaoModelo++;
+        if (modelo != null) modelo.removeTableModelListener(ouvinteModelo);
+        modelo = novo;
+        textos = null;
+        textosEmUso = false;
+        sujas.clear();
+        resultado = new BitSet();
+        // Registrado depois da JTable, este ouvinte é notificado antes dela (e do sorter)
+        if (modelo != null) modelo.addTableModelListener(ouvinteModelo);
+    }
+
+    private void modeloAlterado(TableModelEvent e) {
+        versaoModelo++;
+        if (textos == null) return;
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            textos = null;
+            return;
+        }
+        int primeira = e.getFirstRow();
+        int ultima = e.getLastRow();
+        int quantidade = ultima - primeira + 1;
+        textosEditaveis();
+        switch (e.getType()) {
+            case TableModelEvent.INSERT:
+                textos.addAll(primeira, Collections.nCopies(quantidade, (String) null));
+                deslocar(resultado, primeira, quantidade);
+                deslocar(sujas, primeira, quantidade);
+                sujas.set(primeira, ultima + 1);
+                break;
+            case TableModelEvent.DELETE:
+                textos.subList(primeira, ultima + 1).clear();
+                remover(resultado, primeira, ultima);
+                remover(sujas, primeira, ultima);
+                break;
+            default:
+                for (int i = primeira; i <= ultima && i < textos.size(); i++) {
+                    textos.set(i, null);
+                }
+                sujas.set(primeira, Math.min(ultima + 1, textos.size()));
+        }
+    }
+
+    /** Desloca os bits a partir de {@code inicio} (linhas inseridas); também usado pelo {@link OrdenadorTabela}. */
+    static void deslocar(BitSet bits, int inicio, int quantidade) {
+        if (bits.length() <= inicio) return;
+        BitSet acima = bits.get(inicio, bits.length());
+        bits.clear(inicio, bits.length());
+        for (int i = acima.nextSetBit(0); i >= 0; i = acima.nextSetBit(i + 1)) {
+            bits.set(inicio + quantidade + i);
+        }
+    }
+
+    /** Remove os bits do intervalo e puxa os seguintes (linhas removidas). */
+    static void remover(BitSet bits, int primeira, int ultima) {
+        if (bits.length() <= primeira) return;
+        BitSet acima = bits.get(ultima + 1, Math.max(ultima + 1, bits.length()));
+        bits.clear(primeira, bits.length());
+        for (int i = acima.nextSetBit(0); i >= 0; i = acima.nextSetBit(i + 1)) {
+            bits.set(primeira + i);
+        }
+    }
+}
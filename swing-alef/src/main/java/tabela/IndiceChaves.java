@@ -0,0 +1,138 @@
+package tabela;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Índice chave → linha usado pelo {@link TabelaModelo} construído com extrator de chave
+ * e pela {@link TabelaEditavel}. Sem extrator, a chave é o próprio item, comparado
+ * pela identidade.
+ *
+ * <p>As linhas do mapa ficam nas coordenadas da última reconstrução. Cada remoção
+ * é anotada em um pequeno registro e aplicada na consulta, evitando reescrever o
+ * mapa inteiro a cada remoção. Quando o registro enche (ou há inserção no meio),
+ * o índice é reconstruído na próxima consulta.</p>
+ *
+ * @param <T> Tipo do objeto de cada linha
+ * @author alefi
+ */
+final class IndiceChaves<T> {
+
+    private static final int LIMITE_REMOCOES = 64;
+
+    private final Function<T, ?> extrator;
+    private final Map<Object, Integer> linhas;
+    private final int[] remocoes = new int[LIMITE_REMOCOES];
+    private int totalRemocoes;
+    private boolean invalido = true;
+
+    IndiceChaves(Function<T, ?> extrator) {
+        this.extrator = extrator;
+        this.linhas = extrator != null ? new HashMap<>() : new IdentityHashMap<>();
+    }
+
+    /**
+     * Índice pela identidade dos itens.
+     */
+    static <T> IndiceChaves<T> porIdentidade() {
+        return new IndiceChaves<>(null);
+    }
+
+    Object chave(T item) {
+        if (extrator == null) return item;
+        return item != null ? extrator.apply(item) : null;
+    }
+
+    /**
+     * Verifica se o item da linha tem a chave informada.
+     */
+    boolean confere(T item, Object chave) {
+        return extrator == null ? item == chave : Objects.equals(chave(item), chave);
+    }
+
+    /**
+     * Retorna a linha atual da chave ou -1.
+     */
+    int linhaDe(Object chave, List<T> dados) {
+        garantirValido(dados);
+        Integer original = linhas.get(chave);
+        return original != null ? paraAtual(original) : -1;
+    }
+
+    // ==================== NOTIFICAÇÕES DO MODELO ====================
+
+    /**
+     * Item anexado ao final do modelo.
+     */
+    void adicionado(int linha, T item) {
+        if (invalido) return;
+        linhas.put(chave(item), paraOriginal(linha));
+    }
+
+    /**
+     * Itens inseridos fora do final: reconstrói na próxima consulta.
+     */
+    void invalidar() {
+        invalido = true;
+    }
+
+    void removido(int linha, T item) {
+        if (invalido) return;
+        linhas.remove(chave(item));
+        if (totalRemocoes == LIMITE_REMOCOES) {
+            invalido = true;
+        } else {
+            remocoes[totalRemocoes++] = linha;
+        }
+    }
+
+    void atualizado(int linha, T anterior, T novo) {
+        if (invalido) return;
+        Object chaveAnterior = chave(anterior);
+        Object chaveNova = chave(novo);
+        // Pela identidade, um item igual mas de outra instância também troca a chave
+        boolean mesmaChave = extrator == null ? chaveAnterior == chaveNova : Objects.equals(chaveAnterior, chaveNova);
+        if (!mesmaChave) {
+            linhas.remove(chaveAnterior);
+            linhas.put(chaveNova, paraOriginal(linha));
+        }
+    }
+
+    void limpar() {
+        linhas.clear();
+        totalRemocoes = 0;
+        invalido = false;
+    }
+
+    // ==================== COORDENADAS ====================
+
+    private void garantirValido(List<T> dados) {
+        if (!invalido) return;
+        linhas.clear();
+        for (int i = 0, n = dados.size(); i < n; i++) {
+            linhas.put(chave(dados.get(i)), i);
+        }
+        totalRemocoes = 0;
+        invalido = false;
+    }
+
+    /** Converte a linha da última reconstrução para a linha atual. */
+    private int paraAtual(int linha) {
+        for (int i = 0; i < totalRemocoes; i++) {
+            if (linha > remocoes[i]) linha--;
+        }
+        return linha;
+    }
+
+    /** Converte a linha atual para as coordenadas da última reconstrução. */
+    private int paraOriginal(int linha) {
+        for (int i = totalRemocoes - 1; i >= 0; i--) {
+            if (linha >= remocoes[i]) linha++;
+        }
+        return linha;
+    }
+}
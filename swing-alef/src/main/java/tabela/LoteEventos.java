@@ -0,0 +1,224 @@
+package tabela;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableModel;
+
+/**
+ * Acumula os eventos de um lote do {@link TabelaModelo} e gera o menor conjunto
+ * de eventos equivalente na confirmação.
+ *
+ * <p>As inserções e remoções são aplicadas a uma lista de trechos (linhas originais
+ * ou linhas novas), de onde sai o efeito líquido do lote. Os eventos só são disparados
+ * depois que todos os dados já foram alterados, então um listener que consulta o modelo
+ * (como o {@code TableRowSorter}) só fica coerente se houver no máximo um evento
+ * estrutural: um único intervalo inserido (nos índices finais) ou removido (nos índices
+ * originais). Qualquer outra combinação vira um {@code fireTableDataChanged}.</p>
+ *
+ * <p>Atualizações são marcadas em um {@link BitSet} já ajustado às inserções/remoções
+ * seguintes e disparadas por último, em intervalos contínuos, nos índices finais.</p>
+ *
+ * @author alefi
+ */
+final class LoteEventos {
+
+    /** Marca de trecho com linhas inseridas durante o lote. */
+    private static final int NOVAS = -1;
+    private static final int LIMITE_TRECHOS = 256;
+
+    /** Trechos na ordem atual: {início original ou NOVAS, quantidade}. */
+    private final List<int[]> trechos = new ArrayList<>();
+    private final int linhasIniciais;
+    private final BitSet atualizadas = new BitSet();
+    private boolean tudoAlterado;
+    private boolean estruturaAlterada;
+
+    LoteEventos(int linhasIniciais) {
+        this.linhasIniciais = linhasIniciais;
+        if (linhasIniciais > 0) {
+            trechos.add(new int[]{0, linhasIniciais});
+        }
+    }
+
+    /**
+     * Registra um evento disparado durante o lote.
+     */
+    void registrar(TableModelEvent e) {
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+            estruturaAlterada = true;
+            return;
+        }
+        if (tudoAlterado) return;
+        if (e.getLastRow() == Integer.MAX_VALUE) {
+            tudoAlterado = true;
+            return;
+        }
+
+        int primeira = e.getFirstRow();
+        int ultima = e.getLastRow();
+        switch (e.getType()) {
+            case TableModelEvent.INSERT:
+                deslocarAtualizadas(primeira, ultima - primeira + 1);
+                inserirTrecho(primeira, ultima - primeira + 1);
+                break;
+            case TableModelEvent.DELETE:
+                removerAtualizadas(primeira, ultima);
+                removerTrechos(primeira, ultima - primeira + 1);
+                break;
+            default:
+                atualizadas.set(primeira, ultima + 1);
+        }
+    }
+
+    // ==================== TRECHOS ====================
+
+    /**
+     * Divide o trecho que contém a posição, para que um trecho comece nela.
+     *
+     * @return Índice do trecho que começa na posição (ou trechos.size())
+     */
+    private int dividir(int posicao) {
+        int inicio = 0;
+        for (int i = 0; i < trechos.size(); i++) {
+            int[] trecho = trechos.get(i);
+            if (posicao == inicio) return i;
+            if (posicao < inicio + trecho[1]) {
+                int antes = posicao - inicio;
+                int origem = trecho[0] == NOVAS ? NOVAS : trecho[0] + antes;
+                trechos.add(i + 1, new int[]{origem, trecho[1] - antes});
+                trecho[1] = antes;
+                return i + 1;
+            }
+            inicio += trecho[1];
+        }
+        return trechos.size();
+    }
+
+    private void inserirTrecho(int posicao, int quantidade) {
+        int i = dividir(posicao);
+        if (i > 0 && trechos.get(i - 1)[0] == NOVAS) {
+            trechos.get(i - 1)[1] += quantidade;
+        } else if (i < trechos.size() && trechos.get(i)[0] == NOVAS) {
+            trechos.get(i)[1] += quantidade;
+        } else {
+            trechos.add(i, new int[]{NOVAS, quantidade});
+            limitarTrechos();
+        }
+    }
+
+    private void removerTrechos(int posicao, int quantidade) {
+        dividir(posicao + quantidade);
+        int i = dividir(posicao);
+        int removidas = 0;
+        while (removidas < quantidade && i < trechos.size()) {
+            removidas += trechos.remove(i)[1];
+        }
+        // Junta os vizinhos que voltaram a ser contínuos
+        if (i > 0 && i < trechos.size()) {
+            int[] antes = trechos.get(i - 1);
+            int[] depois = trechos.get(i);
+            if ((antes[0] == NOVAS && depois[0] == NOVAS)
+                    || (antes[0] != NOVAS && depois[0] == antes[0] + antes[1])) {
+                antes[1] += depois[1];
+                trechos.remove(i);
+            }
+        }
+        limitarTrechos();
+    }
+
+    /**
+     * Muito fragmentado: o resultado seria um "dados alterados" e manter os
+     * trechos deixaria cada operação do lote mais cara.
+     */
+    private void limitarTrechos() {
+        if (trechos.size() > LIMITE_TRECHOS) {
+            tudoAlterado = true;
+            trechos.clear();
+        }
+    }
+
+    private void deslocarAtualizadas(int inicio, int quantidade) {
+        if (atualizadas.length() <= inicio) return;
+        BitSet acima = atualizadas.get(inicio, atualizadas.length());
+        atualizadas.clear(inicio, atualizadas.length());
+        for (int i = acima.nextSetBit(0); i >= 0; i = acima.nextSetBit(i + 1)) {
+            atualizadas.set(inicio + quantidade + i);
+        }
+    }
+
+    private void removerAtualizadas(int primeira, int ultima) {
+        if (atualizadas.length() <= primeira) return;
+        BitSet acima = atualizadas.get(ultima + 1, Math.max(ultima + 1, atualizadas.length()));
+        atualizadas.clear(primeira, atualizadas.length());
+        for (int i = acima.nextSetBit(0); i >= 0; i = acima.nextSetBit(i + 1)) {
+            atualizadas.set(primeira + i);
+        }
+    }
+
+    boolean isEstruturaAlterada() {
+        return estruturaAlterada;
+    }
+
+    /**
+     * Gera os eventos do lote.
+     *
+     * @param fonte Modelo de origem dos eventos (já no estado final)
+     * @param limite Quantidade máxima de eventos antes de recorrer a um único
+     *               {@code fireTableDataChanged}
+     * @return Eventos a disparar, ou null se o lote deve virar um "dados alterados"
+     */
+    List<TableModelEvent> gerarEventos(TableModel fonte, int limite) {
+        if (tudoAlterado) return null;
+
+        // Efeito líquido: intervalos inseridos (índices finais) e removidos (índices originais)
+        int inseridos = 0, removidos = 0;
+        int primeiraInserida = -1, ultimaInserida = -1;
+        int primeiraRemovida = -1, ultimaRemovida = -1;
+        int posicaoFinal = 0, proximaOriginal = 0;
+        for (int[] trecho : trechos) {
+            if (trecho[1] == 0) continue;
+            if (trecho[0] == NOVAS) {
+                if (ultimaInserida != posicaoFinal - 1 || inseridos == 0) {
+                    inseridos++;
+                    primeiraInserida = posicaoFinal;
+                }
+                ultimaInserida = posicaoFinal + trecho[1] - 1;
+            } else {
+                if (trecho[0] > proximaOriginal) {
+                    removidos++;
+                    primeiraRemovida = proximaOriginal;
+                    ultimaRemovida = trecho[0] - 1;
+                }
+                proximaOriginal = trecho[0] + trecho[1];
+            }
+            posicaoFinal += trecho[1];
+        }
+        if (proximaOriginal < linhasIniciais) {
+            removidos++;
+            primeiraRemovida = proximaOriginal;
+            ultimaRemovida = linhasIniciais - 1;
+        }
+        if (inseridos + removidos > 1) return null;
+
+        List<TableModelEvent> eventos = new ArrayList<>();
+        if (inseridos == 1) {
+            eventos.add(new TableModelEvent(fonte, primeiraInserida, ultimaInserida,
+                    TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+            // Linhas novas já chegam com os valores finais
+            atualizadas.clear(primeiraInserida, ultimaInserida + 1);
+        } else if (removidos == 1) {
+            eventos.add(new TableModelEvent(fonte, primeiraRemovida, ultimaRemovida,
+                    TableModelEvent.ALL_COLUMNS, TableModelEvent.DELETE));
+        }
+        int total = fonte.getRowCount();
+        for (int i = atualizadas.nextSetBit(0); i >= 0 && i < total; ) {
+            int fim = Math.min(atualizadas.nextClearBit(i), total);
+            eventos.add(new TableModelEvent(fonte, i, fim - 1));
+            if (eventos.size() > limite) return null;
+            i = atualizadas.nextSetBit(fim);
+        }
+        return eventos;
+    }
+}
@@ -0,0 +1,823 @@
+package tabela;
+
+import util.TarefaAssincrona;
+
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableModel;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RowSorter para tabelas grandes, com chaves pré-calculadas e ordenação paralela.
+ *
+ * <p>Diferente do {@code TableRowSorter}, que chama {@code getValueAt} e o comparador
+ * O(n log n) vezes, este ordenador lê cada valor das colunas ordenadas uma única vez
+ * (na EDT), converte para arrays primitivos ou chaves de texto normalizadas e ordena um
+ * {@code int[]} de índices em paralelo (merge sort no {@link ForkJoinPool}, sem
+ * {@code Integer}). Acima de {@link #setLimiarAssincrono um limiar de linhas}, a ordenação
+ * roda fora da EDT e a nova ordem é aplicada de uma vez quando fica pronta, preservando a seleção.</p>
+ *
+ * <p>Suporta ordenação por várias colunas (clique em outra coluna para torná-la a
+ * principal) e é estável: empates mantêm a ordem do modelo.</p>
+ *
+ * <p>Aceita um {@link RowFilter} ({@link #setRowFilter}). O filtro é aplicado sobre a
+ * ordem já calculada: trocar o filtro avalia cada linha uma vez e não reordena.</p>
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * TabelaModelo<Venda> modelo = new TabelaModelo<>();
+ * ...
+ * JTable tabela = new JTable(modelo);
+ * tabela.setRowSorter(new OrdenadorTabela<>(modelo));
+ * }</pre>
+ *
+ * @param <M> Tipo do modelo da tabela
+ * @author alefi
+ * @since 2.1
+ */
+public class OrdenadorTabela<M extends TableModel> extends RowSorter<M> {
+
+    private final M modelo;
+    private List<SortKey> chavesOrdenacao = Collections.emptyList();
+    private final Map<Integer, Comparator<?>> comparadores = new HashMap<>();
+    private int maxChaves = 3;
+    private int limiarAssincrono = 20_000;
+
+    /** Ordem de todas as linhas do modelo; null quando não ordenado. */
+    private int[] ordemModelo;
+    /** Linhas do modelo que passam no filtro; null quando sem filtro. */
+    private BitSet incluidas;
+    private RowFilter<? super M, ? super Integer> filtro;
+    private final EntradaLinha entrada = new EntradaLinha();
+    /** Visão → modelo (null = identidade) e modelo → visão (-1 = linha filtrada). */
+    private int[] visaoParaModelo;
+    private int[] modeloParaVisao;
+    private int totalModelo;
+
+    /** Incrementada a cada pedido de ordenação; resultados antigos são descartados. */
+    private int geracao;
+    private boolean ordenando;
+    private boolean reordenacaoAgendada;
+
+    /**
+     * Cria um ordenador para o modelo.
+     *
+     * @param modelo Modelo da tabela
+     */
+    public OrdenadorTabela(M modelo) {
+        this.modelo = modelo;
+        this.totalModelo = modelo.getRowCount();
+    }
+
+    // ==================== CONFIGURAÇÃO ====================
+
+    /**
+     * Define um comparador específico para uma coluna. Sem comparador, números,
+     * booleanos e datas usam a ordem natural e textos usam o {@link Collator} do idioma padrão.
+     *
+     * @param coluna Índice da coluna no modelo
+     * @param comparador Comparador dos valores da coluna
+     */
+    public void setComparador(int coluna, Comparator<?> comparador) {
+        comparadores.put(coluna, comparador);
+    }
+
+    /**
+     * Define quantas colunas participam da ordenação ao clicar nos cabeçalhos.
+     *
+     * @param max Número máximo de chaves (padrão: 3)
+     */
+    public void setMaxChaves(int max) {
+        this.maxChaves = Math.max(1, max);
+        if (chavesOrdenacao.size() > maxChaves) {
+            setSortKeys(chavesOrdenacao.subList(0, maxChaves));
+        }
+    }
+
+    /**
+     * Define a partir de quantas linhas a ordenação roda fora da EDT.
+     *
+     * @param linhas Quantidade de linhas (padrão: 20.000)
+     */
+    public void setLimiarAssincrono(int linhas) {
+        this.limiarAssincrono = Math.max(0, linhas);
+    }
+
+    /**
+     * Define o filtro de linhas. As linhas são avaliadas uma vez, na EDT, e a ordem
+     * atual é mantida (não há nova ordenação).
+     *
+     * @param filtro Filtro ou null para exibir todas as linhas
+     */
+    public void setRowFilter(RowFilter<? super M, ? super Integer> filtro) {
+        this.filtro = filtro;
+        int[] anterior = visaoAtual();
+        if (filtro != null) {
+            incluidas = new BitSet(totalModelo);
+            avaliarFiltro(0, totalModelo - 1);
+        } else {
+            incluidas = null;
+        }
+        montarVisao();
+        fireRowSorterChanged(anterior);
+    }
+
+    /**
+     * Retorna o filtro de linhas.
+     *
+     * @return Filtro ou null
+     */
+    public RowFilter<? super M, ? super Integer> getRowFilter() {
+        return filtro;
+    }
+
+    /**
+     * Verifica se há uma ordenação em segundo plano em andamento.
+     *
+     * @return true enquanto a nova ordem não foi aplicada
+     */
+    public boolean isOrdenando() {
+        return ordenando;
+    }
+
+    // ==================== CHAVES DE ORDENAÇÃO ====================
+
+    @Override
+    public M getModel() {
+        return modelo;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        verificarColuna(column);
+        List<SortKey> novas = new ArrayList<>(chavesOrdenacao);
+        SortKey nova = new SortKey(column, SortOrder.ASCENDING);
+        for (int i = 0; i < novas.size(); i++) {
+            if (novas.get(i).getColumn() == column) {
+                if (i == 0) {
+                    SortOrder atual = novas.get(0).getSortOrder();
+                    nova = new SortKey(column, atual == SortOrder.ASCENDING
+                            ? SortOrder.DESCENDING : SortOrder.ASCENDING);
+                }
+                novas.remove(i);
+                break;
+            }
+        }
+        novas.add(0, nova);
+        if (novas.size() > maxChaves) {
+            novas = novas.subList(0, maxChaves);
+        }
+        setSortKeys(novas);
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> novas = keys != null ? new ArrayList<>(keys) : new ArrayList<>();
+        for (SortKey chave : novas) {
+            verificarColuna(chave.getColumn());
+        }
+        if (novas.equals(chavesOrdenacao)) return;
+        chavesOrdenacao = Collections.unmodifiableList(novas);
+        fireSortOrderChanged();
+        ordenar();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return chavesOrdenacao;
+    }
+
+    private void verificarColuna(int coluna) {
+        if (coluna < 0 || coluna >= modelo.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Coluna fora do modelo: " + coluna);
+        }
+    }
+
+    private boolean isOrdenado() {
+        for (SortKey chave : chavesOrdenacao) {
+            if (chave.getSortOrder() != SortOrder.UNSORTED) return true;
+        }
+        return false;
+    }
+
+    // ==================== ORDENAÇÃO ====================
+
+    /**
+     * Lê os valores das colunas ordenadas (na EDT) e calcula a nova ordem,
+     * em segundo plano se o modelo for grande.
+     */
+    private void ordenar() {
+        int minhaGeracao = ++geracao;
+        if (!isOrdenado()) {
+            ordenando = false;
+            aplicar(null);
+            return;
+        }
+
+        List<SortKey> chaves = new ArrayList<>();
+        for (SortKey chave : chavesOrdenacao) {
+            if (chave.getSortOrder() != SortOrder.UNSORTED) chaves.add(chave);
+        }
+        int total = totalModelo;
+        // Object[] por coluna, ou long[]/double[] lidos direto do modo colunar
+        Object[] valores = new Object[chaves.size()];
+        Comparator<?>[] comparadoresChaves = new Comparator<?>[chaves.size()];
+        for (int k = 0; k < chaves.size(); k++) {
+            int coluna = chaves.get(k).getColumn();
+            comparadoresChaves[k] = comparadores.get(coluna);
+            Object primitivos = comparadoresChaves[k] == null ? lerPrimitivos(coluna, total) : null;
+            if (primitivos != null) {
+                valores[k] = primitivos;
+                continue;
+            }
+            Object[] valoresColuna = new Object[total];
+            for (int i = 0; i < total; i++) {
+                valoresColuna[i] = modelo.getValueAt(i, coluna);
+            }
+            valores[k] = valoresColuna;
+        }
+
+        if (total < limiarAssincrono) {
+            aplicar(calcularOrdem(valores, total, chaves, comparadoresChaves));
+            return;
+        }
+        ordenando = true;
+        TarefaAssincrona.executar(() -> calcularOrdem(valores, total, chaves, comparadoresChaves), ordem -> {
+            if (minhaGeracao != geracao) return;
+            if (ordem.length != totalModelo) {
+                reiniciarOrdenacao();
+                return;
+            }
+            ordenando = false;
+            aplicar(ordem);
+        });
+    }
+
+    /**
+     * Colunas primitivas do {@link TabelaModelo} colunar são copiadas do array,
+     * sem passar um valor por vez por {@code getValueAt}.
+     */
+    private Object lerPrimitivos(int coluna, int total) {
+        if (!(modelo instanceof TabelaModelo)) return null;
+        Object primitivos = ((TabelaModelo<?>) modelo).copiarColunaPrimitiva(coluna);
+        if (primitivos instanceof long[] && ((long[]) primitivos).length == total) return primitivos;
+        if (primitivos instanceof double[] && ((double[]) primitivos).length == total) return primitivos;
+        return null;
+    }
+
+    /**
+     * Troca a ordem da visão de uma vez e avisa a JTable (que preserva a seleção).
+     */
+    private void aplicar(int[] novaOrdem) {
+        if (novaOrdem == null && ordemModelo == null) return;
+        int[] anterior = visaoAtual();
+        ordemModelo = novaOrdem;
+        montarVisao();
+        fireRowSorterChanged(anterior);
+    }
+
+    /**
+     * Monta a visão a partir da ordem e das linhas incluídas no filtro.
+     */
+    private void montarVisao() {
+        if (incluidas == null) {
+            visaoParaModelo = ordemModelo;
+        } else {
+            int[] visao = new int[totalModelo];
+            int v = 0;
+            if (ordemModelo == null) {
+                for (int m = incluidas.nextSetBit(0); m >= 0 && m < totalModelo; m = incluidas.nextSetBit(m + 1)) {
+                    visao[v++] = m;
+                }
+            } else {
+                for (int m : ordemModelo) {
+                    if (incluidas.get(m)) visao[v++] = m;
+                }
+            }
+            visaoParaModelo = Arrays.copyOf(visao, v);
+        }
+        if (visaoParaModelo == null) {
+            modeloParaVisao = null;
+            return;
+        }
+        modeloParaVisao = new int[totalModelo];
+        if (incluidas != null) Arrays.fill(modeloParaVisao, -1);
+        for (int v = 0; v < visaoParaModelo.length; v++) {
+            modeloParaVisao[visaoParaModelo[v]] = v;
+        }
+    }
+
+    /**
+     * Visão atual como array (para o evento de mudança da ordem).
+     */
+    private int[] visaoAtual() {
+        if (visaoParaModelo != null) return visaoParaModelo;
+        int[] identidade = new int[totalModelo];
+        for (int i = 0; i < totalModelo; i++) {
+            identidade[i] = i;
+        }
+        return identidade;
+    }
+
+    /**
+     * Avalia o filtro nas linhas do intervalo (modelo).
+     *
+     * @return true se alguma linha mudou de situação
+     */
+    private boolean avaliarFiltro(int primeira, int ultima) {
+        boolean alterou = false;
+        for (int i = primeira; i <= ultima && i < totalModelo; i++) {
+            entrada.linha = i;
+            boolean inclui = filtro.include(entrada);
+            if (inclui != incluidas.get(i)) {
+                incluidas.set(i, inclui);
+                alterou = true;
+            }
+        }
+        return alterou;
+    }
+
+    /**
+     * Reavalia o filtro em linhas atualizadas e refaz a visão se alguma mudou.
+     */
+    private void refiltrar(int primeira, int ultima) {
+        if (incluidas == null) return;
+        int[] anterior = visaoAtual();
+        if (avaliarFiltro(primeira, ultima)) {
+            montarVisao();
+            fireRowSorterChanged(anterior);
+        }
+    }
+
+    /**
+     * Descarta a ordenação em segundo plano em andamento (calculada sobre linhas
+     * que mudaram) e agenda outra.
+     */
+    private void reiniciarOrdenacao() {
+        if (!ordenando) return;
+        geracao++;
+        ordenando = false;
+        agendarReordenacao();
+    }
+
+    /**
+     * Agrupa várias alterações do modelo em uma única reordenação.
+     */
+    private void agendarReordenacao() {
+        if (!isOrdenado() || reordenacaoAgendada) return;
+        reordenacaoAgendada = true;
+        SwingUtilities.invokeLater(() -> {
+            reordenacaoAgendada = false;
+            ordenar();
+        });
+    }
+
+    /**
+     * Ordena os índices das linhas pelas chaves pré-calculadas (pode rodar fora da EDT).
+     */
+    private static int[] calcularOrdem(Object[] valores, int total, List<SortKey> chaves, Comparator<?>[] comparadores) {
+        ChaveOrdenacao[] chavesCalculadas = new ChaveOrdenacao[chaves.size()];
+        for (int k = 0; k < chaves.size(); k++) {
+            chavesCalculadas[k] = ChaveOrdenacao.criar(valores[k], comparadores[k],
+                    chaves.get(k).getSortOrder() == SortOrder.DESCENDING);
+        }
+
+        int[] ordem = new int[total];
+        for (int i = 0; i < total; i++) {
+            ordem[i] = i;
+        }
+        ForkJoinPool.commonPool().invoke(new OrdenacaoIndices(ordem, new int[total], 0, total, chavesCalculadas));
+        return ordem;
+    }
+
+    /**
+     * Merge sort paralelo de um array de índices, comparando pelas chaves pré-calculadas.
+     * Empates são desfeitos pelo índice, então a ordem é total e estável.
+     */
+    private static final class OrdenacaoIndices extends RecursiveAction {
+        private static final int LIMIAR_PARALELO = 8_192;
+        private static final int LIMIAR_INSERCAO = 32;
+
+        private final int[] indices;
+        private final int[] auxiliar;
+        private final int inicio;
+        private final int fim;
+        private final ChaveOrdenacao[] chaves;
+
+        OrdenacaoIndices(int[] indices, int[] auxiliar, int inicio, int fim, ChaveOrdenacao[] chaves) {
+            this.indices = indices;
+            this.auxiliar = auxiliar;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.chaves = chaves;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= LIMIAR_PARALELO) {
+                ordenar(inicio, fim);
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new OrdenacaoIndices(indices, auxiliar, inicio, meio, chaves),
+                    new OrdenacaoIndices(indices, auxiliar, meio, fim, chaves));
+            intercalar(inicio, meio, fim);
+        }
+
+        private void ordenar(int de, int ate) {
+            if (ate - de <= LIMIAR_INSERCAO) {
+                for (int i = de + 1; i < ate; i++) {
+                    int atual = indices[i];
+                    int j = i - 1;
+                    while (j >= de && comparar(indices[j], atual) > 0) {
+                        indices[j + 1] = indices[j];
+                        j--;
+                    }
+                    indices[j + 1] = atual;
+                }
+                return;
+            }
+            int meio = (de + ate) >>> 1;
+            ordenar(de, meio);
+            ordenar(meio, ate);
+            intercalar(de, meio, ate);
+        }
+
+        private void intercalar(int de, int meio, int ate) {
+            if (comparar(indices[meio - 1], indices[meio]) <= 0) return; // já em ordem
+            System.arraycopy(indices, de, auxiliar, de, ate - de);
+            int i = de, j = meio, k = de;
+            while (i < meio && j < ate) {
+                indices[k++] = comparar(auxiliar[j], auxiliar[i]) < 0 ? auxiliar[j++] : auxiliar[i++];
+            }
+            while (i < meio) indices[k++] = auxiliar[i++];
+            while (j < ate) indices[k++] = auxiliar[j++];
+        }
+
+        private int comparar(int a, int b) {
+            for (ChaveOrdenacao chave : chaves) {
+                int r = chave.comparar(a, b);
+                if (r != 0) return r;
+            }
+            return Integer.compare(a, b); // estável: empates seguem a ordem do modelo
+        }
+    }
+
+    // ==================== EVENTOS DO MODELO ====================
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (index < 0 || index >= getViewRowCount()) {
+            throw new IndexOutOfBoundsException("Linha da visão inválida: " + index);
+        }
+        return visaoParaModelo != null ? visaoParaModelo[index] : index;
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (index < 0 || index >= totalModelo) {
+            throw new IndexOutOfBoundsException("Linha do modelo inválida: " + index);
+        }
+        return modeloParaVisao != null ? modeloParaVisao[index] : index;
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return visaoParaModelo != null ? visaoParaModelo.length : totalModelo;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return totalModelo;
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        geracao++;
+        ordenando = false;
+        totalModelo = modelo.getRowCount();
+        ordemModelo = null;
+        if (incluidas != null) {
+            incluidas = new BitSet(totalModelo);
+            avaliarFiltro(0, totalModelo - 1);
+        }
+        montarVisao();
+        for (SortKey chave : chavesOrdenacao) {
+            if (chave.getColumn() >= modelo.getColumnCount()) {
+                chavesOrdenacao = Collections.emptyList();
+                fireSortOrderChanged();
+                break;
+            }
+        }
+        ordenar();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        int novoTotal = modelo.getRowCount();
+        if (novoTotal != totalModelo) {
+            // A ordem antiga não serve mais; fica na ordem do modelo até reordenar
+            totalModelo = novoTotal;
+            geracao++;
+            ordemModelo = null;
+        }
+        if (incluidas != null) {
+            incluidas.clear(totalModelo, Math.max(totalModelo, incluidas.length()));
+            avaliarFiltro(0, totalModelo - 1);
+        }
+        montarVisao();
+        agendarReordenacao();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        int quantidade = endRow - firstRow + 1;
+        if (firstRow < 0 || endRow < firstRow || firstRow > totalModelo) {
+            throw new IndexOutOfBoundsException("Intervalo inválido: " + firstRow + ".." + endRow);
+        }
+        if (visaoParaModelo == null) {
+            totalModelo += quantidade;
+            reiniciarOrdenacao();
+            return;
+        }
+        int[] anterior = visaoParaModelo;
+        totalModelo += quantidade;
+        if (incluidas != null) {
+            FiltroTexto.deslocar(incluidas, firstRow, quantidade);
+            avaliarFiltro(firstRow, endRow);
+        }
+        if (ordemModelo != null) {
+            // Mantém a ordem atual e acrescenta as novas linhas no fim até a reordenação
+            int[] nova = new int[ordemModelo.length + quantidade];
+            for (int v = 0; v < ordemModelo.length; v++) {
+                int m = ordemModelo[v];
+                nova[v] = m >= firstRow ? m + quantidade : m;
+            }
+            for (int i = 0; i < quantidade; i++) {
+                nova[ordemModelo.length + i] = firstRow + i;
+            }
+            geracao++;
+            ordemModelo = nova;
+        }
+        montarVisao();
+        fireRowSorterChanged(anterior);
+        agendarReordenacao();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        if (firstRow < 0 || endRow < firstRow || endRow >= totalModelo) {
+            throw new IndexOutOfBoundsException("Intervalo inválido: " + firstRow + ".." + endRow);
+        }
+        int quantidade = endRow - firstRow + 1;
+        if (visaoParaModelo == null) {
+            totalModelo -= quantidade;
+            reiniciarOrdenacao();
+            return;
+        }
+        int[] anterior = visaoParaModelo;
+        totalModelo -= quantidade;
+        if (incluidas != null) {
+            FiltroTexto.remover(incluidas, firstRow, endRow);
+        }
+        boolean reordenar = false;
+        if (ordemModelo != null) {
+            // Remover linhas não quebra a ordem das restantes
+            int[] nova = new int[ordemModelo.length - quantidade];
+            int v = 0;
+            for (int m : ordemModelo) {
+                if (m < firstRow) {
+                    nova[v++] = m;
+                } else if (m > endRow) {
+                    nova[v++] = m - quantidade;
+                }
+            }
+            geracao++;
+            reordenar = ordenando;
+            ordenando = false;
+            ordemModelo = nova;
+        }
+        montarVisao();
+        fireRowSorterChanged(anterior);
+        if (reordenar) agendarReordenacao();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        refiltrar(firstRow, endRow);
+        agendarReordenacao();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        refiltrar(firstRow, endRow);
+        for (SortKey chave : chavesOrdenacao) {
+            if (chave.getColumn() == column) {
+                agendarReordenacao();
+                return;
+            }
+        }
+    }
+
+    // ==================== CHAVES PRÉ-CALCULADAS ====================
+
+    /**
+     * Valores de uma coluna convertidos para comparação rápida.
+     * Nulos ficam sempre antes dos demais na ordem crescente.
+     */
+    private abstract static class ChaveOrdenacao {
+        final BitSet nulos = new BitSet();
+        final boolean decrescente;
+
+        ChaveOrdenacao(boolean decrescente) {
+            this.decrescente = decrescente;
+        }
+
+        abstract int compararValores(int a, int b);
+
+        final int comparar(int a, int b) {
+            boolean nuloA = nulos.get(a);
+            boolean nuloB = nulos.get(b);
+            int r;
+            if (nuloA || nuloB) {
+                r = nuloA == nuloB ? 0 : (nuloA ? -1 : 1);
+            } else {
+                r = compararValores(a, b);
+            }
+            return decrescente ? -r : r;
+        }
+
+        static ChaveOrdenacao criar(Object colunaLida, Comparator<?> comparador, boolean decrescente) {
+            if (colunaLida instanceof long[]) return new ChaveLong((long[]) colunaLida, decrescente);
+            if (colunaLida instanceof double[]) return new ChaveDouble((double[]) colunaLida, decrescente);
+            Object[] valores = (Object[]) colunaLida;
+            if (comparador != null) {
+                return new ChaveObjeto(valores, comoComparadorObjeto(comparador), decrescente);
+            }
+
+            boolean inteiros = true, numeros = true, textos = true, comparaveis = true;
+            Class<?> classe = null;
+            for (Object v : valores) {
+                if (v == null) continue;
+                boolean inteiro = v instanceof Integer || v instanceof Long || v instanceof Short
+                        || v instanceof Byte || v instanceof Boolean;
+                inteiros &= inteiro;
+                numeros &= v instanceof Number;
+                textos &= v instanceof String;
+                comparaveis &= v instanceof Comparable && (classe == null || classe == v.getClass());
+                classe = v.getClass();
+            }
+            if (inteiros) return new ChaveLong(valores, decrescente);
+            if (numeros) return new ChaveDouble(valores, decrescente);
+            if (comparaveis && !textos) {
+                return new ChaveObjeto(valores, ChaveOrdenacao::compararNatural, decrescente);
+            }
+            return new ChaveTexto(valores, decrescente);
+        }
+
+        /** O comparador da coluna recebe os valores do modelo, do tipo que ele espera. */
+        @SuppressWarnings("unchecked")
+        private static Comparator<Object> comoComparadorObjeto(Comparator<?> comparador) {
+            return (Comparator<Object>) comparador;
+        }
+
+        /** Só é usado quando todos os valores são Comparable da mesma classe. */
+        @SuppressWarnings("unchecked")
+        private static int compararNatural(Object a, Object b) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+    }
+
+    private static final class ChaveLong extends ChaveOrdenacao {
+        final long[] valores;
+
+        ChaveLong(long[] valores, boolean decrescente) {
+            super(decrescente);
+            this.valores = valores;
+        }
+
+        ChaveLong(Object[] origem, boolean decrescente) {
+            super(decrescente);
+            valores = new long[origem.length];
+            for (int i = 0; i < origem.length; i++) {
+                Object v = origem[i];
+                if (v == null) nulos.set(i);
+                else if (v instanceof Boolean) valores[i] = (Boolean) v ? 1 : 0;
+                else valores[i] = ((Number) v).longValue();
+            }
+        }
+
+        @Override
+        int compararValores(int a, int b) {
+            return Long.compare(valores[a], valores[b]);
+        }
+    }
+
+    private static final class ChaveDouble extends ChaveOrdenacao {
+        final double[] valores;
+
+        ChaveDouble(double[] valores, boolean decrescente) {
+            super(decrescente);
+            this.valores = valores;
+        }
+
+        ChaveDouble(Object[] origem, boolean decrescente) {
+            super(decrescente);
+            valores = new double[origem.length];
+            for (int i = 0; i < origem.length; i++) {
+                if (origem[i] == null) nulos.set(i);
+                else valores[i] = ((Number) origem[i]).doubleValue();
+            }
+        }
+
+        @Override
+        int compararValores(int a, int b) {
+            return Double.compare(valores[a], valores[b]);
+        }
+    }
+
+    /**
+     * Textos convertidos uma vez em chaves de colação (acentos e maiúsculas
+     * comparados como o {@link Collator} do idioma, mas sem recalcular a cada comparação).
+     */
+    private static final class ChaveTexto extends ChaveOrdenacao {
+        final CollationKey[] valores;
+
+        ChaveTexto(Object[] origem, boolean decrescente) {
+            super(decrescente);
+            Collator colacao = Collator.getInstance();
+            valores = new CollationKey[origem.length];
+            for (int i = 0; i < origem.length; i++) {
+                if (origem[i] == null) {
+                    nulos.set(i);
+                } else {
+                    valores[i] = colacao.getCollationKey(origem[i].toString());
+                }
+            }
+        }
+
+        @Override
+        int compararValores(int a, int b) {
+            return valores[a].compareTo(valores[b]);
+        }
+    }
+
+    private static final class ChaveObjeto extends ChaveOrdenacao {
+        final Object[] valores;
+        final Comparator<Object> comparador;
+
+        ChaveObjeto(Object[] origem, Comparator<Object> comparador, boolean decrescente) {
+            super(decrescente);
+            this.valores = origem;
+            this.comparador = comparador;
+            for (int i = 0; i < origem.length; i++) {
+                if (origem[i] == null) nulos.set(i);
+            }
+        }
+
+        @Override
+        int compararValores(int a, int b) {
+            return comparador.compare(valores[a], valores[b]);
+        }
+    }
+
+    /**
+     * Linha do modelo passada ao filtro (reaproveitada a cada avaliação, na EDT).
+     */
+    private final class EntradaLinha extends RowFilter.Entry<M, Integer> {
+        int linha;
+
+        @Override
+        public M getModel() {
+            return modelo;
+        }
+
+        @Override
+        public int getValueCount() {
+            return modelo.getColumnCount();
+        }
+
+        @Override
+        public Object getValue(int index) {
+            return modelo.getValueAt(linha, index);
+        }
+
+        @Override
+        public Integer getIdentifier() {
+            return linha;
+        }
+    }
+}
@@ -6,10 +6,14 @@ import java.awt.*;
 import java.util.*;
 import java.util.List;
 import java.util.function.*;
+import java.util.stream.IntStream;
 
 /**
  * Tabela com agrupamento de linhas.
  * 
+ * <p>Os grupos são calculados uma vez por {@link #setItens}. Expandir ou recolher
+ * um grupo só insere ou remove o intervalo de linhas dele, sem reagrupar os itens.</p>
+ * 
  * <h3>Uso:</h3>
  * <pre>{@code
  * TabelaAgrupada<Venda> tabela = new TabelaAgrupada<>();
@@ -20,34 +24,55 @@ import java.util.function.*;
  * tabela.setItens(vendas);
  * }</pre>
  * 
+ * <h3>Totais por grupo:</h3>
+ * <p>A linha do grupo pode mostrar agregações por coluna. Elas são calculadas em uma
+ * passada por grupo e mantidas ao adicionar, remover ou atualizar itens.</p>
+ * <pre>{@code
+ * tabela.addAgregacao(2, TabelaAgrupada.Agregacao.SOMA);                // lê a coluna do conversor
+ * tabela.addAgregacao(1, TabelaAgrupada.Agregacao.CONTAGEM, v -> 1);
+ * tabela.adicionarItem(novaVenda);                                      // só o grupo é atualizado
+ * }</pre>
+ * 
  * @author alefi
  * @since 1.1
  */
 public class TabelaAgrupada<T> extends JPanel {
     
     private JTable tabela;
-    private DefaultTableModel modeloTabela;
+    /** Linhas exibidas: itens (T) e marcadores de grupo ({@link LinhaGrupo}). */
+    private TabelaModeloConversor<Object> modeloTabela;
     
     private List<T> itens = new ArrayList<>();
+    /** Com o índice ativo, os itens alterados depois do agrupamento só estão no índice. */
+    private boolean itensNoIndice;
     private Function<T, Object[]> conversor;
     private Function<T, Object> chaveAgrupamento;
     private Function<Object, String> rotuloGrupo;
     
     private Map<Object, Boolean> gruposExpandidos = new HashMap<>();
-    private Map<Integer, Object> linhaParaGrupo = new HashMap<>();
-    private Map<Integer, T> linhaParaItem = new HashMap<>();
+    private final IndiceGrupos indice = new IndiceGrupos();
+    private boolean indiceAtivo;
+    
+    // Agregações por grupo
+    private static final int LIMIAR_PARALELO = 50_000;
+    private final List<AgregadoColuna<T>> agregados = new ArrayList<>();
     
     private Color corGrupo = new Color(0xE3F2FD);
     
+    /**
+     * Agregações disponíveis para a linha do grupo.
+     */
+    public enum Agregacao {
+        SOMA, CONTAGEM, MEDIA, MINIMO, MAXIMO
+    }
+    
     public TabelaAgrupada() {
         setLayout(new BorderLayout());
         
-        modeloTabela = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabela = new TabelaModeloConversor<>();
+        modeloTabela.setConversor(this::converterLinha);
+        // O modelo passa a usar a lista de itens desde o início
+        atualizarTabela();
         
         tabela = new JTable(modeloTabela);
         tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -61,7 +86,7 @@ public class TabelaAgrupada<T> extends JPanel {
                 
                 Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
                 
-                if (linhaParaGrupo.containsKey(row)) {
+                if (isLinhaGrupo(row)) {
                     c.setBackground(corGrupo);
                     c.setFont(c.getFont().deriveFont(Font.BOLD));
                 } else if (!isSelected) {
@@ -78,11 +103,8 @@ public class TabelaAgrupada<T> extends JPanel {
             @Override
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 int row = tabela.rowAtPoint(e.getPoint());
-                if (row >= 0 && linhaParaGrupo.containsKey(row)) {
-                    Object grupo = linhaParaGrupo.get(row);
-                    boolean expandido = gruposExpandidos.getOrDefault(grupo, true);
-                    gruposExpandidos.put(grupo, !expandido);
-                    atualizarTabela();
+                if (row >= 0 && isLinhaGrupo(row)) {
+                    alternarGrupo(indice.grupoDaLinha(row));
                 }
             }
         });
@@ -94,7 +116,7 @@ public class TabelaAgrupada<T> extends JPanel {
      * Define as colunas da tabela.
      */
     public void setColunas(String... colunas) {
-        modeloTabela.setColumnIdentifiers(colunas);
+        modeloTabela.setColunas(colunas);
     }
     
     /**
@@ -123,102 +145,243 @@ public class TabelaAgrupada<T> extends JPanel {
      */
     public void setItens(List<T> itens) {
         this.itens = new ArrayList<>(itens);
+        itensNoIndice = false;
         atualizarTabela();
     }
     
-    private void atualizarTabela() {
-        modeloTabela.setRowCount(0);
-        linhaParaGrupo.clear();
-        linhaParaItem.clear();
-        
-        if (chaveAgrupamento == null) {
-            // Sem agrupamento
-            int row = 0;
-            for (T item : itens) {
-                Object[] linha = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
-                modeloTabela.addRow(linha);
-                linhaParaItem.put(row++, item);
+    /**
+     * Adiciona um item, atualizando só o grupo dele.
+     */
+    public void adicionarItem(T item) {
+        if (indiceAtivo) {
+            indice.inserir(item);
+            itensNoIndice = true;
+        } else if (chaveAgrupamento != null) {
+            // Agrupamento definido depois do último setItens: agrupa agora
+            itens.add(item);
+            atualizarTabela();
+        } else {
+            modeloTabela.adicionar(item);
+        }
+    }
+    
+    /**
+     * Remove um item, atualizando só o grupo dele. Com agrupamento, o item é
+     * achado pela identidade sem percorrer a lista (por equals, só no grupo dele).
+     */
+    public void removerItem(T item) {
+        if (indiceAtivo) {
+            int posicao = indice.localizar(item);
+            if (posicao >= 0) {
+                indice.retirar(posicao);
+                itensNoIndice = true;
             }
             return;
         }
-        
-        // Com agrupamento
-        Map<Object, List<T>> grupos = new LinkedHashMap<>();
-        for (T item : itens) {
-            Object chave = chaveAgrupamento.apply(item);
-            grupos.computeIfAbsent(chave, k -> new ArrayList<>()).add(item);
+        int index = itens.indexOf(item);
+        if (index >= 0) {
+            modeloTabela.remover(index);
+        }
+    }
+    
+    /**
+     * Atualiza um item (alterado ou substituído por um igual). Se a chave
+     * de agrupamento mudou, o item passa para o novo grupo.
+     */
+    public void atualizarItem(T item) {
+        if (indiceAtivo) {
+            if (indice.atualizar(item)) itensNoIndice = true;
+            return;
+        }
+        int index = itens.indexOf(item);
+        if (index < 0) return;
+        itens.set(index, item);
+        modeloTabela.atualizarLinha(index);
+    }
+    
+    /**
+     * Mostra na linha do grupo uma agregação dos valores da coluna, lidos do
+     * conversor. Valores que não são números são ignorados.
+     */
+    public void addAgregacao(int coluna, Agregacao tipo) {
+        addAgregacao(coluna, tipo, item -> valorNumerico(item, coluna));
+    }
+    
+    /**
+     * Mostra na linha do grupo uma agregação do valor extraído de cada item.
+     * O extrator pode retornar {@code Double.NaN} para ignorar o item.
+     * Em listas grandes o cálculo inicial roda em paralelo, então o extrator
+     * não deve depender da EDT.
+     * 
+     * @throws IllegalArgumentException se a coluna for a 0, que mostra o rótulo do grupo
+     */
+    public void addAgregacao(int coluna, Agregacao tipo, ToDoubleFunction<T> valor) {
+        if (coluna <= 0) {
+            throw new IllegalArgumentException("Coluna " + coluna + ": a coluna 0 mostra o rótulo do grupo");
+        }
+        agregados.add(new AgregadoColuna<>(coluna, tipo, valor));
+        if (indiceAtivo) atualizarTabela();
+    }
+    
+    /**
+     * Remove todas as agregações.
+     */
+    public void limparAgregacoes() {
+        agregados.clear();
+        if (indiceAtivo) atualizarTabela();
+    }
+    
+    /**
+     * Retorna o valor agregado de uma coluna em um grupo.
+     * 
+     * @return valor ou null se não houver agregação, grupo ou valores
+     */
+    public Number getAgregado(Object chaveGrupo, int coluna) {
+        if (!indiceAtivo) return null;
+        Integer g = indice.posicaoGrupo.get(chaveGrupo);
+        if (g == null) return null;
+        Number valor = null;
+        LinhaGrupo grupo = indice.grupos[g];
+        for (int a = 0; a < agregados.size(); a++) {
+            if (agregados.get(a).coluna == coluna) {
+                valor = grupo.acumuladores[a].valor(agregados.get(a).tipo);
+            }
+        }
+        return valor;
+    }
+    
+    private double valorNumerico(T item, int coluna) {
+        if (conversor == null) return Double.NaN;
+        Object[] valores = conversor.apply(item);
+        if (coluna < valores.length && valores[coluna] instanceof Number) {
+            return ((Number) valores[coluna]).doubleValue();
+        }
+        return Double.NaN;
+    }
+    
+    /**
+     * Traz para {@link #itens} as alterações feitas só no índice (na ordem dos grupos).
+     */
+    private void sincronizarItens() {
+        if (itensNoIndice) {
+            itens = indice.listarItens();
+            itensNoIndice = false;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void atualizarTabela() {
+        sincronizarItens();
+        indiceAtivo = chaveAgrupamento != null;
+        if (!indiceAtivo) {
+            // Sem agrupamento: o modelo usa a própria lista de itens
+            modeloTabela.referenciarItens((List<Object>) (List<?>) itens);
+            return;
         }
         
-        int row = 0;
-        int numColunas = modeloTabela.getColumnCount();
+        // Com agrupamento: um único evento para a tabela inteira
+        indice.reconstruir();
+        modeloTabela.referenciarItens(indice);
+    }
+    
+    /**
+     * Expande ou recolhe um grupo, notificando só o intervalo de linhas dele.
+     */
+    private void alternarGrupo(int grupo) {
+        LinhaGrupo linhaGrupo = indice.grupos[grupo];
+        linhaGrupo.expandido = !linhaGrupo.expandido;
+        gruposExpandidos.put(linhaGrupo.chave, linhaGrupo.expandido);
         
-        for (Map.Entry<Object, List<T>> entry : grupos.entrySet()) {
-            Object chave = entry.getKey();
-            List<T> itensGrupo = entry.getValue();
-            
-            // Linha do grupo
-            String rotulo = rotuloGrupo != null ? rotuloGrupo.apply(chave) : chave.toString();
-            boolean expandido = gruposExpandidos.getOrDefault(chave, true);
-            String prefixo = expandido ? "▼ " : "▶ ";
-            
-            Object[] linhaGrupo = new Object[numColunas];
-            linhaGrupo[0] = prefixo + rotulo + " (" + itensGrupo.size() + ")";
-            modeloTabela.addRow(linhaGrupo);
-            linhaParaGrupo.put(row++, chave);
-            
-            // Itens do grupo
-            if (expandido) {
-                for (T item : itensGrupo) {
-                    Object[] linha = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
-                    // Indentar primeira coluna
-                    if (linha.length > 0 && linha[0] != null) {
-                        linha[0] = "    " + linha[0];
-                    }
-                    modeloTabela.addRow(linha);
-                    linhaParaItem.put(row++, item);
+        int cabecalho = indice.linhaGrupo[grupo];
+        int quantidade = linhaGrupo.quantidade;
+        indice.deslocar(grupo + 1, linhaGrupo.expandido ? quantidade : -quantidade);
+        modeloTabela.atualizarLinha(cabecalho);
+        if (linhaGrupo.expandido) {
+            modeloTabela.linhasInseridas(cabecalho + 1, cabecalho + quantidade);
+        } else {
+            modeloTabela.linhasRemovidas(cabecalho + 1, cabecalho + quantidade);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object[] converterLinha(Object linha) {
+        if (linha instanceof LinhaGrupo) {
+            LinhaGrupo grupo = (LinhaGrupo) linha;
+            Object[] linhaGrupo = new Object[modeloTabela.getColumnCount()];
+            if (linhaGrupo.length > 0) {
+                String prefixo = grupo.expandido ? "▼ " : "▶ ";
+                linhaGrupo[0] = prefixo + grupo.rotulo + " (" + grupo.quantidade + ")";
+            }
+            // Agregações já calculadas
+            for (int a = 0; a < agregados.size() && a < grupo.acumuladores.length; a++) {
+                int coluna = agregados.get(a).coluna;
+                if (coluna > 0 && coluna < linhaGrupo.length) {
+                    linhaGrupo[coluna] = grupo.acumuladores[a].valor(agregados.get(a).tipo);
                 }
             }
+            return linhaGrupo;
+        }
+        T item = (T) linha;
+        Object[] valores = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
+        // Indentar primeira coluna dos itens agrupados
+        if (chaveAgrupamento != null && valores.length > 0 && valores[0] != null) {
+            valores[0] = "    " + valores[0];
         }
+        return valores;
+    }
+    
+    private boolean isLinhaGrupo(int row) {
+        return modeloTabela.getItem(row) instanceof LinhaGrupo;
     }
     
     /**
      * Expande todos os grupos.
      */
     public void expandirTodos() {
-        if (chaveAgrupamento != null) {
-            for (T item : itens) {
-                Object chave = chaveAgrupamento.apply(item);
-                gruposExpandidos.put(chave, true);
-            }
-            atualizarTabela();
-        }
+        definirTodosExpandidos(true);
     }
     
     /**
      * Recolhe todos os grupos.
      */
     public void recolherTodos() {
-        if (chaveAgrupamento != null) {
+        definirTodosExpandidos(false);
+    }
+    
+    private void definirTodosExpandidos(boolean expandido) {
+        if (chaveAgrupamento == null) return;
+        if (!indiceAtivo) {
             for (T item : itens) {
-                Object chave = chaveAgrupamento.apply(item);
-                gruposExpandidos.put(chave, false);
+                gruposExpandidos.put(chaveAgrupamento.apply(item), expandido);
             }
             atualizarTabela();
+            return;
         }
+        // Só recalcula as posições dos cabeçalhos, sem reagrupar
+        for (LinhaGrupo grupo : indice.grupos) {
+            grupo.expandido = expandido;
+            gruposExpandidos.put(grupo.chave, expandido);
+        }
+        indice.recalcularLinhas();
+        modeloTabela.referenciarItens(indice);
     }
     
     /**
      * Retorna o item selecionado (ignora linhas de grupo).
      */
+    @SuppressWarnings("unchecked")
     public T getItemSelecionado() {
         int row = tabela.getSelectedRow();
-        return linhaParaItem.get(row);
+        Object linha = modeloTabela.getItem(row);
+        return linha == null || linha instanceof LinhaGrupo ? null : (T) linha;
     }
     
     /**
-     * Retorna todos os itens.
+     * Retorna todos os itens. Depois de alterações com agrupamento ativo,
+     * vêm na ordem dos grupos.
      */
     public List<T> getItens() {
+        sincronizarItens();
         return new ArrayList<>(itens);
     }
     
@@ -240,8 +403,454 @@ public class TabelaAgrupada<T> extends JPanel {
      * Limpa a tabela.
      */
     public void limpar() {
-        itens.clear();
+        itens = new ArrayList<>();
+        itensNoIndice = false;
         gruposExpandidos.clear();
         atualizarTabela();
     }
+    
+    /**
+     * Linha de cabeçalho de um grupo.
+     */
+    private static class LinhaGrupo {
+        final Object chave;
+        final String rotulo;
+        int quantidade;
+        boolean expandido;
+        Acumulador[] acumuladores = new Acumulador[0];
+        
+        LinhaGrupo(Object chave, String rotulo, int quantidade, boolean expandido) {
+            this.chave = chave;
+            this.rotulo = rotulo;
+            this.quantidade = quantidade;
+            this.expandido = expandido;
+        }
+    }
+    
+    /**
+     * Agregação configurada para uma coluna.
+     */
+    private static class AgregadoColuna<T> {
+        final int coluna;
+        final Agregacao tipo;
+        final ToDoubleFunction<T> valor;
+        
+        AgregadoColuna(int coluna, Agregacao tipo, ToDoubleFunction<T> valor) {
+            this.coluna = coluna;
+            this.tipo = tipo;
+            this.valor = valor;
+        }
+    }
+    
+    /**
+     * Soma, contagem, mínimo e máximo de uma agregação em um grupo.
+     */
+    private static class Acumulador {
+        double soma;
+        long contagem;
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        
+        void adicionar(double valor) {
+            if (Double.isNaN(valor)) return;
+            soma += valor;
+            contagem++;
+            if (valor < minimo) minimo = valor;
+            if (valor > maximo) maximo = valor;
+        }
+        
+        /** Retira o valor; retorna true se mínimo ou máximo precisam ser recalculados. */
+        boolean remover(double valor) {
+            if (Double.isNaN(valor)) return false;
+            soma -= valor;
+            contagem--;
+            return valor <= minimo || valor >= maximo;
+        }
+        
+        Number valor(Agregacao tipo) {
+            switch (tipo) {
+                case SOMA: return soma;
+                case CONTAGEM: return contagem;
+                case MEDIA: return contagem > 0 ? soma / contagem : null;
+                case MINIMO: return contagem > 0 ? minimo : null;
+                case MAXIMO: return contagem > 0 ? maximo : null;
+                default: return null;
+            }
+        }
+    }
+    
+    /**
+     * Índice dos grupos, exposto ao modelo como a lista de linhas visíveis.
+     * Os itens ficam contíguos por grupo; a linha de cabeçalho de cada grupo
+     * fica em um array e é achada por busca binária.
+     */
+    private class IndiceGrupos extends AbstractList<Object> {
+        
+        /** Itens na ordem dos grupos (capacidade pode sobrar no fim). */
+        private Object[] itensAgrupados = new Object[0];
+        /**
+         * Valores que cada item somou às agregações, na mesma posição de
+         * {@link #itensAgrupados}. Retirar um item subtrai esses valores, e não os
+         * atuais, então um item alterado depois de entrar não desequilibra o grupo.
+         */
+        private double[][] valoresItens = new double[0][];
+        private int totalItens;
+        private LinhaGrupo[] grupos = new LinhaGrupo[0];
+        /** Posição do primeiro item de cada grupo em {@link #itensAgrupados}. */
+        private int[] inicioGrupo = new int[0];
+        /** Linha visível do cabeçalho de cada grupo. */
+        private int[] linhaGrupo = new int[0];
+        private final Map<Object, Integer> posicaoGrupo = new HashMap<>();
+        /** Grupo de cada item, pela identidade (a posição sai de uma busca só no grupo). */
+        private final Map<Object, LinhaGrupo> grupoDoItem = new IdentityHashMap<>();
+        private int totalLinhas;
+        
+        void reconstruir() {
+            Map<Object, List<T>> mapa = new LinkedHashMap<>();
+            for (T item : itens) {
+                Object chave = chaveAgrupamento.apply(item);
+                mapa.computeIfAbsent(chave, k -> new ArrayList<>()).add(item);
+            }
+            
+            int n = mapa.size();
+            itensAgrupados = new Object[itens.size()];
+            valoresItens = new double[itens.size()][];
+            totalItens = itens.size();
+            grupos = new LinhaGrupo[n];
+            inicioGrupo = new int[n];
+            linhaGrupo = new int[n];
+            posicaoGrupo.clear();
+            grupoDoItem.clear();
+            
+            int g = 0, posicao = 0;
+            for (Map.Entry<Object, List<T>> entry : mapa.entrySet()) {
+                Object chave = entry.getKey();
+                List<T> itensGrupo = entry.getValue();
+                grupos[g] = novoGrupo(chave, itensGrupo.size());
+                inicioGrupo[g] = posicao;
+                posicaoGrupo.put(chave, g);
+                for (T item : itensGrupo) {
+                    itensAgrupados[posicao++] = item;
+                    grupoDoItem.put(item, grupos[g]);
+                }
+                g++;
+            }
+            recalcularLinhas();
+            
+            // Uma passada por grupo, com todas as agregações juntas
+            IntStream faixa = IntStream.range(0, n);
+            if (totalItens >= LIMIAR_PARALELO) {
+                faixa = faixa.parallel();
+            }
+            faixa.forEach(this::acumularGrupo);
+        }
+        
+        private LinhaGrupo novoGrupo(Object chave, int quantidade) {
+            String rotulo = rotuloGrupo != null ? rotuloGrupo.apply(chave) : String.valueOf(chave);
+            return new LinhaGrupo(chave, rotulo, quantidade, gruposExpandidos.getOrDefault(chave, true));
+        }
+        
+        /** Recalcula a linha de cada cabeçalho a partir do estado dos grupos. */
+        void recalcularLinhas() {
+            int linha = 0;
+            for (int g = 0; g < grupos.length; g++) {
+                linhaGrupo[g] = linha;
+                linha += 1 + (grupos[g].expandido ? grupos[g].quantidade : 0);
+            }
+            totalLinhas = linha;
+        }
+        
+        /** Soma delta às linhas de cabeçalho a partir do grupo indicado. */
+        void deslocar(int primeiroGrupo, int delta) {
+            for (int g = primeiroGrupo; g < linhaGrupo.length; g++) {
+                linhaGrupo[g] += delta;
+            }
+            totalLinhas += delta;
+        }
+        
+        /** Grupo ao qual a linha visível pertence. */
+        int grupoDaLinha(int linha) {
+            int pos = Arrays.binarySearch(linhaGrupo, linha);
+            return pos >= 0 ? pos : -pos - 2;
+        }
+        
+        /** Grupo do item na posição de {@link #itensAgrupados}. */
+        int grupoDaPosicao(int posicao) {
+            int pos = Arrays.binarySearch(inicioGrupo, posicao);
+            return pos >= 0 ? pos : -pos - 2;
+        }
+        
+        /**
+         * Posição do item ou -1. Pela identidade, procura só no grupo do item; uma
+         * instância diferente (igual por equals) é procurada no grupo da chave dela e,
+         * só se não estiver lá, em todos os itens.
+         */
+        int localizar(T item) {
+            LinhaGrupo grupo = grupoDoItem.get(item);
+            if (grupo != null) {
+                int posicao = procurarNoGrupo(posicaoGrupo.get(grupo.chave), item);
+                if (posicao >= 0) return posicao;
+            }
+            Integer g = posicaoGrupo.get(chaveAgrupamento.apply(item));
+            if (g != null) {
+                int posicao = procurarNoGrupo(g, item);
+                if (posicao >= 0) return posicao;
+            }
+            for (int i = 0; i < totalItens; i++) {
+                if (Objects.equals(itensAgrupados[i], item)) return i;
+            }
+            return -1;
+        }
+        
+        private int procurarNoGrupo(int g, Object item) {
+            int inicio = inicioGrupo[g];
+            int fim = inicio + grupos[g].quantidade;
+            for (int i = inicio; i < fim; i++) {
+                if (itensAgrupados[i] == item) return i;
+            }
+            for (int i = inicio; i < fim; i++) {
+                if (Objects.equals(itensAgrupados[i], item)) return i;
+            }
+            return -1;
+        }
+        
+        /** Itens na ordem dos grupos. */
+        @SuppressWarnings("unchecked")
+        List<T> listarItens() {
+            List<T> lista = new ArrayList<>(totalItens);
+            for (int i = 0; i < totalItens; i++) {
+                lista.add((T) itensAgrupados[i]);
+            }
+            return lista;
+        }
+        
+        // ---------- Agregações ----------
+        
+        @SuppressWarnings("unchecked")
+        private double valor(int agregado, Object item) {
+            return agregados.get(agregado).valor.applyAsDouble((T) item);
+        }
+        
+        /** Refaz as agregações do grupo com os valores atuais dos itens. */
+        void acumularGrupo(int g) {
+            LinhaGrupo grupo = grupos[g];
+            Acumulador[] acumuladores = new Acumulador[agregados.size()];
+            for (int a = 0; a < acumuladores.length; a++) {
+                acumuladores[a] = new Acumulador();
+            }
+            if (acumuladores.length > 0) {
+                for (int i = inicioGrupo[g], fim = i + grupo.quantidade; i < fim; i++) {
+                    valoresItens[i] = extrair(itensAgrupados[i]);
+                    for (int a = 0; a < acumuladores.length; a++) {
+                        acumuladores[a].adicionar(valoresItens[i][a]);
+                    }
+                }
+            }
+            grupo.acumuladores = acumuladores;
+        }
+        
+        private double[] extrair(Object item) {
+            double[] valores = new double[agregados.size()];
+            for (int a = 0; a < valores.length; a++) {
+                valores[a] = valor(a, item);
+            }
+            return valores;
+        }
+        
+        /** Soma às agregações o item da posição, guardando os valores dele. */
+        private void somar(LinhaGrupo grupo, int posicao) {
+            if (grupo.acumuladores.length == 0) return;
+            double[] valores = extrair(itensAgrupados[posicao]);
+            valoresItens[posicao] = valores;
+            for (int a = 0; a < grupo.acumuladores.length; a++) {
+                grupo.acumuladores[a].adicionar(valores[a]);
+            }
+        }
+        
+        /**
+         * Retira das agregações os valores guardados quando o item entrou;
+         * retorna true se o grupo precisa ser recalculado.
+         */
+        private boolean subtrair(LinhaGrupo grupo, double[] valores) {
+            if (valores == null) return grupo.acumuladores.length > 0;
+            boolean recalcular = false;
+            for (int a = 0; a < grupo.acumuladores.length; a++) {
+                recalcular |= grupo.acumuladores[a].remover(valores[a]);
+            }
+            return recalcular;
+        }
+        
+        // ---------- Alterações incrementais ----------
+        
+        void inserir(T item) {
+            Object chave = chaveAgrupamento.apply(item);
+            Integer g = posicaoGrupo.get(chave);
+            if (g == null) {
+                criarGrupo(chave, item);
+                return;
+            }
+            LinhaGrupo grupo = grupos[g];
+            int posicao = inicioGrupo[g] + grupo.quantidade;
+            abrirEspaco(posicao);
+            itensAgrupados[posicao] = item;
+            grupoDoItem.put(item, grupo);
+            for (int h = g + 1; h < inicioGrupo.length; h++) {
+                inicioGrupo[h]++;
+            }
+            grupo.quantidade++;
+            somar(grupo, posicao);
+            
+            int cabecalho = linhaGrupo[g];
+            if (grupo.expandido) {
+                deslocar(g + 1, 1);
+                int linha = cabecalho + grupo.quantidade;
+                modeloTabela.linhasInseridas(linha, linha);
+            }
+            modeloTabela.atualizarLinha(cabecalho);
+        }
+        
+        private void criarGrupo(Object chave, T item) {
+            int g = grupos.length;
+            grupos = Arrays.copyOf(grupos, g + 1);
+            inicioGrupo = Arrays.copyOf(inicioGrupo, g + 1);
+            linhaGrupo = Arrays.copyOf(linhaGrupo, g + 1);
+            
+            int posicao = totalItens;
+            abrirEspaco(posicao);
+            itensAgrupados[posicao] = item;
+            grupos[g] = novoGrupo(chave, 1);
+            grupoDoItem.put(item, grupos[g]);
+            inicioGrupo[g] = posicao;
+            linhaGrupo[g] = totalLinhas;
+            posicaoGrupo.put(chave, g);
+            acumularGrupo(g);
+            
+            int linhas = grupos[g].expandido ? 2 : 1;
+            totalLinhas += linhas;
+            modeloTabela.linhasInseridas(linhaGrupo[g], linhaGrupo[g] + linhas - 1);
+        }
+        
+        /**
+         * Retira o item da posição.
+         */
+        void retirar(int posicao) {
+            int g = grupoDaPosicao(posicao);
+            LinhaGrupo grupo = grupos[g];
+            Object item = itensAgrupados[posicao];
+            double[] valores = valoresItens[posicao];
+            int linha = linhaGrupo[g] + 1 + posicao - inicioGrupo[g];
+            grupoDoItem.remove(item);
+            
+            if (grupo.quantidade == 1) {
+                fecharEspaco(posicao);
+                removerGrupo(g);
+                return;
+            }
+            
+            fecharEspaco(posicao);
+            for (int h = g + 1; h < inicioGrupo.length; h++) {
+                inicioGrupo[h]--;
+            }
+            grupo.quantidade--;
+            if (subtrair(grupo, valores)) {
+                acumularGrupo(g);
+            }
+            
+            if (grupo.expandido) {
+                deslocar(g + 1, -1);
+                modeloTabela.linhasRemovidas(linha, linha);
+            }
+            modeloTabela.atualizarLinha(linhaGrupo[g]);
+        }
+        
+        private void removerGrupo(int g) {
+            int cabecalho = linhaGrupo[g];
+            int linhas = grupos[g].expandido ? 2 : 1;
+            posicaoGrupo.remove(grupos[g].chave);
+            
+            int restantes = grupos.length - g - 1;
+            System.arraycopy(grupos, g + 1, grupos, g, restantes);
+            System.arraycopy(inicioGrupo, g + 1, inicioGrupo, g, restantes);
+            System.arraycopy(linhaGrupo, g + 1, linhaGrupo, g, restantes);
+            grupos = Arrays.copyOf(grupos, grupos.length - 1);
+            inicioGrupo = Arrays.copyOf(inicioGrupo, inicioGrupo.length - 1);
+            linhaGrupo = Arrays.copyOf(linhaGrupo, linhaGrupo.length - 1);
+            for (int h = g; h < grupos.length; h++) {
+                inicioGrupo[h]--;
+                posicaoGrupo.put(grupos[h].chave, h);
+            }
+            
+            deslocar(g, -linhas);
+            modeloTabela.linhasRemovidas(cabecalho, cabecalho + linhas - 1);
+        }
+        
+        /**
+         * Troca o item igual a {@code novo} por ele. Se o grupo mudou, o item é movido.
+         * 
+         * @return false se o item não está no índice
+         */
+        boolean atualizar(T novo) {
+            int posicao = localizar(novo);
+            if (posicao < 0) return false;
+            Object anterior = itensAgrupados[posicao];
+            int g = grupoDaPosicao(posicao);
+            LinhaGrupo grupo = grupos[g];
+            
+            if (!Objects.equals(chaveAgrupamento.apply(novo), grupo.chave)) {
+                retirar(posicao);
+                inserir(novo);
+                return true;
+            }
+            
+            itensAgrupados[posicao] = novo;
+            grupoDoItem.remove(anterior);
+            grupoDoItem.put(novo, grupo);
+            // Os valores guardados valem mesmo se a instância foi alterada no lugar
+            if (subtrair(grupo, valoresItens[posicao])) {
+                acumularGrupo(g);
+            } else {
+                somar(grupo, posicao);
+            }
+            if (grupo.expandido) {
+                modeloTabela.atualizarLinha(linhaGrupo[g] + 1 + posicao - inicioGrupo[g]);
+            }
+            modeloTabela.atualizarLinha(linhaGrupo[g]);
+            return true;
+        }
+        
+        /** Abre uma posição em {@link #itensAgrupados}, deslocando o restante. */
+        private void abrirEspaco(int posicao) {
+            if (totalItens == itensAgrupados.length) {
+                int capacidade = Math.max(16, totalItens + (totalItens >> 1));
+                itensAgrupados = Arrays.copyOf(itensAgrupados, capacidade);
+                valoresItens = Arrays.copyOf(valoresItens, capacidade);
+            }
+            System.arraycopy(itensAgrupados, posicao, itensAgrupados, posicao + 1, totalItens - posicao);
+            System.arraycopy(valoresItens, posicao, valoresItens, posicao + 1, totalItens - posicao);
+            valoresItens[posicao] = null;
+            totalItens++;
+        }
+        
+        private void fecharEspaco(int posicao) {
+            System.arraycopy(itensAgrupados, posicao + 1, itensAgrupados, posicao, totalItens - posicao - 1);
+            System.arraycopy(valoresItens, posicao + 1, valoresItens, posicao, totalItens - posicao - 1);
+            valoresItens[totalItens - 1] = null;
+            itensAgrupados[--totalItens] = null;
+        }
+        
+        @Override
+        public Object get(int linha) {
+            if (linha < 0 || linha >= totalLinhas) {
+                throw new IndexOutOfBoundsException("Linha: " + linha);
+            }
+            int g = grupoDaLinha(linha);
+            int deslocamento = linha - linhaGrupo[g];
+            return deslocamento == 0 ? grupos[g] : itensAgrupados[inicioGrupo[g] + deslocamento - 1];
+        }
+        
+        @Override
+        public int size() {
+            return totalLinhas;
+        }
+    }
 }
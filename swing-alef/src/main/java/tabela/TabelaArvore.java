@@ -0,0 +1,397 @@
+package tabela;
+
+import util.TarefaAssincrona;
+
+import javax.swing.*;
+import javax.swing.table.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.function.*;
+
+/**
+ * Tabela em árvore com carregamento sob demanda.
+ *
+ * <p>Funciona como a {@link TabelaAgrupada}, mas com vários níveis: os filhos de um nó
+ * são pedidos ao carregador (fora da EDT) na primeira vez que ele é expandido e ficam
+ * em cache. Expandir ou recolher insere ou remove só as linhas visíveis da subárvore.
+ * As subárvores recolhidas menos usadas são descartadas e recarregadas se forem
+ * abertas de novo, então a memória acompanha o que está expandido.</p>
+ *
+ * <h3>Uso:</h3>
+ * <pre>{@code
+ * TabelaArvore<Conta> arvore = new TabelaArvore<>();
+ * arvore.setColunas("Conta", "Saldo");
+ * arvore.setConversor(c -> new Object[]{c.getNome(), c.getSaldo()});
+ * arvore.setTemFilhos(c -> !c.isAnalitica());
+ * arvore.setCarregador(pai -> pai == null ? dao.buscarRaizes() : dao.buscarFilhas(pai.getId()));
+ * arvore.carregar();
+ * }</pre>
+ *
+ * @author alefi
+ * @since 2.1
+ */
+public class TabelaArvore<T> extends JPanel {
+
+    private static final String RECUO = "    ";
+
+    private JTable tabela;
+    /** Nós visíveis, na ordem de exibição. */
+    private final List<No<T>> linhas = new ArrayList<>();
+    /** As linhas antes desta posição têm {@code No.linha} correto; as seguintes são renumeradas sob demanda. */
+    private int numeradasAte;
+    private TabelaModeloConversor<No<T>> modeloTabela;
+
+    private Function<T, Object[]> conversor;
+    private Function<T, List<T>> carregador;
+    private Predicate<T> temFilhos = item -> true;
+    private Consumer<Exception> aoErro;
+
+    /** Subárvores recolhidas com filhos em cache, da usada há mais tempo para a mais recente. */
+    private final LinkedHashMap<No<T>, Boolean> recolhidos = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxSubarvoresCache = 50;
+    /** Incrementada ao recarregar, para descartar respostas antigas. */
+    private int geracao = 0;
+    private int carregando = 0;
+
+    private Color corGrupo = new Color(0xE3F2FD);
+
+    public TabelaArvore() {
+        setLayout(new BorderLayout());
+
+        modeloTabela = new TabelaModeloConversor<>();
+        modeloTabela.setConversor(this::converterLinha);
+        modeloTabela.referenciarItens(linhas);
+
+        tabela = new JTable(modeloTabela);
+        tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tabela.setRowHeight(25);
+
+        // Nós com filhos destacados como as linhas de grupo
+        tabela.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                    boolean isSelected, boolean hasFocus, int row, int column) {
+
+                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+
+                No<T> no = modeloTabela.getItem(row);
+                if (no != null && !no.folha) {
+                    if (!isSelected) c.setBackground(corGrupo);
+                    c.setFont(c.getFont().deriveFont(Font.BOLD));
+                } else if (!isSelected) {
+                    c.setBackground(table.getBackground());
+                    c.setFont(c.getFont().deriveFont(Font.PLAIN));
+                }
+
+                return c;
+            }
+        });
+
+        // Clique no marcador (▶/▼) ou duplo clique na linha expande/recolhe
+        tabela.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int row = tabela.rowAtPoint(e.getPoint());
+                if (row < 0 || !SwingUtilities.isLeftMouseButton(e)) return;
+                boolean noMarcador = clicouNoMarcador(row, tabela.columnAtPoint(e.getPoint()), e.getX());
+                if (e.getClickCount() == 1 ? noMarcador : e.getClickCount() == 2 && !noMarcador) {
+                    alternar(row);
+                }
+            }
+        });
+
+        add(new JScrollPane(tabela), BorderLayout.CENTER);
+    }
+
+    /**
+     * Define as colunas da tabela.
+     */
+    public void setColunas(String... colunas) {
+        modeloTabela.setColunas(colunas);
+    }
+
+    /**
+     * Define o conversor de item para linha.
+     */
+    public void setConversor(Function<T, Object[]> conversor) {
+        this.conversor = conversor;
+    }
+
+    /**
+     * Define o carregador de filhos. Recebe o item pai (null para as raízes)
+     * e é chamado fora da EDT.
+     */
+    public void setCarregador(Function<T, List<T>> carregador) {
+        this.carregador = carregador;
+    }
+
+    /**
+     * Define quais itens podem ter filhos. Os demais são exibidos como folhas
+     * e nunca chamam o carregador.
+     */
+    public void setTemFilhos(Predicate<T> temFilhos) {
+        this.temFilhos = temFilhos != null ? temFilhos : item -> true;
+    }
+
+    /**
+     * Define quantas subárvores recolhidas ficam em cache (padrão 50).
+     */
+    public void setMaxSubarvoresCache(int max) {
+        this.maxSubarvoresCache = Math.max(0, max);
+        descartarExcedentes();
+    }
+
+    /**
+     * Define ação executada (na EDT) quando o carregador falha.
+     * Sem ação definida, o erro é impresso no console.
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
+    }
+
+    /**
+     * Descarta a árvore e carrega as raízes de novo.
+     */
+    public void carregar() {
+        if (carregador == null) return;
+        geracao++;
+        recolhidos.clear();
+        linhas.clear();
+        numeradasAte = 0;
+        modeloTabela.referenciarItens(linhas);
+
+        int geracaoPedido = geracao;
+        carregando++;
+        TarefaAssincrona.executar(() -> carregador.apply(null), raizes -> {
+            carregando--;
+            if (geracaoPedido != geracao) return;
+            linhas.addAll(criarNos(raizes, 0));
+            // Um único evento para todas as raízes
+            modeloTabela.referenciarItens(linhas);
+        }, erro -> {
+            carregando--;
+            if (geracaoPedido == geracao) notificarErro(erro);
+        });
+    }
+
+    /**
+     * Expande ou recolhe o nó da linha (clique no marcador, duplo clique ou chamada direta).
+     */
+    public void alternar(int linha) {
+        No<T> no = modeloTabela.getItem(linha);
+        if (no == null || no.folha) return;
+        if (no.expandido) {
+            recolher(no, linha);
+        } else {
+            expandir(no);
+        }
+    }
+
+    private void expandir(No<T> no) {
+        if (no.carregando) return;
+        recolhidos.remove(no);
+        if (no.filhos == null) {
+            carregarFilhos(no);
+            return;
+        }
+        no.expandido = true;
+
+        int linha = linhaDe(no);
+        if (linha < 0) return; // ancestral recolhido: aparece expandido quando ele abrir
+        List<No<T>> visiveis = new ArrayList<>();
+        coletarVisiveis(no, visiveis);
+        linhas.addAll(linha + 1, visiveis);
+        numeradasAte = Math.min(numeradasAte, linha + 1);
+        modeloTabela.atualizarLinha(linha);
+        modeloTabela.linhasInseridas(linha + 1, linha + visiveis.size());
+    }
+
+    private void recolher(No<T> no, int linha) {
+        // Descendentes visíveis são as linhas seguintes de nível maior
+        int fim = linha + 1;
+        while (fim < linhas.size() && linhas.get(fim).nivel > no.nivel) {
+            fim++;
+        }
+        no.expandido = false;
+        linhas.subList(linha + 1, fim).clear();
+        numeradasAte = Math.min(numeradasAte, linha + 1);
+        modeloTabela.atualizarLinha(linha);
+        modeloTabela.linhasRemovidas(linha + 1, fim - 1);
+
+        recolhidos.put(no, Boolean.TRUE);
+        descartarExcedentes();
+    }
+
+    private void carregarFilhos(No<T> no) {
+        if (carregador == null) return;
+        no.carregando = true;
+        atualizarNo(no);
+
+        int geracaoPedido = geracao;
+        carregando++;
+        TarefaAssincrona.executar(() -> carregador.apply(no.item), filhos -> {
+            carregando--;
+            if (geracaoPedido != geracao) return;
+            no.carregando = false;
+            no.filhos = criarNos(filhos, no.nivel + 1);
+            expandir(no);
+        }, erro -> {
+            carregando--;
+            if (geracaoPedido != geracao) return;
+            no.carregando = false;
+            atualizarNo(no);
+            notificarErro(erro);
+        });
+    }
+
+    /**
+     * Descarta os filhos das subárvores recolhidas usadas há mais tempo.
+     * Cada descarte custa o tamanho da subárvore liberada.
+     */
+    private void descartarExcedentes() {
+        while (recolhidos.size() > maxSubarvoresCache) {
+            // A mais antiga é sempre a primeira; descartar() pode ter tirado outras do mapa
+            No<T> no = recolhidos.keySet().iterator().next();
+            recolhidos.remove(no);
+            descartar(no);
+        }
+    }
+
+    private void descartar(No<T> no) {
+        for (No<T> filho : no.filhos) {
+            // Só nós com filhos em cache podem estar no mapa
+            if (filho.filhos != null) {
+                recolhidos.remove(filho);
+                descartar(filho);
+            }
+        }
+        no.filhos = null;
+    }
+
+    private void coletarVisiveis(No<T> no, List<No<T>> destino) {
+        for (No<T> filho : no.filhos) {
+            destino.add(filho);
+            if (filho.expandido && filho.filhos != null) {
+                coletarVisiveis(filho, destino);
+            }
+        }
+    }
+
+    private List<No<T>> criarNos(List<T> itens, int nivel) {
+        List<No<T>> nos = new ArrayList<>(itens != null ? itens.size() : 0);
+        if (itens != null) {
+            for (T item : itens) {
+                nos.add(new No<>(item, nivel, !temFilhos.test(item)));
+            }
+        }
+        return nos;
+    }
+
+    private void atualizarNo(No<T> no) {
+        int linha = linhaDe(no);
+        if (linha >= 0) {
+            modeloTabela.atualizarLinha(linha);
+        }
+    }
+
+    /**
+     * Linha do nó, ou -1 se não estiver visível. Usa a linha guardada no nó se ela
+     * confere; senão renumera a partir da primeira linha desatualizada até achá-lo.
+     */
+    private int linhaDe(No<T> no) {
+        int linha = no.linha;
+        if (linha >= 0 && linha < linhas.size() && linhas.get(linha) == no) return linha;
+        while (numeradasAte < linhas.size()) {
+            No<T> atual = linhas.get(numeradasAte);
+            atual.linha = numeradasAte++;
+            if (atual == no) return atual.linha;
+        }
+        return -1;
+    }
+
+    private boolean clicouNoMarcador(int row, int coluna, int x) {
+        if (coluna < 0 || tabela.convertColumnIndexToModel(coluna) != 0) return false;
+        No<T> no = modeloTabela.getItem(row);
+        if (no == null || no.folha) return false;
+        FontMetrics metricas = tabela.getFontMetrics(tabela.getFont().deriveFont(Font.BOLD));
+        int fim = tabela.getCellRect(row, coluna, false).x
+                + metricas.stringWidth(RECUO.repeat(no.nivel) + "▶ ") + 4; // + borda da célula
+        return x <= fim;
+    }
+
+    private Object[] converterLinha(No<T> no) {
+        Object[] valores = conversor != null ? conversor.apply(no.item) : new Object[]{String.valueOf(no.item)};
+        if (valores.length > 0) {
+            String marcador = no.folha ? "   " : no.expandido ? "▼ " : "▶ ";
+            String texto = RECUO.repeat(no.nivel) + marcador + (valores[0] != null ? valores[0] : "");
+            valores[0] = no.carregando ? texto + " (carregando...)" : texto;
+        }
+        return valores;
+    }
+
+    private void notificarErro(Exception e) {
+        if (aoErro != null) {
+            aoErro.accept(e);
+        } else {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Retorna o item selecionado.
+     */
+    public T getItemSelecionado() {
+        No<T> no = modeloTabela.getItem(tabela.getSelectedRow());
+        return no != null ? no.item : null;
+    }
+
+    /**
+     * Retorna o nível (0 = raiz) do item selecionado, ou -1.
+     */
+    public int getNivelSelecionado() {
+        No<T> no = modeloTabela.getItem(tabela.getSelectedRow());
+        return no != null ? no.nivel : -1;
+    }
+
+    /**
+     * Verifica se há filhos (ou raízes) sendo carregados.
+     */
+    public boolean isCarregando() {
+        return carregando > 0;
+    }
+
+    /**
+     * Retorna a tabela interna.
+     */
+    public JTable getTabela() {
+        return tabela;
+    }
+
+    /**
+     * Define a cor de fundo das linhas com filhos.
+     */
+    public void setCorGrupo(Color cor) {
+        this.corGrupo = cor;
+    }
+
+    /**
+     * Nó da árvore. Filhos null = ainda não carregados (ou descartados).
+     */
+    private static class No<T> {
+        final T item;
+        final int nivel;
+        final boolean folha;
+        List<No<T>> filhos;
+        boolean expandido;
+        boolean carregando;
+        /** Última linha conhecida (conferida antes do uso). */
+        int linha = -1;
+
+        No(T item, int nivel, boolean folha) {
+            this.item = item;
+            this.nivel = nivel;
+            this.folha = folha;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package tabela;
 
 import java.awt.Dimension;
 import javax.swing.JTable;
-import javax.swing.RowFilter;
 import javax.swing.UIManager;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -24,6 +23,7 @@ import javax.swing.table.TableRowSorter;
 public class TabelaBase extends JTable {
     
     private TableRowSorter<DefaultTableModel> sorter;
+    private FiltroTexto filtroTexto;
 
     /**
      * Cria uma tabela base com modelo padrão.
@@ -151,26 +151,51 @@ public class TabelaBase extends JTable {
     }
 
     /**
-     * Aplica um filtro de texto (case-insensitive) nas linhas da tabela.
+     * Aplica um filtro de texto nas linhas da tabela, ignorando maiúsculas e acentos.
      * Se texto for vazio ou nulo, o filtro é removido.
      * 
+     * <p>Quando o texto apenas estende o anterior, só as linhas que já passavam
+     * são testadas de novo (ver {@link FiltroTexto}).</p>
+     * 
      * @param texto texto para filtrar
      */
     public void filtrar(String texto) {
         // Cria sorter sob demanda se necessário
-        if (sorter == null && getModel() instanceof DefaultTableModel) {
-            sorter = new TableRowSorter<>((DefaultTableModel) getModel());
-            setRowSorter(sorter);
-        }
-        
-        if (sorter == null) return;
-        
-        if (texto == null || texto.trim().isEmpty()) {
-            sorter.setRowFilter(null);
-            return;
+        configurarSorter();
+        getFiltroTexto().filtrar(texto);
+    }
+    
+    /**
+     * Agenda o filtro para quando o usuário parar de digitar.
+     * Indicado para chamadas a cada tecla.
+     * 
+     * @param texto texto para filtrar
+     */
+    public void agendarFiltro(String texto) {
+        configurarSorter();
+        getFiltroTexto().agendar(texto);
+    }
+    
+    /**
+     * Ativa a filtragem em segundo plano, para tabelas muito grandes.
+     * A digitação não trava: o resultado é aplicado quando fica pronto.
+     * 
+     * @param assincrono true para filtrar fora da EDT
+     */
+    public void setFiltroAssincrono(boolean assincrono) {
+        getFiltroTexto().setAssincrono(assincrono);
+    }
+    
+    /**
+     * Retorna o filtro de texto da tabela, criando-o se necessário.
+     * 
+     * @return filtro de texto
+     */
+    public FiltroTexto getFiltroTexto() {
+        if (filtroTexto == null) {
+            filtroTexto = new FiltroTexto(this);
         }
-        String regex = "(?i)" + java.util.regex.Pattern.quote(texto.trim());
-        sorter.setRowFilter(RowFilter.regexFilter(regex));
+        return filtroTexto;
     }
     
     /**
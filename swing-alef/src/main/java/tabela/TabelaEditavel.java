@@ -1,13 +1,24 @@
 package tabela;
 
+import util.TarefaAssincrona;
+
 import javax.swing.*;
 import javax.swing.event.*;
 import javax.swing.table.*;
+import javax.swing.Timer;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
 import java.awt.event.*;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 import java.util.function.*;
+import java.util.regex.Pattern;
 
 /**
  * Tabela com edição inline de células.
@@ -23,41 +34,162 @@ import java.util.function.*;
  * });
  * }</pre>
  * 
+ * <h3>Gravação em lote:</h3>
+ * <p>Com um gravador definido, as edições vão para um diário em vez de serem gravadas
+ * uma a uma. Edições repetidas na mesma célula são combinadas, e o diário é gravado
+ * fora da EDT quando atinge o tamanho do lote, após o intervalo ou em {@link #salvar()}.
+ * Linhas pendentes e com falha ficam destacadas. Ctrl+Z / Ctrl+Y desfazem e refazem.</p>
+ * <pre>{@code
+ * tabela.setAoEditar((produto, coluna, valor) -> produto.setPreco((Double) valor)); // só no objeto
+ * tabela.setGravador(edicoes -> servico.salvarPrecos(edicoes));                    // em lote
+ * }</pre>
+ * 
+ * <h3>Colar e preencher:</h3>
+ * <p>Ctrl+V cola texto separado por tabulação (Excel, planilhas) a partir da célula
+ * selecionada, e Ctrl+D preenche a seleção com o valor da primeira linha. O texto é
+ * lido e convertido fora da EDT, pelo tipo de cada coluna, e aplicado com um único
+ * evento; {@link #setAoEditarLote} recebe todas as células de uma vez.</p>
+ * 
  * @author alefi
  * @since 1.1
  */
 public class TabelaEditavel<T> extends JPanel {
     
     private JTable tabela;
-    private DefaultTableModel modeloTabela;
+    private TabelaModeloConversor<T> modeloTabela;
     
     private List<T> itens = new ArrayList<>();
+    /** Item (ou chave) → linha, para atualizarItem/removerItem sem percorrer a lista. */
+    private IndiceChaves<T> indice = IndiceChaves.porIdentidade();
     private Function<T, Object[]> conversor;
     private Set<Integer> colunasEditaveis = new HashSet<>();
     
     private TriConsumer<T, Integer, Object> aoEditar;
+    private Consumer<List<Edicao<T>>> aoEditarLote;
     private Consumer<T> aoSelecionar;
+    private final Map<Integer, Class<?>> tiposColuna = new HashMap<>();
+    /** Tipo do primeiro valor não nulo de cada coluna (null: coluna sem valores), refeito quando os dados mudam. */
+    private final Map<Integer, Class<?>> tiposDetectados = new HashMap<>();
+    /** Número com separador de milhar brasileiro e sem vírgula (1.234 ou 1.234.567). */
+    private static final Pattern MILHAR_BR = Pattern.compile("-?\\d{1,3}(\\.\\d{3})+");
+    /** Marca células coladas cujo texto não converte para o tipo da coluna. */
+    private static final Object INVALIDO = new Object();
+    
+    // Gravação em lote
+    private GravadorLote<T> gravador;
+    /** Edições ainda não gravadas, uma por célula, na ordem da primeira edição. */
+    private final Map<Celula, Edicao<T>> diario = new LinkedHashMap<>();
+    private List<Edicao<T>> loteEmGravacao;
+    private boolean salvarAoTerminar;
+    private int tamanhoLote = 100;
+    private final Timer temporizadorGravacao;
+    /** Nova tentativa após falha, com espera dobrada a cada falha seguida. */
+    private final Timer temporizadorNovaTentativa;
+    private static final int ESPERA_MAXIMA_MS = 60_000;
+    private int falhasSeguidas;
+    /** Itens removidos enquanto o lote deles estava sendo gravado. */
+    private final Set<Object> removidosNaGravacao = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Object, EstadoGravacao> estadoLinhas = new IdentityHashMap<>();
+    /** Quantas células de cada item estão no diário ou no lote em gravação. */
+    private final Map<Object, Integer> pendenciasPorItem = new IdentityHashMap<>();
+    private Consumer<Exception> aoErro;
+    private Color corPendente = new Color(0xFFF8E1);
+    private Color corFalha = new Color(0xFFEBEE);
+    
+    // Desfazer / refazer
+    private static final int MAX_DESFAZER = 200;
+    /** Cada entrada é uma operação: uma célula ou um bloco colado/preenchido. */
+    private final Deque<List<Edicao<T>>> pilhaDesfazer = new ArrayDeque<>();
+    private final Deque<List<Edicao<T>>> pilhaRefazer = new ArrayDeque<>();
+    private boolean desfazendo;
     
     @FunctionalInterface
     public interface TriConsumer<A, B, C> {
         void accept(A a, B b, C c);
     }
     
+    /**
+     * Grava um lote de edições. Chamado fora da EDT; lançar exceção
+     * devolve as edições ao diário e marca as linhas com falha.
+     */
+    @FunctionalInterface
+    public interface GravadorLote<T> {
+        void gravar(List<Edicao<T>> edicoes) throws Exception;
+    }
+    
+    /**
+     * Situação de gravação de uma linha.
+     */
+    public enum EstadoGravacao {
+        SALVO, PENDENTE, FALHA
+    }
+    
+    /**
+     * Alteração de uma célula: valor antes da primeira edição não gravada e valor atual.
+     */
+    public static class Edicao<T> {
+        private final T item;
+        private final int coluna;
+        private Object valorAnterior;
+        private Object valorNovo;
+        
+        Edicao(T item, int coluna, Object valorAnterior, Object valorNovo) {
+            this.item = item;
+            this.coluna = coluna;
+            this.valorAnterior = valorAnterior;
+            this.valorNovo = valorNovo;
+        }
+        
+        public T getItem() { return item; }
+        public int getColuna() { return coluna; }
+        public Object getValorAnterior() { return valorAnterior; }
+        public Object getValorNovo() { return valorNovo; }
+    }
+    
     public TabelaEditavel() {
         setLayout(new BorderLayout());
         
-        modeloTabela = new DefaultTableModel() {
+        modeloTabela = new TabelaModeloConversor<T>() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return colunasEditaveis.contains(column);
+            public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+                Object anterior = getValueAt(rowIndex, columnIndex);
+                super.setValueAt(aValue, rowIndex, columnIndex);
+                registrarEdicao(rowIndex, columnIndex, anterior, aValue);
             }
         };
+        modeloTabela.setColunaEditavel(colunasEditaveis::contains);
+        modeloTabela.referenciarItens(itens);
         
-        tabela = new JTable(modeloTabela);
+        tabela = new JTable(modeloTabela) {
+            @Override
+            public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+                Component c = super.prepareRenderer(renderer, row, column);
+                // Destaque das linhas pendentes / com falha
+                if (!estadoLinhas.isEmpty() && !isRowSelected(row)) {
+                    EstadoGravacao estado = estadoLinhas.get(modeloTabela.getItem(convertRowIndexToModel(row)));
+                    if (estado == EstadoGravacao.PENDENTE) {
+                        c.setBackground(corPendente);
+                    } else if (estado == EstadoGravacao.FALHA) {
+                        c.setBackground(corFalha);
+                    }
+                }
+                return c;
+            }
+        };
         tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tabela.setRowHeight(25);
         tabela.putClientProperty("terminateEditOnFocusLost", true);
         
+        // Tipos detectados valem até os dados mudarem; uma edição só pode dar tipo a uma coluna vazia
+        modeloTabela.addTableModelListener(e -> {
+            if (e.getType() == TableModelEvent.UPDATE && e.getFirstRow() != TableModelEvent.HEADER_ROW
+                    && e.getLastRow() != Integer.MAX_VALUE) {
+                tiposDetectados.values().removeIf(Objects::isNull);
+            } else {
+                tiposDetectados.clear();
+            }
+        });
+        
         // Listener para edição
         modeloTabela.addTableModelListener(e -> {
             if (e.getType() == TableModelEvent.UPDATE && aoEditar != null) {
@@ -81,6 +213,41 @@ public class TabelaEditavel<T> extends JPanel {
             }
         });
         
+        temporizadorGravacao = new Timer(2000, e -> salvar());
+        temporizadorGravacao.setRepeats(false);
+        temporizadorNovaTentativa = new Timer(2000, e -> salvar());
+        temporizadorNovaTentativa.setRepeats(false);
+        
+        // Ctrl+Z / Ctrl+Y
+        tabela.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "desfazer");
+        tabela.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "refazer");
+        tabela.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_V, InputEvent.CTRL_DOWN_MASK), "colar");
+        tabela.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK), "preencherAbaixo");
+        tabela.getActionMap().put("desfazer", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                desfazer();
+            }
+        });
+        tabela.getActionMap().put("refazer", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refazer();
+            }
+        });
+        tabela.getActionMap().put("colar", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                colar();
+            }
+        });
+        tabela.getActionMap().put("preencherAbaixo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                preencherAbaixo();
+            }
+        });
+        
         add(new JScrollPane(tabela), BorderLayout.CENTER);
     }
     
@@ -88,7 +255,7 @@ public class TabelaEditavel<T> extends JPanel {
      * Define as colunas da tabela.
      */
     public void setColunas(String... colunas) {
-        modeloTabela.setColumnIdentifiers(colunas);
+        modeloTabela.setColunas(colunas);
     }
     
     /**
@@ -104,28 +271,40 @@ public class TabelaEditavel<T> extends JPanel {
      */
     public void setConversor(Function<T, Object[]> conversor) {
         this.conversor = conversor;
+        modeloTabela.setConversor(conversor);
     }
     
     /**
      * Define os itens da tabela.
      */
     public void setItens(List<T> itens) {
-        this.itens = new ArrayList<>(itens);
-        modeloTabela.setRowCount(0);
-        
-        for (T item : itens) {
-            Object[] linha = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
-            modeloTabela.addRow(linha);
+        // Edições e histórico só sobrevivem para os itens que continuam na tabela
+        if (temHistorico()) {
+            Set<Object> mantidos = Collections.newSetFromMap(new IdentityHashMap<>());
+            mantidos.addAll(itens);
+            descartarRemovidos(item -> !mantidos.contains(item));
         }
+        // O modelo referencia a mesma lista e dispara um único evento
+        this.itens = new ArrayList<>(itens);
+        indice.invalidar();
+        modeloTabela.referenciarItens(this.itens);
+    }
+    
+    /**
+     * Localiza os itens pela chave em vez da identidade. Assim
+     * {@link #atualizarItem} aceita uma nova instância com a mesma chave
+     * (que passa a ocupar a linha).
+     */
+    public void setChave(Function<T, ?> extrator) {
+        indice = extrator != null ? new IndiceChaves<>(extrator) : IndiceChaves.porIdentidade();
     }
     
     /**
      * Adiciona um item.
      */
     public void adicionarItem(T item) {
-        itens.add(item);
-        Object[] linha = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
-        modeloTabela.addRow(linha);
+        modeloTabela.adicionar(item);
+        indice.adicionado(itens.size() - 1, item);
     }
     
     /**
@@ -134,9 +313,10 @@ public class TabelaEditavel<T> extends JPanel {
     public T removerItemSelecionado() {
         int row = tabela.getSelectedRow();
         if (row >= 0 && row < itens.size()) {
-            T item = itens.remove(row);
-            modeloTabela.removeRow(row);
-            return item;
+            T removido = modeloTabela.remover(row);
+            indice.removido(row, removido);
+            descartarRemovidos(item -> item == removido);
+            return removido;
         }
         return null;
     }
@@ -145,10 +325,11 @@ public class TabelaEditavel<T> extends JPanel {
      * Remove um item específico.
      */
     public void removerItem(T item) {
-        int index = itens.indexOf(item);
+        int index = linhaDe(item);
         if (index >= 0) {
-            itens.remove(index);
-            modeloTabela.removeRow(index);
+            T removido = modeloTabela.remover(index);
+            indice.removido(index, removido);
+            descartarRemovidos(antigo -> antigo == removido);
         }
     }
     
@@ -156,15 +337,39 @@ public class TabelaEditavel<T> extends JPanel {
      * Atualiza um item na tabela.
      */
     public void atualizarItem(T item) {
-        int index = itens.indexOf(item);
+        int index = linhaDe(item);
         if (index >= 0 && conversor != null) {
-            Object[] linha = conversor.apply(item);
-            for (int c = 0; c < linha.length; c++) {
-                modeloTabela.setValueAt(linha[c], index, c);
+            T anterior = itens.get(index);
+            if (anterior != item) {
+                // Nova instância com a mesma chave: passa a ocupar a linha
+                modeloTabela.atualizar(index, item);
+                indice.atualizado(index, anterior, item);
+            } else {
+                modeloTabela.atualizarLinha(index);
             }
         }
     }
     
+    /**
+     * Linha do item pelo índice; se o índice não confere, reconstrói e, por fim,
+     * procura por equals como antes.
+     */
+    private int linhaDe(T item) {
+        Object chave = indice.chave(item);
+        int linha = indice.linhaDe(chave, itens);
+        if (linha >= 0 && linha < itens.size() && indice.confere(itens.get(linha), chave)) {
+            return linha;
+        }
+        if (linha >= 0) {
+            indice.invalidar();
+            linha = indice.linhaDe(chave, itens);
+            if (linha >= 0 && linha < itens.size() && indice.confere(itens.get(linha), chave)) {
+                return linha;
+            }
+        }
+        return itens.indexOf(item);
+    }
+    
     /**
      * Define ação ao editar célula.
      */
@@ -172,6 +377,734 @@ public class TabelaEditavel<T> extends JPanel {
         this.aoEditar = acao;
     }
     
+    // ==================== GRAVAÇÃO EM LOTE ====================
+    
+    /**
+     * Ativa o diário de edições, gravadas em lote por este gravador.
+     * {@code aoEditar} continua sendo chamado a cada célula, para aplicar o valor no item.
+     */
+    public void setGravador(GravadorLote<T> gravador) {
+        this.gravador = gravador;
+    }
+    
+    /**
+     * Define quantas células pendentes disparam a gravação (padrão 100).
+     */
+    public void setTamanhoLote(int tamanho) {
+        this.tamanhoLote = Math.max(1, tamanho);
+    }
+    
+    /**
+     * Define o tempo máximo que uma edição espera no diário (padrão 2000 ms).
+     */
+    public void setIntervaloGravacao(int milissegundos) {
+        temporizadorGravacao.setInitialDelay(milissegundos);
+        temporizadorGravacao.setDelay(milissegundos);
+    }
+    
+    /**
+     * Define ação executada (na EDT) quando a gravação de um lote falha.
+     * Sem ação definida, o erro é impresso no console. O lote volta ao diário
+     * e é gravado de novo após {@link #setIntervaloGravacao o intervalo}, dobrado
+     * a cada falha seguida (até 1 minuto).
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
+    }
+    
+    /**
+     * Grava agora as edições pendentes. Se um lote já está sendo gravado,
+     * as pendentes são gravadas logo depois dele.
+     */
+    public void salvar() {
+        temporizadorGravacao.stop();
+        temporizadorNovaTentativa.stop();
+        if (gravador == null || diario.isEmpty()) return;
+        if (loteEmGravacao != null) {
+            salvarAoTerminar = true;
+            return;
+        }
+        
+        List<Edicao<T>> lote = new ArrayList<>(diario.values());
+        diario.clear();
+        loteEmGravacao = lote;
+        GravadorLote<T> destino = gravador;
+        TarefaAssincrona.<Void>executar(() -> {
+            destino.gravar(Collections.unmodifiableList(lote));
+            return null;
+        }, r -> concluirGravacao(lote, null), erro -> concluirGravacao(lote, erro));
+    }
+    
+    /**
+     * Retorna quantas células ainda não foram gravadas (inclui o lote em gravação).
+     */
+    public int getEdicoesPendentes() {
+        return diario.size() + (loteEmGravacao != null ? loteEmGravacao.size() : 0);
+    }
+    
+    /**
+     * Verifica se um lote está sendo gravado.
+     */
+    public boolean isGravando() {
+        return loteEmGravacao != null;
+    }
+    
+    /**
+     * Retorna a situação de gravação do item.
+     */
+    public EstadoGravacao getEstadoGravacao(T item) {
+        return estadoLinhas.getOrDefault(item, EstadoGravacao.SALVO);
+    }
+    
+    /**
+     * Define as cores das linhas pendentes e com falha.
+     */
+    public void setCoresGravacao(Color pendente, Color falha) {
+        this.corPendente = pendente;
+        this.corFalha = falha;
+        tabela.repaint();
+    }
+    
+    private void registrarEdicao(int row, int col, Object anterior, Object novo) {
+        if (row < 0 || row >= itens.size() || Objects.equals(anterior, novo)) return;
+        T item = itens.get(row);
+        
+        if (!desfazendo) {
+            empilharDesfazer(Collections.singletonList(new Edicao<>(item, col, anterior, novo)));
+        }
+        if (gravador == null) return;
+        
+        anotarNoDiario(item, col, anterior, novo);
+        tabela.repaint();
+        agendarGravacao();
+    }
+    
+    private void empilharDesfazer(List<Edicao<T>> operacao) {
+        pilhaDesfazer.push(operacao);
+        if (pilhaDesfazer.size() > MAX_DESFAZER) pilhaDesfazer.removeLast();
+        pilhaRefazer.clear();
+    }
+    
+    /** Combina a edição com a pendente da mesma célula. */
+    private void anotarNoDiario(T item, int col, Object anterior, Object novo) {
+        Celula celula = new Celula(item, col);
+        Edicao<T> pendente = diario.get(celula);
+        if (pendente == null) {
+            diario.put(celula, new Edicao<>(item, col, anterior, novo));
+            contarPendencia(item, 1);
+        } else if (Objects.equals(pendente.valorAnterior, novo)) {
+            diario.remove(celula); // voltou ao valor gravado
+            contarPendencia(item, -1);
+        } else {
+            pendente.valorNovo = novo;
+        }
+        atualizarEstado(item);
+    }
+    
+    private void agendarGravacao() {
+        if (diario.size() >= tamanhoLote) {
+            salvar();
+        } else if (!diario.isEmpty() && !temporizadorGravacao.isRunning()
+                && !temporizadorNovaTentativa.isRunning()) {
+            temporizadorGravacao.start();
+        }
+    }
+    
+    private void concluirGravacao(List<Edicao<T>> lote, Exception erro) {
+        loteEmGravacao = null;
+        
+        if (erro != null) {
+            // Devolve o lote ao diário, antes das edições feitas durante a gravação
+            // (exceto as de itens removidos nesse meio tempo)
+            Map<Celula, Edicao<T>> novoDiario = new LinkedHashMap<>();
+            for (Edicao<T> edicao : lote) {
+                if (!removidosNaGravacao.contains(edicao.item)) {
+                    novoDiario.put(new Celula(edicao.item, edicao.coluna), edicao);
+                }
+            }
+            removidosNaGravacao.clear();
+            for (Map.Entry<Celula, Edicao<T>> entry : diario.entrySet()) {
+                Edicao<T> falhou = novoDiario.get(entry.getKey());
+                if (falhou == null) {
+                    novoDiario.put(entry.getKey(), entry.getValue());
+                } else if (Objects.equals(falhou.valorAnterior, entry.getValue().valorNovo)) {
+                    novoDiario.remove(entry.getKey());
+                    contarPendencia(falhou.item, -2);
+                } else {
+                    falhou.valorNovo = entry.getValue().valorNovo;
+                    contarPendencia(falhou.item, -1);
+                }
+            }
+            diario.clear();
+            diario.putAll(novoDiario);
+            for (Edicao<T> edicao : lote) {
+                if (temPendencia(edicao.item)) {
+                    estadoLinhas.put(edicao.item, EstadoGravacao.FALHA);
+                } else {
+                    estadoLinhas.remove(edicao.item);
+                }
+            }
+            tabela.repaint();
+            // Sem nova edição o diário ficaria parado: tenta de novo, esperando mais a cada falha
+            salvarAoTerminar = false;
+            if (!diario.isEmpty()) {
+                falhasSeguidas++;
+                long espera = (long) temporizadorGravacao.getInitialDelay() << Math.min(falhasSeguidas - 1, 16);
+                temporizadorNovaTentativa.setInitialDelay((int) Math.min(espera, ESPERA_MAXIMA_MS));
+                temporizadorNovaTentativa.restart();
+            }
+            notificarErro(erro);
+            return;
+        }
+        
+        falhasSeguidas = 0;
+        removidosNaGravacao.clear();
+        for (Edicao<T> edicao : lote) {
+            contarPendencia(edicao.item, -1);
+            estadoLinhas.remove(edicao.item);
+            atualizarEstado(edicao.item);
+        }
+        tabela.repaint();
+        if (salvarAoTerminar) {
+            salvarAoTerminar = false;
+            salvar();
+        } else if (!diario.isEmpty()) {
+            temporizadorGravacao.restart();
+        }
+    }
+    
+    private void atualizarEstado(Object item) {
+        if (temPendencia(item)) {
+            estadoLinhas.putIfAbsent(item, EstadoGravacao.PENDENTE);
+        } else {
+            estadoLinhas.remove(item);
+        }
+    }
+    
+    private boolean temPendencia(Object item) {
+        return pendenciasPorItem.containsKey(item);
+    }
+    
+    private void contarPendencia(Object item, int delta) {
+        // Item já descartado (removido durante a gravação): nada a descontar
+        pendenciasPorItem.computeIfPresent(item, (k, total) -> total + delta > 0 ? total + delta : null);
+        if (delta > 0) pendenciasPorItem.putIfAbsent(item, delta);
+    }
+    
+    private boolean temHistorico() {
+        return !diario.isEmpty() || loteEmGravacao != null || !estadoLinhas.isEmpty()
+                || !pilhaDesfazer.isEmpty() || !pilhaRefazer.isEmpty();
+    }
+    
+    /**
+     * Descarta as edições pendentes, o estado de gravação e o histórico de desfazer
+     * dos itens que saíram da tabela: o gravador não recebe edições de linhas removidas
+     * e desfazer não alcança um item novo com a mesma chave.
+     */
+    private void descartarRemovidos(Predicate<Object> removido) {
+        diario.keySet().removeIf(celula -> removido.test(celula.item));
+        pendenciasPorItem.keySet().removeIf(removido);
+        estadoLinhas.keySet().removeIf(removido);
+        if (loteEmGravacao != null) {
+            for (Edicao<T> edicao : loteEmGravacao) {
+                if (removido.test(edicao.item)) removidosNaGravacao.add(edicao.item);
+            }
+        }
+        filtrarHistorico(pilhaDesfazer, removido);
+        filtrarHistorico(pilhaRefazer, removido);
+        if (diario.isEmpty()) {
+            temporizadorGravacao.stop();
+            temporizadorNovaTentativa.stop();
+        }
+    }
+    
+    private void filtrarHistorico(Deque<List<Edicao<T>>> pilha, Predicate<Object> removido) {
+        List<List<Edicao<T>>> mantidas = new ArrayList<>(pilha.size());
+        boolean alterada = false;
+        for (List<Edicao<T>> operacao : pilha) {
+            List<Edicao<T>> resto = new ArrayList<>(operacao.size());
+            for (Edicao<T> edicao : operacao) {
+                if (!removido.test(edicao.item)) resto.add(edicao);
+            }
+            if (resto.size() == operacao.size()) {
+                mantidas.add(operacao);
+            } else {
+                alterada = true;
+                if (!resto.isEmpty()) mantidas.add(resto);
+            }
+        }
+        if (alterada) {
+            pilha.clear();
+            pilha.addAll(mantidas);
+        }
+    }
+    
+    private void notificarErro(Exception e) {
+        if (aoErro != null) {
+            aoErro.accept(e);
+        } else {
+            e.printStackTrace();
+        }
+    }
+    
+    // ==================== DESFAZER / REFAZER ====================
+    
+    /**
+     * Desfaz a última edição de célula.
+     * 
+     * @return false se não havia o que desfazer
+     */
+    public boolean desfazer() {
+        return aplicarHistorico(pilhaDesfazer, pilhaRefazer, true);
+    }
+    
+    /**
+     * Refaz a última edição desfeita.
+     * 
+     * @return false se não havia o que refazer
+     */
+    public boolean refazer() {
+        return aplicarHistorico(pilhaRefazer, pilhaDesfazer, false);
+    }
+    
+    public boolean podeDesfazer() {
+        return !pilhaDesfazer.isEmpty();
+    }
+    
+    public boolean podeRefazer() {
+        return !pilhaRefazer.isEmpty();
+    }
+    
+    private boolean aplicarHistorico(Deque<List<Edicao<T>>> origem, Deque<List<Edicao<T>>> destino, boolean voltar) {
+        if (tabela.isEditing()) {
+            tabela.getCellEditor().cancelCellEditing();
+        }
+        while (!origem.isEmpty()) {
+            List<Edicao<T>> operacao = origem.pop();
+            if (operacao.size() > 1) {
+                if (aplicarLote(operacao, voltar) == 0) continue;
+                destino.push(operacao);
+                return true;
+            }
+            
+            Edicao<T> edicao = operacao.get(0);
+            int row = linhaDe(edicao.item);
+            if (row < 0) continue; // item já removido
+            
+            // Passa pelo modelo: aoEditar aplica o valor e o diário registra a mudança
+            desfazendo = true;
+            try {
+                modeloTabela.setValueAt(voltar ? edicao.valorAnterior : edicao.valorNovo, row, edicao.coluna);
+            } finally {
+                desfazendo = false;
+            }
+            destino.push(operacao);
+            return true;
+        }
+        return false;
+    }
+    
+    // ==================== COLAR / PREENCHER ====================
+    
+    /**
+     * Define ação chamada uma vez com todas as células de um bloco colado,
+     * preenchido ou desfeito. Sem ela, {@code aoEditar} é chamado por célula.
+     */
+    public void setAoEditarLote(Consumer<List<Edicao<T>>> acao) {
+        this.aoEditarLote = acao;
+    }
+    
+    /**
+     * Define o tipo dos valores de uma coluna, usado para converter o texto colado.
+     * Sem tipo definido, é usado o tipo do primeiro valor não nulo da coluna
+     * (procurado uma vez e guardado até os dados da tabela mudarem).
+     */
+    public void setTipoColuna(int coluna, Class<?> tipo) {
+        tiposColuna.put(coluna, tipo);
+    }
+    
+    /**
+     * Cola o texto da área de transferência a partir da célula selecionada.
+     * As linhas e colunas seguem a ordem exibida (ordenação e colunas movidas).
+     */
+    public void colar() {
+        int linha = tabela.getSelectedRow();
+        int coluna = Math.max(0, tabela.getSelectedColumn());
+        if (linha < 0) return;
+        String texto;
+        try {
+            texto = (String) Toolkit.getDefaultToolkit().getSystemClipboard()
+                    .getData(DataFlavor.stringFlavor);
+        } catch (Exception e) {
+            return; // Área de transferência vazia ou sem texto
+        }
+        int[] linhas = new int[tabela.getRowCount() - linha];
+        for (int i = 0; i < linhas.length; i++) {
+            linhas[i] = tabela.convertRowIndexToModel(linha + i);
+        }
+        int[] colunas = new int[tabela.getColumnCount() - coluna];
+        for (int j = 0; j < colunas.length; j++) {
+            colunas[j] = tabela.convertColumnIndexToModel(coluna + j);
+        }
+        colar(texto, linhas, colunas);
+    }
+    
+    /**
+     * Cola texto separado por tabulação (linhas por quebra de linha) a partir da célula,
+     * em índices do modelo. A leitura e a conversão rodam fora da EDT; células de colunas
+     * não editáveis, fora da tabela ou com texto que não converte para o tipo da coluna
+     * são ignoradas.
+     */
+    public void colar(String texto, int linhaInicial, int colunaInicial) {
+        if (linhaInicial < 0 || colunaInicial < 0) return;
+        int[] linhas = new int[Math.max(0, itens.size() - linhaInicial)];
+        for (int i = 0; i < linhas.length; i++) {
+            linhas[i] = linhaInicial + i;
+        }
+        int[] colunas = new int[Math.max(0, modeloTabela.getColumnCount() - colunaInicial)];
+        for (int j = 0; j < colunas.length; j++) {
+            colunas[j] = colunaInicial + j;
+        }
+        colar(texto, linhas, colunas);
+    }
+    
+    /**
+     * Cola o bloco nas linhas e colunas do modelo indicadas, na ordem (uma por linha/coluna do texto).
+     */
+    private void colar(String texto, int[] linhas, int[] colunas) {
+        if (texto == null || texto.isEmpty()) return;
+        if (tabela.isEditing()) {
+            tabela.getCellEditor().cancelCellEditing();
+        }
+        // Tipos lidos na EDT, antes de sair dela
+        Class<?>[] tipos = new Class<?>[colunas.length];
+        for (int j = 0; j < colunas.length; j++) {
+            tipos[j] = tipoColuna(colunas[j]);
+        }
+        TarefaAssincrona.executar(() -> converterBloco(lerTsv(texto), tipos),
+                valores -> aplicarBloco(valores, linhas, colunas),
+                this::notificarErro);
+    }
+    
+    /**
+     * Preenche as linhas selecionadas com o valor da primeira, na coluna selecionada.
+     * Requer uma seleção de várias linhas, por exemplo com
+     * {@code getTabela().setSelectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION)}.
+     */
+    public void preencherAbaixo() {
+        preencherSelecao(false);
+    }
+    
+    /**
+     * Preenche as linhas selecionadas como série numérica: o passo é a diferença
+     * entre as duas primeiras linhas (ou 1, se forem iguais). Valores não numéricos são copiados.
+     * Assim como {@link #preencherAbaixo()}, requer uma seleção de várias linhas.
+     */
+    public void preencherSerie() {
+        preencherSelecao(true);
+    }
+    
+    /**
+     * Copia o valor de {@code linhaInicial} para as linhas até {@code linhaFinal} (índices do modelo).
+     */
+    public void preencherAbaixo(int coluna, int linhaInicial, int linhaFinal) {
+        preencher(coluna, intervalo(linhaInicial, linhaFinal), false);
+    }
+    
+    /**
+     * Preenche de {@code linhaInicial} até {@code linhaFinal} (índices do modelo) como série numérica.
+     */
+    public void preencherSerie(int coluna, int linhaInicial, int linhaFinal) {
+        preencher(coluna, intervalo(linhaInicial, linhaFinal), true);
+    }
+    
+    private static int[] intervalo(int inicio, int fim) {
+        if (inicio < 0 || fim < inicio) return new int[0];
+        int[] linhas = new int[fim - inicio + 1];
+        for (int i = 0; i < linhas.length; i++) {
+            linhas[i] = inicio + i;
+        }
+        return linhas;
+    }
+    
+    /**
+     * Preenche as linhas selecionadas na ordem exibida: com ordenação, linhas
+     * vizinhas na tela não são vizinhas no modelo.
+     */
+    private void preencherSelecao(boolean serie) {
+        int[] linhas = tabela.getSelectedRows();
+        int coluna = tabela.getSelectedColumn();
+        if (linhas.length < 2 || coluna < 0) return;
+        for (int i = 0; i < linhas.length; i++) {
+            linhas[i] = tabela.convertRowIndexToModel(linhas[i]);
+        }
+        preencher(tabela.convertColumnIndexToModel(coluna), linhas, serie);
+    }
+    
+    /**
+     * Preenche a coluna nas linhas do modelo indicadas, a partir do valor da primeira.
+     */
+    private void preencher(int coluna, int[] linhas, boolean serie) {
+        if (linhas.length < 2) return;
+        for (int linha : linhas) {
+            if (linha < 0 || linha >= itens.size()) return;
+        }
+        if (!modeloTabela.isCellEditable(linhas[0], coluna)) return;
+        if (tabela.isEditing()) {
+            tabela.getCellEditor().stopCellEditing();
+        }
+        Object base = modeloTabela.getValueAt(linhas[0], coluna);
+        Number passo = null;
+        int inicio = 1;
+        if (serie && base instanceof Number) {
+            Object segundo = modeloTabela.getValueAt(linhas[1], coluna);
+            if (segundo instanceof Number && linhas.length > 2
+                    && ((Number) segundo).doubleValue() != ((Number) base).doubleValue()) {
+                passo = subtrair((Number) segundo, (Number) base);
+                inicio = 2;
+            } else {
+                passo = 1;
+            }
+        }
+        
+        List<Edicao<T>> edicoes = new ArrayList<>(linhas.length - inicio);
+        for (int i = inicio; i < linhas.length; i++) {
+            int linha = linhas[i];
+            Object valor = passo != null
+                    ? somar((Number) base, passo, i)
+                    : base;
+            Object anterior = modeloTabela.getValueAt(linha, coluna);
+            if (!Objects.equals(anterior, valor)) {
+                edicoes.add(new Edicao<>(itens.get(linha), coluna, anterior, valor));
+            }
+        }
+        if (aplicarLote(edicoes, false) > 0) {
+            empilharDesfazer(edicoes);
+        }
+    }
+    
+    private void aplicarBloco(Object[][] valores, int[] linhas, int[] colunas) {
+        List<Edicao<T>> edicoes = new ArrayList<>();
+        for (int i = 0; i < valores.length && i < linhas.length; i++) {
+            int linha = linhas[i];
+            if (linha >= itens.size()) continue; // removida durante a conversão
+            for (int j = 0; j < valores[i].length && j < colunas.length; j++) {
+                int coluna = colunas[j];
+                Object valor = valores[i][j];
+                if (valor == INVALIDO || coluna >= modeloTabela.getColumnCount()
+                        || !modeloTabela.isCellEditable(linha, coluna)) continue;
+                Object anterior = modeloTabela.getValueAt(linha, coluna);
+                if (!Objects.equals(anterior, valor)) {
+                    edicoes.add(new Edicao<>(itens.get(linha), coluna, anterior, valor));
+                }
+            }
+        }
+        if (aplicarLote(edicoes, false) > 0) {
+            empilharDesfazer(edicoes);
+        }
+    }
+    
+    /**
+     * Aplica as edições (ou as desfaz, com {@code voltar}) com um único evento
+     * do modelo e um único callback.
+     * 
+     * @return quantas células foram alteradas
+     */
+    private int aplicarLote(List<Edicao<T>> edicoes, boolean voltar) {
+        if (edicoes.isEmpty()) return 0;
+        
+        int n = edicoes.size(), k = 0;
+        int[] linhas = new int[n];
+        int[] colunas = new int[n];
+        Object[] valores = new Object[n];
+        List<Edicao<T>> aplicadas = new ArrayList<>(n);
+        for (Edicao<T> edicao : edicoes) {
+            int linha = linhaDe(edicao.item);
+            if (linha < 0) continue; // item já removido
+            Edicao<T> aplicada = voltar
+                    ? new Edicao<>(edicao.item, edicao.coluna, edicao.valorNovo, edicao.valorAnterior)
+                    : edicao;
+            linhas[k] = linha;
+            colunas[k] = edicao.coluna;
+            valores[k] = aplicada.valorNovo;
+            k++;
+            aplicadas.add(aplicada);
+        }
+        if (k == 0) return 0;
+        
+        // Um evento de linhas: o listener de aoEditar por célula não dispara
+        modeloTabela.setValores(Arrays.copyOf(linhas, k), Arrays.copyOf(colunas, k), Arrays.copyOf(valores, k));
+        
+        if (aoEditarLote != null) {
+            aoEditarLote.accept(Collections.unmodifiableList(aplicadas));
+        } else if (aoEditar != null) {
+            for (Edicao<T> edicao : aplicadas) {
+                aoEditar.accept(edicao.item, edicao.coluna, edicao.valorNovo);
+            }
+        }
+        
+        if (gravador != null) {
+            for (Edicao<T> edicao : aplicadas) {
+                anotarNoDiario(edicao.item, edicao.coluna, edicao.valorAnterior, edicao.valorNovo);
+            }
+            agendarGravacao();
+        }
+        tabela.repaint();
+        return k;
+    }
+    
+    private Class<?> tipoColuna(int coluna) {
+        Class<?> tipo = tiposColuna.get(coluna);
+        if (tipo != null) return tipo;
+        if (!tiposDetectados.containsKey(coluna)) {
+            Class<?> detectado = null;
+            for (int linha = 0; linha < itens.size() && detectado == null; linha++) {
+                Object valor = modeloTabela.getValueAt(linha, coluna);
+                if (valor != null) detectado = valor.getClass();
+            }
+            tiposDetectados.put(coluna, detectado);
+        }
+        tipo = tiposDetectados.get(coluna);
+        return tipo != null ? tipo : String.class;
+    }
+    
+    /**
+     * Converte o bloco lido; {@code tipos[j]} é o tipo da coluna de destino da j-ésima coluna do texto.
+     */
+    static Object[][] converterBloco(List<String[]> linhas, Class<?>[] tipos) {
+        // Um formato por colagem: DecimalFormat não pode ser compartilhado entre threads
+        DecimalFormat formatoBr = new DecimalFormat("#,##0.###", new DecimalFormatSymbols(Locale.forLanguageTag("pt-BR")));
+        formatoBr.setParseBigDecimal(true);
+        Object[][] valores = new Object[linhas.size()][];
+        for (int i = 0; i < valores.length; i++) {
+            String[] campos = linhas.get(i);
+            valores[i] = new Object[campos.length];
+            for (int j = 0; j < campos.length; j++) {
+                valores[i][j] = j < tipos.length ? converterTexto(campos[j], tipos[j], formatoBr) : INVALIDO;
+            }
+        }
+        return valores;
+    }
+    
+    /**
+     * Converte o texto de uma célula para o tipo da coluna. Números aceitam
+     * o formato brasileiro (1.234,56 e 1.234) e o com ponto decimal (1.5);
+     * colunas inteiras rejeitam valores com casas decimais.
+     */
+    private static Object converterTexto(String texto, Class<?> tipo, DecimalFormat formatoBr) {
+        if (tipo == null || tipo == String.class || tipo == Object.class) return texto;
+        String t = texto.trim();
+        if (t.isEmpty()) return null;
+        try {
+            if (Number.class.isAssignableFrom(tipo)) {
+                t = t.replace("R$", "").replace(" ", "").replace("\u00A0", "");
+                BigDecimal numero;
+                if (t.indexOf(',') >= 0 || MILHAR_BR.matcher(t).matches()) {
+                    ParsePosition posicao = new ParsePosition(0);
+                    numero = (BigDecimal) formatoBr.parse(t, posicao);
+                    if (numero == null || posicao.getIndex() != t.length()) return INVALIDO;
+                } else {
+                    numero = new BigDecimal(t);
+                }
+                if (tipo == Integer.class) return numero.intValueExact();
+                if (tipo == Long.class) return numero.longValueExact();
+                if (tipo == Short.class) return numero.shortValueExact();
+                if (tipo == Byte.class) return numero.byteValueExact();
+                if (tipo == Float.class) return numero.floatValue();
+                if (tipo == BigDecimal.class) return numero;
+                return numero.doubleValue();
+            }
+            if (tipo == Boolean.class) {
+                String b = t.toLowerCase(Locale.ROOT);
+                if (b.equals("true") || b.equals("sim") || b.equals("s") || b.equals("1") || b.equals("verdadeiro")) return Boolean.TRUE;
+                if (b.equals("false") || b.equals("não") || b.equals("nao") || b.equals("n") || b.equals("0") || b.equals("falso")) return Boolean.FALSE;
+                return INVALIDO;
+            }
+            if (tipo == LocalDate.class) {
+                return t.indexOf('/') >= 0
+                        ? LocalDate.parse(t, DateTimeFormatter.ofPattern("dd/MM/yyyy"))
+                        : LocalDate.parse(t);
+            }
+        } catch (RuntimeException e) {
+            return INVALIDO;
+        }
+        return INVALIDO;
+    }
+    
+    /**
+     * Lê texto separado por tabulação, como o Excel copia: campos entre aspas
+     * podem conter tabulação, quebra de linha e aspas duplicadas.
+     */
+    static List<String[]> lerTsv(String texto) {
+        List<String[]> linhas = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (aspas) {
+                if (c == '"') {
+                    if (i + 1 < n && texto.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        aspas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                aspas = true;
+            } else if (c == '\t') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < n && texto.charAt(i + 1) == '\n') i++;
+                campos.add(campo.toString());
+                campo.setLength(0);
+                linhas.add(campos.toArray(new String[0]));
+                campos.clear();
+            } else {
+                campo.append(c);
+            }
+        }
+        // Última linha sem quebra no final
+        if (campo.length() > 0 || !campos.isEmpty()) {
+            campos.add(campo.toString());
+            linhas.add(campos.toArray(new String[0]));
+        }
+        return linhas;
+    }
+    
+    private static Number subtrair(Number a, Number b) {
+        if (a instanceof BigDecimal || b instanceof BigDecimal) {
+            return new BigDecimal(a.toString()).subtract(new BigDecimal(b.toString()));
+        }
+        if (ehInteiro(a) && ehInteiro(b)) return a.longValue() - b.longValue();
+        return a.doubleValue() - b.doubleValue();
+    }
+    
+    /** base + passo * vezes, no tipo de {@code base}. */
+    private static Number somar(Number base, Number passo, int vezes) {
+        if (base instanceof BigDecimal) {
+            return ((BigDecimal) base).add(new BigDecimal(passo.toString()).multiply(BigDecimal.valueOf(vezes)));
+        }
+        if (ehInteiro(base) && ehInteiro(passo)) {
+            long valor = base.longValue() + passo.longValue() * vezes;
+            if (base instanceof Integer) return (int) valor;
+            if (base instanceof Short) return (short) valor;
+            if (base instanceof Byte) return (byte) valor;
+            return valor;
+        }
+        double valor = base.doubleValue() + passo.doubleValue() * vezes;
+        return base instanceof Float ? (Number) (float) valor : (Number) valor;
+    }
+    
+    private static boolean ehInteiro(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+    
     /**
      * Define ação ao selecionar linha.
      */
@@ -208,8 +1141,10 @@ public class TabelaEditavel<T> extends JPanel {
      * Limpa a tabela.
      */
     public void limpar() {
-        itens.clear();
-        modeloTabela.setRowCount(0);
+        descartarRemovidos(item -> true);
+        itens = new ArrayList<>();
+        indice.limpar();
+        modeloTabela.referenciarItens(itens);
     }
     
     /**
@@ -233,4 +1168,27 @@ public class TabelaEditavel<T> extends JPanel {
         tabela.editCellAt(row, col);
         tabela.getEditorComponent().requestFocus();
     }
+    
+    /**
+     * Célula de um item (pela identidade do item).
+     */
+    private static final class Celula {
+        final Object item;
+        final int coluna;
+        
+        Celula(Object item, int coluna) {
+            this.item = item;
+            this.coluna = coluna;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Celula && ((Celula) o).item == item && ((Celula) o).coluna == coluna;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item) * 31 + coluna;
+        }
+    }
 }
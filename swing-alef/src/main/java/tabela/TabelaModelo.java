@@ -1,9 +1,20 @@
 package tabela;
 
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
  * TableModel genérico que elimina a necessidade de métodos toArray() nas classes de modelo.
@@ -48,6 +59,51 @@ import java.util.function.Function;
  * Cliente selecionado = modelo.getItem(tabela.getSelectedRow());
  * }</pre>
  * 
+ * <h3>Modo colunar (tabelas grandes somente leitura):</h3>
+ * <pre>{@code
+ * // Valores guardados em arrays primitivos; o objeto só é recriado em getItem()
+ * TabelaModelo<Venda> modelo = new TabelaModelo<Venda>()
+ *     .usarArmazenamentoColunar(l -> new Venda(l.getLong(0), l.getTexto(1), l.getDouble(2)));
+ * modelo.addColuna("ID", Venda::getId, long.class)
+ *       .addColunaDicionario("Filial", Venda::getFilial)
+ *       .addColuna("Valor", Venda::getValor, double.class);
+ * modelo.adicionarTodos(vendas);
+ * }</pre>
+ * 
+ * <h3>Cache de valores extraídos:</h3>
+ * <pre>{@code
+ * // Extratores caros (formatação, buscas) rodam uma vez por célula
+ * modelo.ativarCache(20_000); // no máximo 20 mil linhas em memória
+ * ...
+ * System.out.println(modelo.getAcertosCache() + " acertos / " + modelo.getFalhasCache() + " falhas");
+ * }</pre>
+ * 
+ * <h3>Acesso por chave:</h3>
+ * <pre>{@code
+ * TabelaModelo<Cliente> modelo = new TabelaModelo<>(Cliente::getId);
+ * modelo.atualizarPorChave(clienteRecebidoDoServidor); // O(1), sem indexOf
+ * modelo.removerPorChave(42);
+ * }</pre>
+ * 
+ * <h3>Alterações em lote:</h3>
+ * <pre>{@code
+ * // Milhares de alterações geram poucos eventos (ou um único fireTableDataChanged)
+ * modelo.lote(m -> {
+ *     for (Cliente c : alterados) m.atualizar(m.indexOf(c), c);
+ *     novos.forEach(m::adicionar);
+ * });
+ * }</pre>
+ * 
+ * <h3>Carga em segundo plano:</h3>
+ * <pre>{@code
+ * // Threads de trabalho publicam; a EDT insere em fatias de até 8 ms por quadro
+ * executor.submit(() -> {
+ *     try (ResultSet rs = stmt.executeQuery()) {
+ *         while (rs.next()) modelo.publicar(mapear(rs));
+ *     }
+ * });
+ * }</pre>
+ * 
  * <h3>Integração com GUI Builder:</h3>
  * <pre>{@code
  * public class CadastroCliente extends PainelCrud {
@@ -75,8 +131,24 @@ import java.util.function.Function;
  */
 public class TabelaModelo<T> extends AbstractTableModel {
     
-    private final List<T> dados = new ArrayList<>();
+    private List<T> dados = new ArrayList<>();
     private final List<ColunaConfig<T>> colunas = new ArrayList<>();
+    private ArmazenamentoColunar<T> colunar;
+    private CacheCelulas cache;
+    private final IndiceChaves<T> indiceChaves;
+    
+    /** Acima desta quantidade de eventos, um lote vira um único fireTableDataChanged. */
+    private static final int LIMITE_EVENTOS_LOTE = 32;
+    private LoteEventos lote;
+    private int profundidadeLote;
+    
+    /** Intervalo entre fatias de ingestão (um quadro a 60 Hz). */
+    private static final int INTERVALO_INGESTAO_MS = 16;
+    private final ConcurrentLinkedQueue<T> filaIngestao = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendentesIngestao = new AtomicInteger();
+    private final AtomicBoolean drenagemAgendada = new AtomicBoolean();
+    private volatile int orcamentoIngestaoMs = 8;
+    private Timer temporizadorIngestao;
     
     /**
      * Configuração de uma coluna.
@@ -85,18 +157,192 @@ public class TabelaModelo<T> extends AbstractTableModel {
         final String nome;
         final Function<T, ?> extrator;
         final Class<?> tipo;
+        final boolean dicionario;
         
-        ColunaConfig(String nome, Function<T, ?> extrator, Class<?> tipo) {
+        ColunaConfig(String nome, Function<T, ?> extrator, Class<?> tipo, boolean dicionario) {
             this.nome = nome;
             this.extrator = extrator;
             this.tipo = tipo;
+            this.dicionario = dicionario;
         }
     }
     
+    /**
+     * Acesso tipado aos valores de uma linha no modo colunar.
+     * Usado pelo materializador para recriar o objeto sem boxing.
+     * 
+     * @see #usarArmazenamentoColunar(Function)
+     */
+    public interface LinhaColunar {
+        int getInt(int coluna);
+        long getLong(int coluna);
+        double getDouble(int coluna);
+        boolean getBoolean(int coluna);
+        String getTexto(int coluna);
+        Object getValor(int coluna);
+    }
+    
     /**
      * Cria um modelo de tabela vazio.
      */
     public TabelaModelo() {
+        this.indiceChaves = null;
+    }
+    
+    /**
+     * Cria um modelo indexado por chave.
+     * 
+     * <p>Mantém um índice chave → linha que permite localizar, atualizar e remover
+     * itens pela chave sem percorrer a lista ({@link #getPorChave}, {@link #atualizarPorChave},
+     * {@link #removerPorChave}). {@link #indexOf} e {@link #remover(Object)} também passam
+     * a usar a chave. As chaves devem ser únicas.</p>
+     * 
+     * @param extratorChave Função que extrai a chave única do item
+     * 
+     * @example
+     * TabelaModelo<Cliente> modelo = new TabelaModelo<>(Cliente::getId);
+     */
+    public TabelaModelo(Function<T, ?> extratorChave) {
+        this.indiceChaves = extratorChave != null ? new IndiceChaves<>(extratorChave) : null;
+    }
+    
+    // ==================== MODO COLUNAR ====================
+    
+    /**
+     * Ativa o armazenamento colunar.
+     * 
+     * <p>Cada coluna passa a ser guardada em um array próprio: colunas declaradas com
+     * {@code int.class}, {@code long.class}, {@code double.class} ou {@code boolean.class}
+     * usam arrays primitivos, colunas de {@link #addColunaDicionario} guardam apenas
+     * o código do texto e as demais guardam o valor já extraído. Os extratores rodam
+     * uma vez por linha (na inserção/atualização) e {@code getValueAt} lê direto dos arrays.</p>
+     * 
+     * <p>Com materializador, os objetos originais não ficam em memória: {@link #getItem(int)}
+     * recria o objeto a partir dos valores das colunas (índices na ordem de {@code addColuna}).
+     * Com materializador {@code null}, os objetos são mantidos junto com as colunas.</p>
+     * 
+     * <p>Indicado para grades grandes somente leitura. Dados já existentes são migrados.
+     * Sem objetos mantidos, uma coluna adicionada depois dos dados é preenchida a partir
+     * dos objetos recriados (nos quais ela ainda lê 0/false/null), e {@link #limparColunas()}
+     * só é permitido sem linhas.</p>
+     * 
+     * @param materializador Função que recria o objeto a partir da linha (ou null)
+     * @return this para encadeamento
+     */
+    public TabelaModelo<T> usarArmazenamentoColunar(Function<LinhaColunar, T> materializador) {
+        List<T> atuais = dados;
+        colunar = new ArmazenamentoColunar<>(materializador);
+        for (ColunaConfig<T> coluna : colunas) {
+            colunar.adicionarColuna(coluna.extrator, coluna.tipo, coluna.dicionario);
+        }
+        colunar.addAll(atuais);
+        dados = colunar;
+        fireTableDataChanged();
+        return this;
+    }
+    
+    /**
+     * Copia os valores de uma coluna primitiva do modo colunar, sem boxing.
+     * 
+     * @param coluna Índice da coluna
+     * @return {@code long[]} (int, long, boolean) ou {@code double[]}, ou null fora do
+     *         modo colunar e para colunas não primitivas
+     */
+    Object copiarColunaPrimitiva(int coluna) {
+        if (colunar == null || coluna < 0 || coluna >= colunas.size()) return null;
+        return colunar.copiarPrimitivos(coluna);
+    }
+    
+    /**
+     * Verifica se o modelo usa armazenamento colunar.
+     * 
+     * @return true se o modo colunar está ativo
+     */
+    public boolean isColunar() {
+        return colunar != null;
+    }
+    
+    // ==================== CACHE DE VALORES ====================
+    
+    /**
+     * Ativa o cache de valores extraídos com limite padrão de 10.000 linhas.
+     * 
+     * @return this para encadeamento
+     * @see #ativarCache(int)
+     */
+    public TabelaModelo<T> ativarCache() {
+        return ativarCache(10_000);
+    }
+    
+    /**
+     * Ativa o cache de valores extraídos.
+     * 
+     * <p>Cada célula tem o extrator executado uma única vez; repinturas, rolagem e
+     * comparações de ordenação passam a ler o valor em cache. O cache é invalidado
+     * por linha em {@link #atualizar}, {@link #remover(int)} e {@link #setDados}, e por
+     * coluna em {@link #addColuna} e {@link #limparColunas()}. Se o objeto for alterado
+     * por fora, chame {@link #atualizar} ou {@link #invalidarCache(int)}.</p>
+     * 
+     * <p>Ao atingir {@code maxLinhas}, as linhas acessadas há mais tempo são descartadas.
+     * No modo colunar o cache não é usado, pois os valores já ficam armazenados.</p>
+     * 
+     * @param maxLinhas Quantidade máxima de linhas mantidas em cache
+     * @return this para encadeamento
+     */
+    public TabelaModelo<T> ativarCache(int maxLinhas) {
+        cache = new CacheCelulas(maxLinhas);
+        return this;
+    }
+    
+    /**
+     * Desativa e descarta o cache de valores.
+     * 
+     * @return this para encadeamento
+     */
+    public TabelaModelo<T> desativarCache() {
+        cache = null;
+        return this;
+    }
+    
+    /**
+     * Descarta todos os valores em cache.
+     */
+    public void invalidarCache() {
+        if (cache != null) cache.limpar();
+    }
+    
+    /**
+     * Descarta os valores em cache de uma linha.
+     * 
+     * @param linha Índice da linha
+     */
+    public void invalidarCache(int linha) {
+        if (cache != null) cache.invalidarLinha(linha);
+    }
+    
+    /**
+     * Retorna quantas leituras foram atendidas pelo cache.
+     * 
+     * @return Número de acertos (0 se o cache está desativado)
+     */
+    public long getAcertosCache() {
+        return cache != null ? cache.getAcertos() : 0;
+    }
+    
+    /**
+     * Retorna quantas leituras precisaram executar o extrator.
+     * 
+     * @return Número de falhas (0 se o cache está desativado)
+     */
+    public long getFalhasCache() {
+        return cache != null ? cache.getFalhas() : 0;
+    }
+    
+    /**
+     * Zera os contadores de acertos e falhas do cache.
+     */
+    public void zerarEstatisticasCache() {
+        if (cache != null) cache.zerarEstatisticas();
     }
     
     // ==================== CONFIGURAÇÃO DE COLUNAS ====================
@@ -118,6 +364,8 @@ public class TabelaModelo<T> extends AbstractTableModel {
     /**
      * Adiciona uma coluna com tipo específico.
      * Útil para renderização especial (ex: Boolean mostra checkbox).
+     * Tipos primitivos ({@code int.class}, {@code long.class}, {@code double.class},
+     * {@code boolean.class}) são guardados em arrays primitivos no modo colunar.
      * 
      * @param nome Nome da coluna
      * @param extrator Função extratora
@@ -128,7 +376,35 @@ public class TabelaModelo<T> extends AbstractTableModel {
      * modelo.addColuna("Ativo", Cliente::isAtivo, Boolean.class);
      */
     public TabelaModelo<T> addColuna(String nome, Function<T, ?> extrator, Class<?> tipo) {
-        colunas.add(new ColunaConfig<>(nome, extrator, tipo));
+        return adicionarColuna(new ColunaConfig<>(nome, extrator, tipo, false));
+    }
+    
+    /**
+     * Adiciona uma coluna de texto codificada por dicionário.
+     * No modo colunar cada linha guarda apenas o código do texto, ideal para
+     * colunas com poucos valores distintos (cidade, status, categoria).
+     * Fora do modo colunar funciona como uma coluna de texto comum.
+     * 
+     * @param nome Nome da coluna
+     * @param extrator Função extratora
+     * @return this para encadeamento
+     * 
+     * @example
+     * modelo.addColunaDicionario("Cidade", Cliente::getCidade);
+     */
+    public TabelaModelo<T> addColunaDicionario(String nome, Function<T, String> extrator) {
+        return adicionarColuna(new ColunaConfig<>(nome, extrator, String.class, true));
+    }
+    
+    private TabelaModelo<T> adicionarColuna(ColunaConfig<T> coluna) {
+        // Armazenamento primeiro: se o extrator falhar, a coluna não fica só na configuração
+        if (colunar != null) {
+            colunar.adicionarColuna(coluna.extrator, coluna.tipo, coluna.dicionario);
+        }
+        colunas.add(coluna);
+        if (cache != null) {
+            cache.invalidarColuna(colunas.size() - 1);
+        }
         fireTableStructureChanged();
         return this;
     }
@@ -137,9 +413,17 @@ public class TabelaModelo<T> extends AbstractTableModel {
      * Remove todas as colunas configuradas.
      * 
      * @return this para encadeamento
+     * @throws IllegalStateException no modo colunar com materializador, se houver linhas
+     *         (os valores das colunas são a única cópia dos dados; chame {@link #limpar()} antes)
      */
     public TabelaModelo<T> limparColunas() {
+        if (colunar != null) {
+            colunar.limparColunas();
+        }
         colunas.clear();
+        if (cache != null) {
+            cache.limpar();
+        }
         fireTableStructureChanged();
         return this;
     }
@@ -154,6 +438,9 @@ public class TabelaModelo<T> extends AbstractTableModel {
     public void adicionar(T item) {
         dados.add(item);
         int linha = dados.size() - 1;
+        if (indiceChaves != null) {
+            indiceChaves.adicionado(linha, item);
+        }
         fireTableRowsInserted(linha, linha);
     }
     
@@ -167,6 +454,11 @@ public class TabelaModelo<T> extends AbstractTableModel {
         int primeiraLinha = dados.size();
         dados.addAll(itens);
         int ultimaLinha = dados.size() - 1;
+        if (indiceChaves != null) {
+            for (int i = 0; i < itens.size(); i++) {
+                indiceChaves.adicionado(primeiraLinha + i, itens.get(i));
+            }
+        }
         fireTableRowsInserted(primeiraLinha, ultimaLinha);
     }
     
@@ -179,6 +471,12 @@ public class TabelaModelo<T> extends AbstractTableModel {
     public T remover(int linha) {
         if (linha < 0 || linha >= dados.size()) return null;
         T removido = dados.remove(linha);
+        if (indiceChaves != null) {
+            indiceChaves.removido(linha, removido);
+        }
+        if (cache != null) {
+            cache.removerLinhas(linha, linha);
+        }
         fireTableRowsDeleted(linha, linha);
         return removido;
     }
@@ -190,7 +488,7 @@ public class TabelaModelo<T> extends AbstractTableModel {
      * @return true se removido
      */
     public boolean remover(T item) {
-        int indice = dados.indexOf(item);
+        int indice = indexOf(item);
         if (indice >= 0) {
             remover(indice);
             return true;
@@ -206,17 +504,31 @@ public class TabelaModelo<T> extends AbstractTableModel {
      */
     public void atualizar(int linha, T item) {
         if (linha < 0 || linha >= dados.size()) return;
-        dados.set(linha, item);
+        T anterior = dados.set(linha, item);
+        if (indiceChaves != null) {
+            indiceChaves.atualizado(linha, anterior, item);
+        }
+        if (cache != null) {
+            cache.invalidarLinha(linha);
+        }
         fireTableRowsUpdated(linha, linha);
     }
     
     /**
      * Limpa todos os dados da tabela.
+     * Itens publicados ({@link #publicar}) que ainda aguardavam inserção são descartados.
      */
     public void limpar() {
+        descartarFila();
         int tamanho = dados.size();
         if (tamanho > 0) {
             dados.clear();
+            if (indiceChaves != null) {
+                indiceChaves.limpar();
+            }
+            if (cache != null) {
+                cache.limpar();
+            }
             fireTableRowsDeleted(0, tamanho - 1);
         }
     }
@@ -224,15 +536,434 @@ public class TabelaModelo<T> extends AbstractTableModel {
     /**
      * Substitui todos os dados da tabela.
      * 
+     * <p>Em modelos com chave ({@link #TabelaModelo(Function)}), compara a lista atual
+     * com a nova pelas chaves e dispara apenas as remoções, inserções e atualizações
+     * necessárias, preservando seleção e rolagem. O item da lista nova sempre substitui
+     * o antigo de mesma chave, mas a linha só é notificada como alterada quando algum
+     * valor de coluna muda ({@code equals} de entidades costuma comparar só o ID). Se as diferenças
+     * forem muito fragmentadas, a troca é feita de uma vez com {@code fireTableDataChanged}.</p>
+     * 
+     * <p>Itens publicados que ainda aguardavam inserção são descartados.</p>
+     * 
      * @param novosItens Nova lista de objetos
      */
     public void setDados(List<T> novosItens) {
+        descartarFila();
+        if (indiceChaves != null && novosItens != null && !dados.isEmpty()) {
+            setDadosPorDiferenca(novosItens);
+            return;
+        }
         limpar();
         if (novosItens != null) {
             adicionarTodos(novosItens);
         }
     }
     
+    /**
+     * Aplica a nova lista disparando só os eventos das diferenças.
+     * Custo linear quando a ordem das chaves mantidas não muda;
+     * caso contrário, itens fora da maior subsequência crescente são movidos.
+     */
+    private void setDadosPorDiferenca(List<T> novos) {
+        int total = dados.size();
+        int novoTotal = novos.size();
+        
+        // Linha antiga de cada novo item (-1 = inserido)
+        int[] origem = new int[novoTotal];
+        BitSet mantidas = new BitSet(total);
+        boolean mesmaOrdem = true;
+        int ultimaOrigem = -1;
+        for (int j = 0; j < novoTotal; j++) {
+            int i = indiceChaves.linhaDe(indiceChaves.chave(novos.get(j)), dados);
+            if (i >= 0 && mantidas.get(i)) i = -1; // chave repetida na nova lista
+            origem[j] = i;
+            if (i >= 0) {
+                mantidas.set(i);
+                if (i < ultimaOrigem) mesmaOrdem = false;
+                ultimaOrigem = i;
+            }
+        }
+        if (!mesmaOrdem) {
+            manterSubsequenciaCrescente(origem, mantidas);
+        }
+        
+        BitSet atualizadas = new BitSet(novoTotal);
+        for (int j = 0; j < novoTotal; j++) {
+            if (origem[j] >= 0 && valoresAlterados(origem[j], novos.get(j))) {
+                atualizadas.set(j);
+            }
+        }
+        
+        int intervalos = contarIntervalosRemovidos(mantidas, total)
+                + contarIntervalosInseridos(origem)
+                + contarIntervalos(atualizadas);
+        if (intervalos > LIMITE_EVENTOS_LOTE) {
+            dados.clear();
+            dados.addAll(novos);
+            indiceChaves.invalidar();
+            if (cache != null) cache.limpar();
+            fireTableDataChanged();
+            return;
+        }
+        
+        boolean estruturaMudou = mantidas.cardinality() != total || novoTotal != total;
+        if (estruturaMudou) {
+            indiceChaves.invalidar();
+        }
+        
+        // Remoções de baixo para cima: os índices antigos acima já foram tratados
+        int fim = total;
+        while (fim > 0) {
+            int ultima = mantidas.previousClearBit(fim - 1);
+            if (ultima < 0) break;
+            int primeira = mantidas.previousSetBit(ultima) + 1;
+            dados.subList(primeira, ultima + 1).clear();
+            if (cache != null) cache.removerLinhas(primeira, ultima);
+            fireTableRowsDeleted(primeira, ultima);
+            fim = primeira;
+        }
+        
+        // Inserções de cima para baixo, já nos índices finais
+        for (int j = 0; j < novoTotal; ) {
+            if (origem[j] >= 0) {
+                j++;
+                continue;
+            }
+            int primeira = j;
+            while (j < novoTotal && origem[j] < 0) j++;
+            dados.addAll(primeira, novos.subList(primeira, j));
+            if (cache != null) cache.inserirLinhas(primeira, j - 1);
+            fireTableRowsInserted(primeira, j - 1);
+        }
+        
+        // Mantidos sem alteração visível: guarda a instância nova sem evento
+        for (int j = 0; j < novoTotal; j++) {
+            if (origem[j] >= 0 && !atualizadas.get(j)) {
+                dados.set(j, novos.get(j));
+            }
+        }
+        
+        // Atualizações nos índices finais
+        for (int j = atualizadas.nextSetBit(0); j >= 0; ) {
+            int ate = atualizadas.nextClearBit(j);
+            for (int k = j; k < ate; k++) {
+                dados.set(k, novos.get(k));
+                if (cache != null) cache.invalidarLinha(k);
+            }
+            fireTableRowsUpdated(j, ate - 1);
+            j = atualizadas.nextSetBit(ate);
+        }
+    }
+    
+    /**
+     * Compara os valores exibidos da linha com os extraídos do novo item.
+     */
+    private boolean valoresAlterados(int linha, T novo) {
+        for (int c = 0; c < colunas.size(); c++) {
+            if (!Objects.equals(getValueAt(linha, c), colunas.get(c).extrator.apply(novo))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Mantém apenas os itens que formam a maior subsequência crescente de linhas
+     * antigas; os demais passam a ser tratados como removidos e reinseridos.
+     */
+    private static void manterSubsequenciaCrescente(int[] origem, BitSet mantidas) {
+        int n = origem.length;
+        int[] finais = new int[n];      // índice j do menor final de cada comprimento
+        int[] anterior = new int[n];
+        int comprimento = 0;
+        for (int j = 0; j < n; j++) {
+            if (origem[j] < 0) continue;
+            int baixo = 0, alto = comprimento;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (origem[finais[meio]] < origem[j]) baixo = meio + 1;
+                else alto = meio;
+            }
+            anterior[j] = baixo > 0 ? finais[baixo - 1] : -1;
+            finais[baixo] = j;
+            if (baixo == comprimento) comprimento++;
+        }
+        BitSet naSequencia = new BitSet(n);
+        for (int j = comprimento > 0 ? finais[comprimento - 1] : -1; j >= 0; j = anterior[j]) {
+            naSequencia.set(j);
+        }
+        for (int j = 0; j < n; j++) {
+            if (origem[j] >= 0 && !naSequencia.get(j)) {
+                mantidas.clear(origem[j]);
+                origem[j] = -1;
+            }
+        }
+    }
+    
+    private static int contarIntervalosRemovidos(BitSet mantidas, int total) {
+        int intervalos = 0;
+        for (int i = mantidas.nextClearBit(0); i < total; ) {
+            intervalos++;
+            int fim = mantidas.nextSetBit(i);
+            if (fim < 0) break;
+            i = mantidas.nextClearBit(fim);
+        }
+        return intervalos;
+    }
+    
+    private static int contarIntervalosInseridos(int[] origem) {
+        int intervalos = 0;
+        for (int j = 0; j < origem.length; j++) {
+            if (origem[j] < 0 && (j == 0 || origem[j - 1] >= 0)) intervalos++;
+        }
+        return intervalos;
+    }
+    
+    private static int contarIntervalos(BitSet linhas) {
+        int intervalos = 0;
+        for (int i = linhas.nextSetBit(0); i >= 0; i = linhas.nextSetBit(linhas.nextClearBit(i))) {
+            intervalos++;
+        }
+        return intervalos;
+    }
+    
+    // ==================== INGESTÃO CONCORRENTE ====================
+    
+    /**
+     * Publica um item para inserção no final da tabela.
+     * 
+     * <p>Pode ser chamado de qualquer thread, inclusive por várias ao mesmo tempo.
+     * Os itens entram em uma fila sem bloqueio e são inseridos na EDT em fatias
+     * limitadas por tempo ({@link #setOrcamentoIngestaoMs}), com um único evento de
+     * inserção por fatia. As primeiras linhas aparecem enquanto a carga continua.</p>
+     * 
+     * @param item Objeto a inserir
+     */
+    public void publicar(T item) {
+        filaIngestao.add(item);
+        pendentesIngestao.incrementAndGet();
+        agendarDrenagem();
+    }
+    
+    /**
+     * Publica vários itens para inserção no final da tabela.
+     * Pode ser chamado de qualquer thread.
+     * 
+     * @param itens Objetos a inserir
+     * @see #publicar(Object)
+     */
+    public void publicarTodos(Collection<? extends T> itens) {
+        if (itens == null || itens.isEmpty()) return;
+        filaIngestao.addAll(itens);
+        pendentesIngestao.addAndGet(itens.size());
+        agendarDrenagem();
+    }
+    
+    /**
+     * Retorna quantos itens publicados ainda aguardam inserção.
+     * 
+     * @return Quantidade de itens na fila
+     */
+    public int getPendentesIngestao() {
+        return pendentesIngestao.get();
+    }
+    
+    /**
+     * Define o tempo máximo gasto na EDT por fatia de ingestão.
+     * 
+     * @param milissegundos Orçamento por quadro (padrão: 8 ms)
+     */
+    public void setOrcamentoIngestaoMs(int milissegundos) {
+        this.orcamentoIngestaoMs = Math.max(1, milissegundos);
+    }
+    
+    /**
+     * Descarta os itens publicados ainda não inseridos, para que não reapareçam
+     * depois de uma limpeza ou troca de dados. Publicações posteriores seguem normalmente.
+     */
+    private void descartarFila() {
+        int descartados = 0;
+        while (filaIngestao.poll() != null) {
+            descartados++;
+        }
+        if (descartados > 0) {
+            pendentesIngestao.addAndGet(-descartados);
+        }
+    }
+    
+    private void agendarDrenagem() {
+        if (drenagemAgendada.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drenarFila);
+        }
+    }
+    
+    /**
+     * Insere itens da fila até esgotar o orçamento da fatia (EDT).
+     */
+    private void drenarFila() {
+        long limite = System.nanoTime() + orcamentoIngestaoMs * 1_000_000L;
+        int primeira = dados.size();
+        int inseridos = 0;
+        T item;
+        while ((item = filaIngestao.poll()) != null) {
+            dados.add(item);
+            if (indiceChaves != null) {
+                indiceChaves.adicionado(primeira + inseridos, item);
+            }
+            inseridos++;
+            if ((inseridos & 63) == 0 && System.nanoTime() >= limite) break;
+        }
+        if (inseridos > 0) {
+            pendentesIngestao.addAndGet(-inseridos);
+            fireTableRowsInserted(primeira, primeira + inseridos - 1);
+        }
+        
+        if (!filaIngestao.isEmpty()) {
+            // Próxima fatia no próximo quadro, deixando a EDT pintar e tratar entrada
+            if (temporizadorIngestao == null) {
+                temporizadorIngestao = new Timer(INTERVALO_INGESTAO_MS, e -> drenarFila());
+                temporizadorIngestao.setRepeats(false);
+            }
+            temporizadorIngestao.restart();
+            return;
+        }
+        drenagemAgendada.set(false);
+        // Um produtor pode ter publicado entre o último poll e a liberação
+        if (!filaIngestao.isEmpty()) {
+            agendarDrenagem();
+        }
+    }
+    
+    // ==================== ACESSO POR CHAVE ====================
+    
+    /**
+     * Obtém a linha do item com a chave informada.
+     * Requer o construtor {@link #TabelaModelo(Function)}.
+     * 
+     * @param chave Chave do item
+     * @return Índice da linha ou -1 se não encontrado (ou modelo sem chave)
+     */
+    public int getLinhaPorChave(Object chave) {
+        if (indiceChaves == null) return -1;
+        return indiceChaves.linhaDe(chave, dados);
+    }
+    
+    /**
+     * Obtém o item com a chave informada.
+     * 
+     * @param chave Chave do item
+     * @return O item ou null se não encontrado
+     */
+    public T getPorChave(Object chave) {
+        return getItem(getLinhaPorChave(chave));
+    }
+    
+    /**
+     * Substitui o item que tem a mesma chave do item informado.
+     * 
+     * @param item Novo objeto (a chave é extraída dele)
+     * @return true se um item com a chave foi encontrado e atualizado
+     */
+    public boolean atualizarPorChave(T item) {
+        if (indiceChaves == null) return false;
+        int linha = getLinhaPorChave(indiceChaves.chave(item));
+        if (linha < 0) return false;
+        atualizar(linha, item);
+        return true;
+    }
+    
+    /**
+     * Remove o item com a chave informada.
+     * 
+     * @param chave Chave do item
+     * @return O item removido ou null se não encontrado
+     */
+    public T removerPorChave(Object chave) {
+        int linha = getLinhaPorChave(chave);
+        return linha >= 0 ? remover(linha) : null;
+    }
+    
+    // ==================== LOTE ====================
+    
+    /**
+     * Executa várias alterações como um lote, disparando os eventos só no final.
+     * 
+     * <p>Inserções, atualizações e remoções feitas dentro do lote são aplicadas
+     * imediatamente nos dados, mas os eventos são acumulados e unidos no menor
+     * conjunto de intervalos possível. Como os eventos saem com os dados já no estado
+     * final, o lote só gera eventos de inserção/remoção quando o efeito líquido é um
+     * único intervalo inserido ou removido; misturas de inserções e remoções, ou
+     * alterações muito fragmentadas, disparam um único {@code fireTableDataChanged}.</p>
+     * 
+     * @param operacoes Alterações a executar sobre este modelo
+     * 
+     * @example
+     * modelo.lote(m -> alterados.forEach(c -> m.atualizar(m.indexOf(c), c)));
+     */
+    public void lote(Consumer<TabelaModelo<T>> operacoes) {
+        iniciarLote();
+        try {
+            operacoes.accept(this);
+        } finally {
+            confirmarLote();
+        }
+    }
+    
+    /**
+     * Inicia um lote de alterações. Deve ser seguido de {@link #confirmarLote()},
+     * de preferência em um bloco {@code finally}. Lotes podem ser aninhados;
+     * os eventos são disparados ao confirmar o lote mais externo.
+     */
+    public void iniciarLote() {
+        if (profundidadeLote++ == 0) {
+            lote = new LoteEventos(getRowCount());
+        }
+    }
+    
+    /**
+     * Confirma o lote atual, disparando os eventos acumulados.
+     */
+    public void confirmarLote() {
+        if (profundidadeLote == 0) return;
+        if (--profundidadeLote > 0) return;
+        
+        LoteEventos concluido = lote;
+        lote = null;
+        if (concluido.isEstruturaAlterada()) {
+            fireTableStructureChanged();
+            return;
+        }
+        List<TableModelEvent> eventos = concluido.gerarEventos(this, LIMITE_EVENTOS_LOTE);
+        if (eventos == null) {
+            fireTableDataChanged();
+            return;
+        }
+        for (TableModelEvent evento : eventos) {
+            super.fireTableChanged(evento);
+        }
+    }
+    
+    /**
+     * Verifica se há um lote em andamento.
+     * 
+     * @return true se os eventos estão sendo acumulados
+     */
+    public boolean isEmLote() {
+        return lote != null;
+    }
+    
+    /**
+     * Durante um lote, acumula o evento em vez de notificar os listeners.
+     */
+    @Override
+    public void fireTableChanged(TableModelEvent e) {
+        if (lote != null) {
+            lote.registrar(e);
+            return;
+        }
+        super.fireTableChanged(e);
+    }
+    
     // ==================== ACESSO AOS DADOS ====================
     
     /**
@@ -257,14 +988,42 @@ public class TabelaModelo<T> extends AbstractTableModel {
     
     /**
      * Encontra o índice de um item.
+     * Em modelos com chave, localiza pela chave do item sem percorrer a lista.
      * 
      * @param item Objeto a procurar
      * @return Índice ou -1 se não encontrado
      */
     public int indexOf(T item) {
+        if (indiceChaves != null) {
+            return item != null ? indiceChaves.linhaDe(indiceChaves.chave(item), dados) : -1;
+        }
         return dados.indexOf(item);
     }
     
+    /**
+     * Guarda (na EDT) as referências dos itens e os extratores atuais, para que os
+     * valores das linhas sejam extraídos depois em outra thread, sem tocar no modelo.
+     * Usado pelo {@link FiltroTexto} assíncrono.
+     * 
+     * @return Leitor linha → valores das colunas, ou null no modo colunar
+     */
+    IntFunction<Object[]> leitorInstantaneo() {
+        if (colunar != null) return null;
+        List<T> itens = new ArrayList<>(dados);
+        List<Function<T, ?>> extratores = new ArrayList<>(colunas.size());
+        for (ColunaConfig<T> coluna : colunas) {
+            extratores.add(coluna.extrator);
+        }
+        return linha -> {
+            T item = itens.get(linha);
+            Object[] valores = new Object[extratores.size()];
+            for (int c = 0; c < valores.length; c++) {
+                valores[c] = extratores.get(c).apply(item);
+            }
+            return valores;
+        };
+    }
+    
     // ==================== IMPLEMENTAÇÃO AbstractTableModel ====================
     
     @Override
@@ -286,7 +1045,20 @@ public class TabelaModelo<T> extends AbstractTableModel {
     @Override
     public Class<?> getColumnClass(int columnIndex) {
         if (columnIndex < 0 || columnIndex >= colunas.size()) return Object.class;
-        return colunas.get(columnIndex).tipo;
+        Class<?> tipo = colunas.get(columnIndex).tipo;
+        return tipo.isPrimitive() ? classeObjeto(tipo) : tipo;
+    }
+    
+    private static Class<?> classeObjeto(Class<?> primitivo) {
+        if (primitivo == int.class) return Integer.class;
+        if (primitivo == long.class) return Long.class;
+        if (primitivo == double.class) return Double.class;
+        if (primitivo == boolean.class) return Boolean.class;
+        if (primitivo == float.class) return Float.class;
+        if (primitivo == short.class) return Short.class;
+        if (primitivo == byte.class) return Byte.class;
+        if (primitivo == char.class) return Character.class;
+        return Object.class;
     }
     
     @Override
@@ -294,6 +1066,20 @@ public class TabelaModelo<T> extends AbstractTableModel {
         if (rowIndex < 0 || rowIndex >= dados.size()) return null;
         if (columnIndex < 0 || columnIndex >= colunas.size()) return null;
         
+        if (colunar != null) {
+            return colunar.getValor(rowIndex, columnIndex);
+        }
+        
+        if (cache != null) {
+            Object valor = cache.get(rowIndex, columnIndex);
+            if (valor != CacheCelulas.NAO_CALCULADO) {
+                return valor;
+            }
+            valor = colunas.get(columnIndex).extrator.apply(dados.get(rowIndex));
+            cache.put(rowIndex, columnIndex, colunas.size(), valor);
+            return valor;
+        }
+        
         T item = dados.get(rowIndex);
         Function<T, ?> extrator = colunas.get(columnIndex).extrator;
         return extrator.apply(item);
@@ -0,0 +1,317 @@
+package tabela;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * TableModel que referencia os itens diretamente e converte cada linha sob demanda
+ * com um {@code Function<T, Object[]>}.
+ *
+ * <p>Substitui o {@code DefaultTableModel} nos componentes que trabalham com conversor
+ * (TabelaPaginada, TabelaAgrupada, TabelaEditavel, DialogoBusca). Não guarda um
+ * {@code Object[]}/{@code Vector} por linha: só as linhas convertidas recentemente
+ * ficam em um pequeno cache. Trocar os itens dispara um único evento, em vez de um
+ * {@code addRow} por item.</p>
+ *
+ * <p>Valores editados na tabela ficam guardados por item até a linha ser
+ * {@link #atualizarLinha atualizada} ou os itens serem trocados, de modo que a célula
+ * continua mostrando o valor digitado mesmo que o item não seja alterado.</p>
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * TabelaModeloConversor<Cliente> modelo = new TabelaModeloConversor<>();
+ * modelo.setColunas("ID", "Nome", "Email");
+ * modelo.setConversor(c -> new Object[]{c.getId(), c.getNome(), c.getEmail()});
+ * modelo.setItens(clientes);
+ * JTable tabela = new JTable(modelo);
+ * }</pre>
+ *
+ * @param <T> Tipo do objeto de cada linha
+ * @author alefi
+ * @since 2.1
+ */
+public class TabelaModeloConversor<T> extends AbstractTableModel {
+
+    private static final int TAMANHO_CACHE = 256;
+    private static final Object NAO_EDITADO = new Object();
+
+    private String[] colunas = {};
+    private Function<T, Object[]> conversor;
+    private IntPredicate colunaEditavel = c -> false;
+    private List<T> itens = new ArrayList<>();
+
+    /** Cache de mapeamento direto: posição (linha % tamanho) → linha convertida. */
+    private final Object[][] cacheLinhas = new Object[TAMANHO_CACHE][];
+    private final int[] cacheIndices = new int[TAMANHO_CACHE];
+    /** Valores digitados, por item (identidade), com {@link #NAO_EDITADO} nas demais colunas. */
+    private final Map<T, Object[]> editados = new IdentityHashMap<>();
+
+    /**
+     * Cria um modelo vazio.
+     */
+    public TabelaModeloConversor() {
+        Arrays.fill(cacheIndices, -1);
+    }
+
+    // ==================== CONFIGURAÇÃO ====================
+
+    /**
+     * Define as colunas da tabela.
+     *
+     * @param colunas Nomes das colunas
+     */
+    public void setColunas(String... colunas) {
+        this.colunas = colunas != null ? colunas : new String[0];
+        invalidarCache();
+        fireTableStructureChanged();
+    }
+
+    /**
+     * Define o conversor de item para linha. Sem conversor, a primeira
+     * coluna mostra {@code toString()} do item.
+     *
+     * @param conversor Função item → valores das colunas
+     */
+    public void setConversor(Function<T, Object[]> conversor) {
+        this.conversor = conversor;
+        invalidarCache();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Define quais colunas podem ser editadas.
+     *
+     * @param editavel Teste do índice da coluna
+     */
+    public void setColunaEditavel(IntPredicate editavel) {
+        this.colunaEditavel = editavel != null ? editavel : c -> false;
+    }
+
+    // ==================== ITENS ====================
+
+    /**
+     * Troca todos os itens, com um único evento. A lista é copiada:
+     * alterações posteriores feitas pelo chamador não são vistas.
+     *
+     * @param itens Novos itens
+     */
+    public void setItens(List<T> itens) {
+        referenciarItens(itens != null ? new ArrayList<>(itens) : new ArrayList<>());
+    }
+
+    /**
+     * Troca todos os itens sem copiar a lista, com um único evento. Usado pelos
+     * componentes do pacote que mantêm a lista e notificam as alterações pelos
+     * métodos do modelo. A lista precisa aceitar {@code add}/{@code remove}
+     * se {@link #adicionar}/{@link #remover} forem usados.
+     *
+     * @param itens Lista referenciada pelo modelo
+     */
+    void referenciarItens(List<T> itens) {
+        this.itens = itens;
+        editados.clear();
+        invalidarCache();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Adiciona um item ao final.
+     *
+     * @param item Item a adicionar
+     */
+    public void adicionar(T item) {
+        itens.add(item);
+        int linha = itens.size() - 1;
+        fireTableRowsInserted(linha, linha);
+    }
+
+    /**
+     * Remove o item da linha.
+     *
+     * @param linha Índice da linha
+     * @return Item removido ou null se índice inválido
+     */
+    public T remover(int linha) {
+        if (linha < 0 || linha >= itens.size()) return null;
+        T item = itens.remove(linha);
+        editados.remove(item);
+        invalidarCache();
+        fireTableRowsDeleted(linha, linha);
+        return item;
+    }
+
+    /**
+     * Substitui o item da linha.
+     *
+     * @param linha Índice da linha
+     * @param item Novo item
+     */
+    public void atualizar(int linha, T item) {
+        if (linha < 0 || linha >= itens.size()) return;
+        T anterior = itens.set(linha, item);
+        editados.remove(anterior);
+        editados.remove(item);
+        cacheIndices[linha % TAMANHO_CACHE] = -1;
+        fireTableRowsUpdated(linha, linha);
+    }
+
+    /**
+     * Converte a linha de novo a partir do item (descartando valores digitados).
+     *
+     * @param linha Índice da linha
+     */
+    public void atualizarLinha(int linha) {
+        if (linha < 0 || linha >= itens.size()) return;
+        editados.remove(itens.get(linha));
+        cacheIndices[linha % TAMANHO_CACHE] = -1;
+        fireTableRowsUpdated(linha, linha);
+    }
+
+    /**
+     * Notifica que a lista referenciada ganhou as linhas do intervalo.
+     * Para listas que são visões mantidas por outro componente.
+     *
+     * @param primeira Primeira linha inserida
+     * @param ultima Última linha inserida
+     */
+    public void linhasInseridas(int primeira, int ultima) {
+        if (primeira > ultima) return;
+        invalidarCache();
+        fireTableRowsInserted(primeira, ultima);
+    }
+
+    /**
+     * Notifica que a lista referenciada perdeu as linhas do intervalo.
+     *
+     * @param primeira Primeira linha removida
+     * @param ultima Última linha removida
+     */
+    public void linhasRemovidas(int primeira, int ultima) {
+        if (primeira > ultima) return;
+        invalidarCache();
+        fireTableRowsDeleted(primeira, ultima);
+    }
+
+    /**
+     * Remove todos os itens.
+     */
+    public void limpar() {
+        setItens(new ArrayList<>());
+    }
+
+    /**
+     * Obtém o item de uma linha.
+     *
+     * @param linha Índice da linha
+     * @return Item ou null se índice inválido
+     */
+    public T getItem(int linha) {
+        return linha >= 0 && linha < itens.size() ? itens.get(linha) : null;
+    }
+
+    /**
+     * Retorna uma cópia dos itens.
+     *
+     * @return Lista de itens
+     */
+    public List<T> getItens() {
+        return new ArrayList<>(itens);
+    }
+
+    private void invalidarCache() {
+        Arrays.fill(cacheIndices, -1);
+        Arrays.fill(cacheLinhas, null);
+    }
+
+    private Object[] linhaConvertida(int linha) {
+        int posicao = linha % TAMANHO_CACHE;
+        if (cacheIndices[posicao] == linha) {
+            return cacheLinhas[posicao];
+        }
+        T item = itens.get(linha);
+        Object[] valores = conversor != null ? conversor.apply(item) : new Object[]{item != null ? item.toString() : null};
+        cacheLinhas[posicao] = valores;
+        cacheIndices[posicao] = linha;
+        return valores;
+    }
+
+    // ==================== IMPLEMENTAÇÃO AbstractTableModel ====================
+
+    @Override
+    public int getRowCount() {
+        return itens.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return colunas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column >= 0 && column < colunas.length ? colunas[column] : "";
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= itens.size()) return null;
+        if (!editados.isEmpty()) {
+            Object[] digitados = editados.get(itens.get(rowIndex));
+            if (digitados != null && columnIndex < digitados.length && digitados[columnIndex] != NAO_EDITADO) {
+                return digitados[columnIndex];
+            }
+        }
+        Object[] valores = linhaConvertida(rowIndex);
+        return columnIndex >= 0 && columnIndex < valores.length ? valores[columnIndex] : null;
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return colunaEditavel.test(columnIndex);
+    }
+
+    @Override
+    public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= itens.size() || columnIndex < 0 || columnIndex >= colunas.length) return;
+        Object[] digitados = editados.computeIfAbsent(itens.get(rowIndex), k -> {
+            Object[] novo = new Object[colunas.length];
+            Arrays.fill(novo, NAO_EDITADO);
+            return novo;
+        });
+        digitados[columnIndex] = aValue;
+        fireTableCellUpdated(rowIndex, columnIndex);
+    }
+
+    /**
+     * Define vários valores com um único evento (colar, preencher).
+     * Os arrays são paralelos: o valor {@code i} vai para {@code (linhas[i], colunas[i])}.
+     *
+     * @param linhas Linhas das células
+     * @param colunas Colunas das células
+     * @param valores Novos valores
+     */
+    public void setValores(int[] linhas, int[] colunas, Object[] valores) {
+        int primeira = Integer.MAX_VALUE, ultima = -1;
+        for (int i = 0; i < valores.length; i++) {
+            int linha = linhas[i], coluna = colunas[i];
+            if (linha < 0 || linha >= itens.size() || coluna < 0 || coluna >= getColumnCount()) continue;
+            Object[] digitados = editados.computeIfAbsent(itens.get(linha), k -> {
+                Object[] novo = new Object[this.colunas.length];
+                Arrays.fill(novo, NAO_EDITADO);
+                return novo;
+            });
+            digitados[coluna] = valores[i];
+            primeira = Math.min(primeira, linha);
+            ultima = Math.max(ultima, linha);
+        }
+        if (ultima >= 0) {
+            fireTableRowsUpdated(primeira, ultima);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package tabela;
+
+import util.TarefaAssincrona;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * TableModel virtual para tabelas enormes, com carregamento de páginas sob demanda.
+ *
+ * <p>Informa ao JTable o total de linhas obtido do contador, mas só busca na fonte
+ * de dados as páginas que a tela realmente pede. As páginas são carregadas fora da
+ * EDT e guardadas em um cache LRU de tamanho fixo; enquanto uma página carrega, suas
+ * linhas aparecem como "Carregando...". A memória usada é constante, independente
+ * do total de registros, e a rolagem é contínua (sem botões de página).</p>
+ *
+ * <p>Poucas páginas carregam ao mesmo tempo ({@link #setMaxCarregamentos}); os demais
+ * pedidos esperam, os mais recentes primeiro. Com {@link #vincular(JTable)}, pedidos
+ * de páginas que saíram da área visível antes de começar são descartados. Uma página
+ * que falha aparece como "Erro ao carregar" até {@link #tentarNovamente()}.</p>
+ *
+ * <p>Não use com {@code TableRowSorter}: ordenar ou filtrar exigiria ler todas as
+ * linhas. Ordene e filtre na consulta da fonte de dados.</p>
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * TabelaModeloVirtual<Auditoria> modelo = new TabelaModeloVirtual<>(200, 30);
+ * modelo.addColuna("Data", Auditoria::getData)
+ *       .addColuna("Usuário", Auditoria::getUsuario)
+ *       .addColuna("Ação", Auditoria::getAcao);
+ * modelo.setContadorTotal(() -> auditoriaService.contar());
+ * modelo.setFonteDados((pagina, tamanho) -> auditoriaService.listar(pagina, tamanho));
+ *
+ * JTable tabela = new JTable(modelo);
+ * modelo.vincular(tabela);
+ * modelo.carregar();
+ * }</pre>
+ *
+ * @param <T> Tipo do objeto de cada linha
+ * @author alefi
+ * @since 2.1
+ */
+public class TabelaModeloVirtual<T> extends AbstractTableModel {
+
+    private final List<String> nomesColunas = new ArrayList<>();
+    private final List<Function<T, ?>> extratores = new ArrayList<>();
+    private final List<Class<?>> tiposColunas = new ArrayList<>();
+
+    private final int tamanhoPagina;
+    private final Map<Integer, List<T>> paginas;
+    /** Páginas sendo buscadas na fonte de dados. */
+    private final Set<Integer> paginasCarregando = new HashSet<>();
+    /** Páginas pedidas aguardando vaga, da mais recente para a mais antiga. */
+    private final Deque<Integer> filaPaginas = new ArrayDeque<>();
+    /** Páginas cuja busca falhou; só são buscadas de novo em {@link #tentarNovamente()}. */
+    private final Set<Integer> paginasComErro = new HashSet<>();
+    private int maxCarregamentos = 2;
+    private JTable tabela;
+
+    private BiFunction<Integer, Integer, List<T>> fonteDados;
+    private Supplier<Integer> contadorTotal;
+    private Consumer<Exception> aoErro;
+    private String textoCarregando = "Carregando...";
+    private String textoErro = "Erro ao carregar";
+
+    private int totalRegistros = 0;
+    /** Incrementada a cada recarga; respostas de gerações antigas são descartadas. */
+    private int geracao = 0;
+
+    /**
+     * Cria um modelo virtual com páginas de 100 linhas e até 50 páginas em cache.
+     */
+    public TabelaModeloVirtual() {
+        this(100, 50);
+    }
+
+    /**
+     * Cria um modelo virtual.
+     *
+     * @param tamanhoPagina Quantidade de linhas buscadas por vez
+     * @param maxPaginas Quantidade máxima de páginas mantidas em memória
+     */
+    public TabelaModeloVirtual(int tamanhoPagina, int maxPaginas) {
+        this.tamanhoPagina = Math.max(1, tamanhoPagina);
+        int limite = Math.max(1, maxPaginas);
+        this.paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> maisAntiga) {
+                return size() > limite;
+            }
+        };
+    }
+
+    // ==================== CONFIGURAÇÃO ====================
+
+    /**
+     * Adiciona uma coluna à tabela.
+     *
+     * @param nome Nome da coluna (cabeçalho)
+     * @param extrator Função que extrai o valor da coluna do objeto
+     * @return this para encadeamento
+     */
+    public TabelaModeloVirtual<T> addColuna(String nome, Function<T, ?> extrator) {
+        return addColuna(nome, extrator, Object.class);
+    }
+
+    /**
+     * Adiciona uma coluna com tipo específico.
+     *
+     * @param nome Nome da coluna
+     * @param extrator Função extratora
+     * @param tipo Classe do tipo da coluna
+     * @return this para encadeamento
+     */
+    public TabelaModeloVirtual<T> addColuna(String nome, Function<T, ?> extrator, Class<?> tipo) {
+        nomesColunas.add(nome);
+        extratores.add(extrator);
+        tiposColunas.add(tipo);
+        fireTableStructureChanged();
+        return this;
+    }
+
+    /**
+     * Define a fonte de dados paginada, chamada fora da EDT.
+     *
+     * @param fonte Função (página, tamanhoPágina) → itens da página
+     */
+    public void setFonteDados(BiFunction<Integer, Integer, List<T>> fonte) {
+        this.fonteDados = fonte;
+    }
+
+    /**
+     * Define o contador de total de registros, chamado fora da EDT.
+     *
+     * @param contador Fornecedor do total de registros
+     */
+    public void setContadorTotal(Supplier<Integer> contador) {
+        this.contadorTotal = contador;
+    }
+
+    /**
+     * Define ação executada (na EDT) quando a contagem ou uma página falha.
+     *
+     * @param acao Callback de erro
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
+    }
+
+    /**
+     * Define o texto exibido na primeira coluna enquanto a página carrega.
+     *
+     * @param texto Texto do marcador (padrão: "Carregando...")
+     */
+    public void setTextoCarregando(String texto) {
+        this.textoCarregando = texto;
+    }
+
+    /**
+     * Define o texto exibido na primeira coluna das páginas que falharam.
+     *
+     * @param texto Texto do marcador (padrão: "Erro ao carregar")
+     */
+    public void setTextoErro(String texto) {
+        this.textoErro = texto;
+    }
+
+    /**
+     * Define quantas páginas podem ser buscadas ao mesmo tempo.
+     *
+     * @param max Buscas simultâneas (padrão: 2)
+     */
+    public void setMaxCarregamentos(int max) {
+        this.maxCarregamentos = Math.max(1, max);
+        iniciarCarregamentos();
+    }
+
+    /**
+     * Informa a tabela que exibe o modelo. Pedidos de páginas que não estão mais
+     * na área visível quando chega a vez deles são descartados (se voltarem à tela,
+     * a repintura pede de novo).
+     *
+     * @param tabela Tabela que exibe o modelo (null desvincula)
+     */
+    public void vincular(JTable tabela) {
+        this.tabela = tabela;
+    }
+
+    // ==================== CARREGAMENTO ====================
+
+    /**
+     * Descarta as páginas em cache e busca o total de registros em segundo plano.
+     * As páginas são buscadas conforme o JTable pede as linhas.
+     */
+    public void carregar() {
+        int minhaGeracao = ++geracao;
+        paginas.clear();
+        paginasCarregando.clear();
+        filaPaginas.clear();
+        paginasComErro.clear();
+
+        if (contadorTotal == null) {
+            fireTableDataChanged();
+            return;
+        }
+        TarefaAssincrona.executar(contadorTotal::get, total -> {
+            if (minhaGeracao != geracao) return;
+            totalRegistros = total != null ? total : 0;
+            fireTableDataChanged();
+        }, this::notificarErro);
+    }
+
+    /**
+     * Recarrega a contagem e as páginas.
+     */
+    public void recarregar() {
+        carregar();
+    }
+
+    /**
+     * Busca de novo as páginas que falharam (as visíveis são pedidas na repintura).
+     */
+    public void tentarNovamente() {
+        if (paginasComErro.isEmpty()) return;
+        List<Integer> falhas = new ArrayList<>(paginasComErro);
+        paginasComErro.clear();
+        for (int pagina : falhas) {
+            atualizarLinhasPagina(pagina);
+        }
+    }
+
+    /**
+     * Põe a página no início da fila. Chamado na pintura das linhas.
+     */
+    private void solicitarPagina(int pagina) {
+        if (fonteDados == null || paginasCarregando.contains(pagina) || paginasComErro.contains(pagina)) return;
+        filaPaginas.remove(pagina);
+        filaPaginas.addFirst(pagina);
+        iniciarCarregamentos();
+    }
+
+    /**
+     * Inicia as buscas da fila até o limite de buscas simultâneas, descartando
+     * pedidos de páginas que já saíram da tela.
+     */
+    private void iniciarCarregamentos() {
+        while (paginasCarregando.size() < maxCarregamentos && !filaPaginas.isEmpty()) {
+            int pagina = filaPaginas.pollFirst();
+            if (!paginas.containsKey(pagina) && isPaginaVisivel(pagina)) {
+                carregarPagina(pagina);
+            }
+        }
+    }
+
+    private void carregarPagina(int pagina) {
+        paginasCarregando.add(pagina);
+        int minhaGeracao = geracao;
+        TarefaAssincrona.executar(() -> fonteDados.apply(pagina, tamanhoPagina), itens -> {
+            if (minhaGeracao != geracao) return;
+            paginasCarregando.remove(pagina);
+            paginas.put(pagina, itens != null ? itens : new ArrayList<>());
+            atualizarLinhasPagina(pagina);
+            iniciarCarregamentos();
+        }, erro -> {
+            if (minhaGeracao != geracao) return;
+            // Fica marcada para não tentar de novo a cada repintura
+            paginasCarregando.remove(pagina);
+            paginasComErro.add(pagina);
+            atualizarLinhasPagina(pagina);
+            notificarErro(erro);
+            iniciarCarregamentos();
+        });
+    }
+
+    private void atualizarLinhasPagina(int pagina) {
+        int primeira = pagina * tamanhoPagina;
+        int ultima = Math.min(primeira + tamanhoPagina, totalRegistros) - 1;
+        if (ultima >= primeira) {
+            fireTableRowsUpdated(primeira, ultima);
+        }
+    }
+
+    /**
+     * Verifica se a página tem linhas na área visível da tabela vinculada
+     * (sem tabela, ou com a tabela fora da tela, toda página conta como visível).
+     */
+    private boolean isPaginaVisivel(int pagina) {
+        if (tabela == null) return true;
+        Rectangle visivel = tabela.getVisibleRect();
+        if (visivel.isEmpty()) return true;
+        int primeira = tabela.rowAtPoint(visivel.getLocation());
+        int ultima = tabela.rowAtPoint(new Point(visivel.x, visivel.y + visivel.height - 1));
+        if (primeira < 0) return true;
+        if (ultima < 0) ultima = tabela.getRowCount() - 1;
+        int inicio = pagina * tamanhoPagina;
+        return inicio + tamanhoPagina - 1 >= primeira && inicio <= ultima;
+    }
+
+    private void notificarErro(Exception erro) {
+        if (aoErro != null) {
+            aoErro.accept(erro);
+        } else {
+            erro.printStackTrace();
+        }
+    }
+
+    // ==================== ACESSO AOS DADOS ====================
+
+    /**
+     * Obtém o item de uma linha, se a página já estiver carregada.
+     * Caso contrário, solicita a página e retorna null.
+     *
+     * @param linha Índice da linha
+     * @return O objeto ou null se ainda não carregado
+     */
+    public T getItem(int linha) {
+        if (linha < 0 || linha >= totalRegistros) return null;
+        int pagina = linha / tamanhoPagina;
+        List<T> itens = paginas.get(pagina);
+        if (itens == null) {
+            solicitarPagina(pagina);
+            return null;
+        }
+        int posicao = linha % tamanhoPagina;
+        return posicao < itens.size() ? itens.get(posicao) : null;
+    }
+
+    /**
+     * Verifica se a linha já está carregada.
+     *
+     * @param linha Índice da linha
+     * @return true se a página da linha está em cache
+     */
+    public boolean isCarregada(int linha) {
+        return paginas.containsKey(linha / tamanhoPagina);
+    }
+
+    /**
+     * Retorna o total de registros informado pelo contador.
+     *
+     * @return Total de registros
+     */
+    public int getTotalRegistros() {
+        return totalRegistros;
+    }
+
+    /**
+     * Retorna o tamanho das páginas buscadas.
+     *
+     * @return Linhas por página
+     */
+    public int getTamanhoPagina() {
+        return tamanhoPagina;
+    }
+
+    // ==================== IMPLEMENTAÇÃO AbstractTableModel ====================
+
+    @Override
+    public int getRowCount() {
+        return totalRegistros;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return nomesColunas.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column < 0 || column >= nomesColunas.size()) return "";
+        return nomesColunas.get(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= tiposColunas.size()) return Object.class;
+        return tiposColunas.get(columnIndex);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= extratores.size()) return null;
+
+        T item = getItem(rowIndex);
+        if (item == null) {
+            // Marcador só em colunas de texto, para não quebrar renderizadores tipados
+            boolean texto = getColumnClass(columnIndex).isAssignableFrom(String.class);
+            if (columnIndex != 0 || !texto || isCarregada(rowIndex)) return null;
+            return paginasComErro.contains(rowIndex / tamanhoPagina) ? textoErro : textoCarregando;
+        }
+        return extratores.get(columnIndex).apply(item);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+}
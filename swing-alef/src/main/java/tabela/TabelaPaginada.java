@@ -1,10 +1,15 @@
 package tabela;
 
+import util.TarefaAssincrona;
+
 import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.function.*;
 
 /**
@@ -20,13 +25,40 @@ import java.util.function.*;
  * tabela.carregar();
  * }</pre>
  * 
+ * <p>A fonte de dados e o contador são chamados fora da EDT. Enquanto a página
+ * carrega, a barra de paginação indica "carregando..."; se o usuário navegar de novo
+ * antes de a carga terminar, a carga anterior é cancelada e só a última página é exibida.</p>
+ * 
+ * <p>Páginas já vistas ficam em um cache LRU (padrão: 10 páginas, ou por tamanho
+ * estimado com {@link #setCacheBytes}), e após uma pausa na navegação a página
+ * seguinte e a anterior são buscadas antecipadamente. O cache é descartado por
+ * {@link #recarregar()} e ao trocar o tamanho da página.</p>
+ * 
+ * <p>A contagem de registros roda em paralelo à página (que aparece antes) e é
+ * reaproveitada por {@link #setValidadeContagem um tempo}; o rótulo "Página X de Y"
+ * é atualizado quando ela chega. Para tabelas onde {@code COUNT(*)} é caro, use
+ * {@link #setContadorEstimado}.</p>
+ * 
+ * <h3>Paginação por cursor (keyset):</h3>
+ * <p>Com OFFSET/LIMIT, o custo da consulta cresce com a profundidade da página.
+ * No modo cursor, a fonte recebe a chave do último (ou primeiro) item da página
+ * exibida e a direção, e a tabela guarda o cursor de cada página já visitada para
+ * voltar e ir à primeira. Não é possível saltar para uma página arbitrária.</p>
+ * <pre>{@code
+ * tabela.setFonteCursor(Log::getId, (ultimoId, direcao, tamanho) ->
+ *     direcao == TabelaPaginada.DirecaoCursor.PROXIMA
+ *         ? logService.listarApos((Long) ultimoId, tamanho)    // WHERE id > ? ORDER BY id
+ *         : logService.listarAntes((Long) ultimoId, tamanho)); // WHERE id < ? ORDER BY id DESC, invertida
+ * }</pre>
+ * 
  * @author alefi
  * @since 1.1
  */
 public class TabelaPaginada<T> extends JPanel {
     
     private JTable tabela;
-    private DefaultTableModel modeloTabela;
+    private TabelaModeloConversor<T> modeloTabela;
+    private DefaultTableModel modeloLegado;
     private JPanel painelPaginacao;
     
     private JButton btnPrimeira, btnAnterior, btnProxima, btnUltima;
@@ -36,26 +68,85 @@ public class TabelaPaginada<T> extends JPanel {
     private int paginaAtual = 0;
     private int tamanhoPagina = 20;
     private int totalRegistros = 0;
+    private boolean totalConhecido = false;
+    private boolean totalEstimado = false;
     
     private String[] colunas = {};
     private Function<T, Object[]> conversor;
     private BiFunction<Integer, Integer, List<T>> fonteDados;
     private Supplier<Integer> contadorTotal;
+    private Supplier<Integer> contadorEstimado;
+    
+    // Contagem feita à parte da página e reaproveitada até vencer
+    private long validadeContagemMs = 60_000;
+    private long contagemObtidaEm = 0;
+    private boolean contandoTotal = false;
+    private int geracaoContagem = 0;
     
     private List<T> itensAtuais = new ArrayList<>();
     private Consumer<T> aoSelecionar;
     private Consumer<T> aoDuploClique;
+    private Consumer<Exception> aoErro;
+    
+    /** Carga em andamento; substituída (e cancelada) a cada nova navegação. */
+    private SwingWorker<List<T>, Void> cargaAtual;
+    
+    // Cache de páginas (LRU por quantidade ou por bytes estimados)
+    private final LinkedHashMap<Integer, List<T>> cachePaginas = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> paginasAntecipando = new HashSet<>();
+    private int maxPaginasCache = 10;
+    private long maxBytesCache = 0;
+    private ToLongFunction<T> tamanhoItem;
+    /** Estimativa por item quando {@link #setCacheBytes} não recebe estimador. */
+    private static final long TAMANHO_ITEM_PADRAO = 1024;
+    private long bytesCache = 0;
+    /** Incrementada quando o cache é descartado; respostas antigas não entram no cache. */
+    private int geracaoCache = 0;
+    private boolean antecipar = true;
+    private final Timer temporizadorAntecipacao;
+    
+    // Paginação por cursor
+    private FonteCursor<T> fonteCursor;
+    private Function<T, ?> extratorChave;
+    /** Consulta usada para obter cada página já visitada (histórico de cursores). */
+    private final Map<Integer, ConsultaCursor> cursores = new HashMap<>();
+    private int paginaExibida = -1;
+    
+    /**
+     * Direção da busca no modo cursor.
+     */
+    public enum DirecaoCursor {
+        /** Itens depois da chave (ou os primeiros, se a chave for null). */
+        PROXIMA,
+        /** Itens antes da chave (ou os últimos, se a chave for null), em ordem de exibição. */
+        ANTERIOR
+    }
+    
+    /**
+     * Fonte de dados do modo cursor.
+     */
+    @FunctionalInterface
+    public interface FonteCursor<T> {
+        /**
+         * Busca uma página a partir da chave.
+         * 
+         * @param chave Chave do último item (PROXIMA) ou do primeiro (ANTERIOR); null nas pontas
+         * @param direcao Direção da busca
+         * @param tamanho Quantidade máxima de itens
+         * @return Itens na ordem de exibição
+         */
+        List<T> buscar(Object chave, DirecaoCursor direcao, int tamanho);
+    }
     
     public TabelaPaginada() {
         setLayout(new BorderLayout(0, 5));
         
+        // Busca antecipada só depois de uma pausa na navegação
+        temporizadorAntecipacao = new Timer(300, e -> anteciparVizinhas());
+        temporizadorAntecipacao.setRepeats(false);
+        
         // Tabela
-        modeloTabela = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabela = new TabelaModeloConversor<>();
         
         tabela = new JTable(modeloTabela);
         tabela.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -111,6 +202,8 @@ public class TabelaPaginada<T> extends JPanel {
         comboTamanhoPagina.addActionListener(e -> {
             tamanhoPagina = (Integer) comboTamanhoPagina.getSelectedItem();
             paginaAtual = 0;
+            limparCache();
+            limparCursores();
             carregar();
         });
         
@@ -127,48 +220,407 @@ public class TabelaPaginada<T> extends JPanel {
     }
     
     /**
-     * Carrega os dados da página atual.
+     * Carrega os dados da página atual em segundo plano.
+     * Uma carga anterior ainda em andamento é cancelada. A contagem de registros
+     * é feita à parte e reaproveitada enquanto estiver dentro da validade.
      */
     public void carregar() {
-        if (fonteDados == null) return;
+        if (fonteDados == null && fonteCursor == null) return;
         
-        // Atualizar total
-        if (contadorTotal != null) {
-            totalRegistros = contadorTotal.get();
+        if (cargaAtual != null) {
+            cargaAtual.cancel(true);
+            cargaAtual = null;
         }
+        atualizarContagemSeVencida();
         
-        // Carregar dados
-        itensAtuais = fonteDados.apply(paginaAtual, tamanhoPagina);
+        List<T> emCache = cachePaginas.get(paginaAtual);
+        if (emCache != null) {
+            aplicarPagina(paginaAtual, emCache);
+            temporizadorAntecipacao.restart();
+            return;
+        }
+        
+        int pagina = paginaAtual;
+        int geracao = geracaoCache;
+        Callable<List<T>> busca = criarBusca(pagina);
+        if (busca == null) return;
+        ConsultaCursor consulta = cursores.get(pagina);
+        
+        SwingWorker<List<T>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<T> doInBackground() throws Exception {
+                return busca.call();
+            }
+            
+            @Override
+            protected void done() {
+                // Só a carga mais recente é aplicada
+                if (cargaAtual != this || isCancelled()) return;
+                cargaAtual = null;
+                try {
+                    List<T> itens = get();
+                    if (consulta != null && consulta.direcao == DirecaoCursor.ANTERIOR
+                            && pagina > 0 && (itens == null || itens.size() < tamanhoPagina)) {
+                        // Chegou ao início antes do esperado: recomeça pela primeira página
+                        limparCursores();
+                        limparCache();
+                        paginaAtual = 0;
+                        carregar();
+                        return;
+                    }
+                    itens = alinharUltimaPagina(pagina, consulta, itens);
+                    if (geracao == geracaoCache && itens != null) {
+                        guardarNoCache(pagina, itens);
+                    }
+                    aplicarPagina(pagina, itens);
+                    temporizadorAntecipacao.restart();
+                } catch (Exception e) {
+                    atualizarControles();
+                    notificarErro(e);
+                }
+            }
+        };
+        cargaAtual = worker;
+        atualizarControles();
+        worker.execute();
+    }
+    
+    private void aplicarPagina(int pagina, List<T> itens) {
+        itensAtuais = itens != null ? itens : new ArrayList<>();
+        paginaExibida = pagina;
         
-        // Atualizar tabela
-        modeloTabela.setRowCount(0);
-        for (T item : itensAtuais) {
-            Object[] linha = conversor != null ? conversor.apply(item) : new Object[]{item.toString()};
-            modeloTabela.addRow(linha);
+        // Página incompleta revela o total real (corrige contagens estimadas)
+        ConsultaCursor consulta = cursores.get(pagina);
+        boolean avancando = consulta == null || consulta.direcao == DirecaoCursor.PROXIMA;
+        if (avancando && itensAtuais.size() < tamanhoPagina && (!itensAtuais.isEmpty() || pagina == 0)
+                && (!totalConhecido || totalEstimado)) {
+            totalRegistros = pagina * tamanhoPagina + itensAtuais.size();
+            totalConhecido = true;
+            totalEstimado = false;
         }
         
+        // Atualizar tabela (um único evento)
+        modeloTabela.referenciarItens(itensAtuais);
+        
         atualizarControles();
     }
     
+    private void notificarErro(Exception e) {
+        // get() embrulha o erro da fonte em ExecutionException
+        Exception causa = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        if (aoErro != null) {
+            aoErro.accept(causa);
+        } else {
+            causa.printStackTrace();
+        }
+    }
+    
     private void atualizarControles() {
         int totalPaginas = getTotalPaginas();
+        String total = totalEstimado ? "~" + totalPaginas : String.valueOf(totalPaginas);
+        String situacao;
+        if (isCarregando()) {
+            situacao = "carregando...";
+        } else if (!totalConhecido) {
+            situacao = contandoTotal ? "contando registros..." : itensAtuais.size() + " registros nesta página";
+        } else {
+            situacao = (totalEstimado ? "~" : "") + totalRegistros + " registros";
+        }
         
-        lblPagina.setText(String.format("Página %d de %d (%d registros)", 
-            paginaAtual + 1, Math.max(1, totalPaginas), totalRegistros));
+        if (totalConhecido) {
+            lblPagina.setText(String.format("Página %d de %s (%s)", paginaAtual + 1, total, situacao));
+        } else {
+            lblPagina.setText(String.format("Página %d (%s)", paginaAtual + 1, situacao));
+        }
+        tabela.setCursor(isCarregando() ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
         
         btnPrimeira.setEnabled(paginaAtual > 0);
         btnAnterior.setEnabled(paginaAtual > 0);
-        btnProxima.setEnabled(paginaAtual < totalPaginas - 1);
-        btnUltima.setEnabled(paginaAtual < totalPaginas - 1);
+        btnProxima.setEnabled(existePagina(paginaAtual + 1));
+        btnUltima.setEnabled(totalConhecido && paginaAtual < totalPaginas - 1);
+    }
+    
+    /**
+     * Sem total exato, assume que há próxima página enquanto a atual vier cheia.
+     */
+    private boolean existePagina(int pagina) {
+        if (pagina < 0) return false;
+        if (pagina < getTotalPaginas()) return true;
+        return (!totalConhecido || totalEstimado) && pagina == paginaAtual + 1
+            && itensAtuais.size() >= tamanhoPagina;
+    }
+    
+    // ==================== CONTAGEM DE REGISTROS ====================
+    
+    private void atualizarContagemSeVencida() {
+        Supplier<Integer> contador = contadorTotal != null ? contadorTotal : contadorEstimado;
+        if (contador == null || contandoTotal) return;
+        boolean vencida = contagemObtidaEm == 0
+            || System.currentTimeMillis() - contagemObtidaEm > validadeContagemMs;
+        if (!vencida) return;
+        
+        boolean estimado = contadorTotal == null;
+        int geracao = ++geracaoContagem;
+        contandoTotal = true;
+        TarefaAssincrona.executar(contador::get, total -> {
+            if (geracao != geracaoContagem) return;
+            contandoTotal = false;
+            contagemObtidaEm = System.currentTimeMillis();
+            if (total != null) {
+                totalRegistros = total;
+                totalConhecido = true;
+                totalEstimado = estimado;
+            }
+            atualizarControles();
+        }, erro -> {
+            if (geracao != geracaoContagem) return;
+            contandoTotal = false;
+            atualizarControles();
+            notificarErro(erro);
+        });
+    }
+    
+    /**
+     * Descarta a contagem em cache; a próxima carga conta de novo.
+     */
+    public void invalidarContagem() {
+        geracaoContagem++;
+        contandoTotal = false;
+        contagemObtidaEm = 0;
+    }
+    
+    /**
+     * Define por quanto tempo a contagem de registros é reaproveitada (padrão: 60s).
+     * Enquanto válida, trocar de página não chama o contador.
+     */
+    public void setValidadeContagem(long ms) {
+        this.validadeContagemMs = Math.max(0, ms);
+    }
+    
+    /**
+     * Define um contador aproximado, usado quando não há contador exato
+     * (ex: estatísticas do banco em vez de {@code COUNT(*)}). O total aparece
+     * como "~N" e é corrigido ao chegar numa página incompleta.
+     */
+    public void setContadorEstimado(Supplier<Integer> contador) {
+        this.contadorEstimado = contador;
+        invalidarContagem();
+    }
+    
+    /**
+     * Indica se o total exibido é uma estimativa.
+     */
+    public boolean isTotalEstimado() {
+        return totalEstimado;
+    }
+    
+    /**
+     * Monta a busca da página (fora da EDT) ou null se não há como chegar a ela.
+     */
+    private Callable<List<T>> criarBusca(int pagina) {
+        int tamanho = tamanhoPagina;
+        if (fonteCursor != null) {
+            ConsultaCursor consulta = consultaCursor(pagina);
+            if (consulta == null) return null;
+            FonteCursor<T> fonte = fonteCursor;
+            return () -> fonte.buscar(consulta.chave, consulta.direcao, tamanho);
+        }
+        if (fonteDados == null) return null;
+        BiFunction<Integer, Integer, List<T>> fonte = fonteDados;
+        return () -> fonte.apply(pagina, tamanho);
+    }
+    
+    // ==================== PAGINAÇÃO POR CURSOR ====================
+    
+    /**
+     * Obtém (e guarda no histórico) a consulta que leva à página, a partir do
+     * histórico ou da página exibida. Retorna null se a página não é alcançável.
+     */
+    private ConsultaCursor consultaCursor(int pagina) {
+        ConsultaCursor consulta = cursores.get(pagina);
+        if (consulta != null) return consulta;
+        
+        if (pagina == 0) {
+            consulta = new ConsultaCursor(null, DirecaoCursor.PROXIMA);
+        } else if (pagina == paginaExibida + 1 && !itensAtuais.isEmpty()) {
+            consulta = new ConsultaCursor(extratorChave.apply(itensAtuais.get(itensAtuais.size() - 1)), DirecaoCursor.PROXIMA);
+        } else if (pagina == paginaExibida - 1 && !itensAtuais.isEmpty()) {
+            consulta = new ConsultaCursor(extratorChave.apply(itensAtuais.get(0)), DirecaoCursor.ANTERIOR);
+        } else if (totalConhecido && pagina == getTotalPaginas() - 1) {
+            consulta = new ConsultaCursor(null, DirecaoCursor.ANTERIOR);
+        } else {
+            return null;
+        }
+        cursores.put(pagina, consulta);
+        return consulta;
+    }
+    
+    private void limparCursores() {
+        cursores.clear();
+        paginaExibida = -1;
+    }
+    
+    /**
+     * A última página buscada de trás para frente (chave null) vem com os últimos
+     * {@code tamanhoPagina} registros, e não só os que ficam nela pela contagem.
+     * Corta o excedente e guarda os cursores reais dela e da anterior, para que
+     * fiquem alinhadas com as páginas percorridas a partir do início.
+     */
+    private List<T> alinharUltimaPagina(int pagina, ConsultaCursor consulta, List<T> itens) {
+        if (consulta == null || consulta.direcao != DirecaoCursor.ANTERIOR || consulta.chave != null
+                || itens == null || !totalConhecido || totalEstimado) {
+            return itens;
+        }
+        int excedente = itens.size() - (totalRegistros - pagina * tamanhoPagina);
+        if (excedente <= 0 || excedente >= itens.size()) return itens;
+        
+        cursores.put(pagina, new ConsultaCursor(extratorChave.apply(itens.get(excedente - 1)), DirecaoCursor.PROXIMA));
+        if (pagina > 0) {
+            cursores.putIfAbsent(pagina - 1, new ConsultaCursor(extratorChave.apply(itens.get(excedente)), DirecaoCursor.ANTERIOR));
+        }
+        return new ArrayList<>(itens.subList(excedente, itens.size()));
+    }
+    
+    /**
+     * Ativa a paginação por cursor (keyset), em vez de OFFSET/LIMIT.
+     * 
+     * @param extratorChave Chave de ordenação única de cada item (ex: ID)
+     * @param fonte Fonte que busca a partir da chave e da direção (chamada fora da EDT)
+     */
+    public void setFonteCursor(Function<T, ?> extratorChave, FonteCursor<T> fonte) {
+        this.extratorChave = extratorChave;
+        this.fonteCursor = fonte;
+        this.paginaAtual = 0;
+        limparCursores();
+        limparCache();
+    }
+    
+    /**
+     * Verifica se a paginação é por cursor.
+     */
+    public boolean isModoCursor() {
+        return fonteCursor != null;
+    }
+    
+    // ==================== CACHE E BUSCA ANTECIPADA ====================
+    
+    private void anteciparVizinhas() {
+        if (!antecipar || (maxPaginasCache <= 0 && maxBytesCache <= 0)) return;
+        for (int pagina : new int[]{paginaAtual + 1, paginaAtual - 1}) {
+            if (!existePagina(pagina)) continue;
+            if (cachePaginas.containsKey(pagina) || !paginasAntecipando.add(pagina)) continue;
+            
+            Callable<List<T>> busca = criarBusca(pagina);
+            if (busca == null) {
+                paginasAntecipando.remove(pagina);
+                continue;
+            }
+            int geracao = geracaoCache;
+            TarefaAssincrona.executar(busca::call, itens -> {
+                if (geracao != geracaoCache) return;
+                paginasAntecipando.remove(pagina);
+                if (itens != null) guardarNoCache(pagina, itens);
+            }, erro -> {
+                // Falha na antecipação é ignorada; a navegação busca de novo
+                if (geracao == geracaoCache) paginasAntecipando.remove(pagina);
+            });
+        }
+    }
+    
+    private void guardarNoCache(int pagina, List<T> itens) {
+        if (maxPaginasCache <= 0 && maxBytesCache <= 0) return;
+        List<T> anterior = cachePaginas.put(pagina, itens);
+        if (anterior != null) bytesCache -= estimarBytes(anterior);
+        bytesCache += estimarBytes(itens);
+        
+        // Descarta as menos usadas, preservando sempre a recém-guardada
+        Iterator<Map.Entry<Integer, List<T>>> it = cachePaginas.entrySet().iterator();
+        while (cachePaginas.size() > 1 && excedeLimite() && it.hasNext()) {
+            Map.Entry<Integer, List<T>> maisAntiga = it.next();
+            if (maisAntiga.getKey() == pagina) continue;
+            bytesCache -= estimarBytes(maisAntiga.getValue());
+            it.remove();
+        }
+    }
+    
+    private boolean excedeLimite() {
+        if (maxBytesCache > 0) return bytesCache > maxBytesCache;
+        return cachePaginas.size() > maxPaginasCache;
+    }
+    
+    private long estimarBytes(List<T> itens) {
+        if (maxBytesCache <= 0) return 0;
+        if (tamanhoItem == null) return itens.size() * TAMANHO_ITEM_PADRAO;
+        long total = 0;
+        for (T item : itens) {
+            total += tamanhoItem.applyAsLong(item);
+        }
+        return total;
+    }
+    
+    /**
+     * Descarta as páginas em cache e as buscas antecipadas em andamento.
+     */
+    public void limparCache() {
+        geracaoCache++;
+        cachePaginas.clear();
+        paginasAntecipando.clear();
+        bytesCache = 0;
+    }
+    
+    /**
+     * Define quantas páginas ficam em cache (padrão: 10). Use 0 para desativar o cache.
+     */
+    public void setCachePaginas(int maxPaginas) {
+        this.maxPaginasCache = Math.max(0, maxPaginas);
+        this.maxBytesCache = 0;
+        limparCache();
+    }
+    
+    /**
+     * Limita o cache pelo tamanho estimado dos itens, contando 1 KB por item.
+     * 
+     * @param maxBytes Total máximo estimado (ex: 50 * 1024 * 1024)
+     * @see #setCacheBytes(long, ToLongFunction)
+     */
+    public void setCacheBytes(long maxBytes) {
+        setCacheBytes(maxBytes, null);
+    }
+    
+    /**
+     * Limita o cache pelo tamanho estimado dos itens, em vez da quantidade de páginas.
+     * Sem estimador ({@code null}), cada item conta 1 KB: o limite continua valendo,
+     * mas só é preciso se os itens tiverem tamanho próximo disso.
+     * 
+     * @param maxBytes Total máximo estimado (ex: 50 * 1024 * 1024)
+     * @param tamanhoItem Estimativa em bytes de cada item (ou null)
+     */
+    public void setCacheBytes(long maxBytes, ToLongFunction<T> tamanhoItem) {
+        this.maxBytesCache = Math.max(0, maxBytes);
+        this.tamanhoItem = tamanhoItem;
+        limparCache();
+    }
+    
+    /**
+     * Ativa ou desativa a busca antecipada da página seguinte e da anterior (padrão: ativa).
+     */
+    public void setAntecipar(boolean antecipar) {
+        this.antecipar = antecipar;
+    }
+    
+    /**
+     * Verifica se há uma página sendo carregada.
+     */
+    public boolean isCarregando() {
+        return cargaAtual != null;
     }
     
     /**
      * Vai para a próxima página.
      */
     public void proximaPagina() {
-        if (paginaAtual < getTotalPaginas() - 1) {
-            paginaAtual++;
-            carregar();
+        if (existePagina(paginaAtual + 1)) {
+            irParaPagina(paginaAtual + 1);
         }
     }
     
@@ -177,17 +629,19 @@ public class TabelaPaginada<T> extends JPanel {
      */
     public void paginaAnterior() {
         if (paginaAtual > 0) {
-            paginaAtual--;
-            carregar();
+            irParaPagina(paginaAtual - 1);
         }
     }
     
     /**
      * Vai para uma página específica.
+     * No modo cursor, só vai para páginas vizinhas, já visitadas, a primeira ou a última.
      */
     public void irParaPagina(int pagina) {
         int totalPaginas = getTotalPaginas();
-        paginaAtual = Math.max(0, Math.min(pagina, totalPaginas - 1));
+        int destino = existePagina(pagina) ? pagina : Math.max(0, Math.min(pagina, totalPaginas - 1));
+        if (fonteCursor != null && consultaCursor(destino) == null) return;
+        paginaAtual = destino;
         carregar();
     }
     
@@ -203,7 +657,7 @@ public class TabelaPaginada<T> extends JPanel {
      */
     public void setColunas(String... colunas) {
         this.colunas = colunas;
-        modeloTabela.setColumnIdentifiers(colunas);
+        modeloTabela.setColunas(colunas);
     }
     
     /**
@@ -211,6 +665,7 @@ public class TabelaPaginada<T> extends JPanel {
      */
     public void setConversor(Function<T, Object[]> conversor) {
         this.conversor = conversor;
+        modeloTabela.setConversor(conversor);
     }
     
     /**
@@ -218,6 +673,7 @@ public class TabelaPaginada<T> extends JPanel {
      */
     public void setFonteDados(BiFunction<Integer, Integer, List<T>> fonte) {
         this.fonteDados = fonte;
+        limparCache();
     }
     
     /**
@@ -225,6 +681,15 @@ public class TabelaPaginada<T> extends JPanel {
      */
     public void setContadorTotal(Supplier<Integer> contador) {
         this.contadorTotal = contador;
+        invalidarContagem();
+    }
+    
+    /**
+     * Define ação executada (na EDT) quando a contagem ou a página falha.
+     * Sem ação definida, o erro é impresso no console.
+     */
+    public void setAoErro(Consumer<Exception> acao) {
+        this.aoErro = acao;
     }
     
     /**
@@ -262,22 +727,119 @@ public class TabelaPaginada<T> extends JPanel {
     /**
      * Retorna o modelo da tabela.
      */
-    public DefaultTableModel getModelo() {
+    public TabelaModeloConversor<T> getModeloConversor() {
         return modeloTabela;
     }
     
+    /**
+     * Retorna o modelo da tabela como {@code DefaultTableModel}.
+     * 
+     * <p>Na primeira chamada a tabela passa a exibir este modelo, que recebe as linhas
+     * de cada página carregada. Alterações feitas nele aparecem na tabela até a próxima
+     * carga. Para acesso tipado aos itens da página, use {@link #getModeloConversor()}.</p>
+     */
+    public DefaultTableModel getModelo() {
+        if (modeloLegado == null) {
+            modeloLegado = new ModeloLegado(modeloTabela);
+            tabela.setModel(modeloLegado);
+        }
+        return modeloLegado;
+    }
+    
     /**
      * Define o tamanho da página.
      */
     public void setTamanhoPagina(int tamanho) {
+        if (tamanho != tamanhoPagina) {
+            limparCache();
+            limparCursores();
+            paginaAtual = 0;
+        }
         this.tamanhoPagina = tamanho;
         comboTamanhoPagina.setSelectedItem(tamanho);
     }
     
     /**
-     * Recarrega os dados.
+     * Recarrega os dados, descartando as páginas em cache, a contagem e, no modo
+     * cursor, os cursores das outras páginas (a página atual é buscada de novo
+     * pelo mesmo cursor).
      */
     public void recarregar() {
+        ConsultaCursor atual = cursores.get(paginaAtual);
+        limparCache();
+        limparCursores();
+        if (atual != null) {
+            cursores.put(paginaAtual, atual);
+        } else if (fonteCursor != null) {
+            paginaAtual = 0;
+        }
+        invalidarContagem();
         carregar();
     }
+
+    
+    /**
+     * Chave e direção que levam a uma página no modo cursor.
+     */
+    private static class ConsultaCursor {
+        final Object chave;
+        final DirecaoCursor direcao;
+        
+        ConsultaCursor(Object chave, DirecaoCursor direcao) {
+            this.chave = chave;
+            this.direcao = direcao;
+        }
+    }
+    
+    /**
+     * {@code DefaultTableModel} comum, reabastecido com as linhas e colunas do modelo
+     * conversor a cada alteração dele (carga de página, troca de colunas).
+     */
+    private static class ModeloLegado extends DefaultTableModel {
+        private final TabelaModeloConversor<?> modelo;
+        
+        ModeloLegado(TabelaModeloConversor<?> modelo) {
+            this.modelo = modelo;
+            espelharColunas();
+            espelharLinhas();
+            modelo.addTableModelListener(e -> {
+                if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+                    espelharColunas();
+                }
+                espelharLinhas();
+            });
+        }
+        
+        private void espelharColunas() {
+            Object[] nomes = new Object[modelo.getColumnCount()];
+            for (int c = 0; c < nomes.length; c++) {
+                nomes[c] = modelo.getColumnName(c);
+            }
+            setColumnIdentifiers(nomes);
+        }
+        
+        /** Troca todas as linhas com um único evento. */
+        private void espelharLinhas() {
+            int colunas = getColumnCount();
+            dataVector.clear();
+            for (int l = 0; l < modelo.getRowCount(); l++) {
+                Vector<Object> linha = new Vector<>(colunas);
+                for (int c = 0; c < colunas; c++) {
+                    linha.add(c < modelo.getColumnCount() ? modelo.getValueAt(l, c) : null);
+                }
+                dataVector.add(linha);
+            }
+            fireTableDataChanged();
+        }
+        
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column < modelo.getColumnCount() ? modelo.getColumnClass(column) : Object.class;
+        }
+        
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    }
 }
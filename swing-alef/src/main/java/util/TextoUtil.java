@@ -0,0 +1,84 @@
+package util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Utilitário para normalização de textos usados em buscas e filtros.
+ *
+ * <h3>Exemplo de uso:</h3>
+ * <pre>{@code
+ * String chave = TextoUtil.normalizar("Ação São João"); // "acao sao joao"
+ * boolean achou = TextoUtil.contem("José da Conceição", "conceicao"); // true
+ * }</pre>
+ *
+ * @author alefi
+ * @since 2.1
+ */
+public final class TextoUtil {
+
+    /** Letras de U+00C0 a U+00FF sem acento e em minúsculas (como o {@link Normalizer} deixa). */
+    private static final String LATIN1_SEM_ACENTO =
+            "aaaaaaæceeeeiiiiðnooooo×øuuuuyþß" + "aaaaaaæceeeeiiiiðnooooo÷øuuuuyþy";
+
+    private TextoUtil() {
+        // Classe utilitária - não instanciar
+    }
+
+    /**
+     * Converte o texto para minúsculas e remove acentos.
+     * Textos em ASCII ou Latin-1 (caso do português) são convertidos por tabela;
+     * só os demais passam pelo {@link Normalizer}.
+     *
+     * @param texto Texto original
+     * @return Texto normalizado ("" se nulo)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) return "";
+
+        int n = texto.length();
+        int i = 0;
+        while (i < n && texto.charAt(i) < 128) {
+            i++;
+        }
+        if (i == n) return texto.toLowerCase(Locale.ROOT);
+
+        char[] saida = new char[n];
+        for (i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                saida[i] = (char) (c + ('a' - 'A'));
+            } else if (c < 0xC0) {
+                saida[i] = c;
+            } else if (c <= 0xFF) {
+                saida[i] = LATIN1_SEM_ACENTO.charAt(c - 0xC0);
+            } else {
+                return normalizarUnicode(texto);
+            }
+        }
+        return new String(saida);
+    }
+
+    private static String normalizarUnicode(String texto) {
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0, n = decomposto.length(); i < n; i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Verifica se o texto contém o trecho, ignorando maiúsculas e acentos.
+     *
+     * @param texto Texto onde procurar
+     * @param trecho Trecho procurado
+     * @return true se encontrado
+     */
+    public static boolean contem(String texto, String trecho) {
+        return normalizar(texto).contains(normalizar(trecho));
+    }
+}
@@ -0,0 +1,163 @@
+package campo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.ListModel;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Busca no provedor do {@link CampoBusca}: cancelamento de pedidos antigos,
+ * cache por texto, refinamento local e erros.
+ */
+class CampoBuscaTest {
+
+    private CampoBusca<String> campo;
+    /** Textos pedidos ao provedor e o pedido de cada um, na ordem. */
+    private final List<String> textos = new ArrayList<>();
+    private final List<CompletableFuture<List<String>>> pedidos = new ArrayList<>();
+    private final AtomicReference<Exception> erro = new AtomicReference<>();
+
+    @BeforeEach
+    void criar() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            campo = new CampoBusca<>();
+            campo.setMostrarTodosAoFocar(false);
+            campo.setAtrasoBusca(0);
+            campo.setAoErro(erro::set);
+            campo.setProvedor(texto -> {
+                CompletableFuture<List<String>> pedido = new CompletableFuture<>();
+                textos.add(texto);
+                pedidos.add(pedido);
+                return pedido;
+            });
+        });
+    }
+
+    @Test
+    void textoNovoCancelaOPedidoAnterior() throws Exception {
+        digitar("mes");
+        aguardar(() -> pedidos.size() == 1);
+        digitar("mesa");
+        aguardar(() -> pedidos.size() == 2);
+
+        assertTrue(pedidos.get(0).isCancelled());
+        responder(1, "mesa", "mesa azul");
+        aguardar(() -> !campo.isBuscando());
+
+        assertEquals(List.of("mes", "mesa"), textos);
+        assertEquals(List.of("mesa", "mesa azul"), sugestoes());
+        assertNull(erro.get(), "cancelamento não é erro");
+    }
+
+    @Test
+    void respostaDeTextoAntigoNaoSubstituiAsSugestoes() throws Exception {
+        // Provedor que ignora o cancelamento: a resposta antiga chega mesmo assim
+        List<CompletableFuture<List<String>>> origens = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> campo.setProvedor(texto -> {
+            CompletableFuture<List<String>> origem = new CompletableFuture<List<String>>() {
+                @Override
+                public boolean cancel(boolean interromper) {
+                    return false;
+                }
+            };
+            origens.add(origem);
+            return origem;
+        }));
+        digitar("mes");
+        aguardar(() -> origens.size() == 1);
+        digitar("mesa");
+        aguardar(() -> origens.size() == 2);
+
+        origens.get(1).complete(List.of("mesa"));
+        origens.get(0).complete(List.of("mesmo", "mesa"));
+        aguardar(() -> !campo.isBuscando());
+        // A resposta antiga é tratada na EDT depois da nova
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(List.of("mesa"), sugestoes());
+    }
+
+    @Test
+    void mesmoTextoRespondidoPeloCache() throws Exception {
+        digitar("mes");
+        aguardar(() -> pedidos.size() == 1);
+        responder(0, "mesa", "mesmo");
+        aguardar(() -> !campo.isBuscando());
+        digitar("mesa");
+        aguardar(() -> pedidos.size() == 2);
+        responder(1, "mesa");
+        aguardar(() -> !campo.isBuscando());
+
+        digitar("mes");
+        SwingUtilities.invokeAndWait(() -> assertFalse(campo.isBuscando()));
+        assertEquals(2, pedidos.size());
+        assertEquals(List.of("mesa", "mesmo"), sugestoes());
+
+        // Sem o cache, pede de novo
+        SwingUtilities.invokeAndWait(campo::limparCache);
+        digitar("mesa");
+        aguardar(() -> pedidos.size() == 3);
+    }
+
+    @Test
+    void refinamentoLocalFiltraRespostaCompleta() throws Exception {
+        SwingUtilities.invokeAndWait(() -> campo.setRefinamentoLocal(10,
+                (item, texto) -> item.contains(texto)));
+        digitar("me");
+        aguardar(() -> pedidos.size() == 1);
+        responder(0, "mesa", "mesmo", "medo");
+        aguardar(() -> !campo.isBuscando());
+
+        digitar("mes");
+        SwingUtilities.invokeAndWait(() -> assertFalse(campo.isBuscando()));
+        assertEquals(1, pedidos.size());
+        assertEquals(List.of("mesa", "mesmo"), sugestoes());
+    }
+
+    @Test
+    void falhaDoProvedorVaiParaAoErro() throws Exception {
+        digitar("mes");
+        aguardar(() -> pedidos.size() == 1);
+        pedidos.get(0).completeExceptionally(new IllegalStateException("offline"));
+        aguardar(() -> erro.get() != null);
+
+        assertEquals("offline", erro.get().getMessage());
+    }
+
+    private void digitar(String texto) throws Exception {
+        SwingUtilities.invokeAndWait(() -> campo.setTexto(texto));
+    }
+
+    private void responder(int pedido, String... itens) {
+        pedidos.get(pedido).complete(List.of(itens));
+    }
+
+    private List<String> sugestoes() throws Exception {
+        List<String> sugestoes = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            ListModel<String> modelo = campo.getListaSugestoes().getModel();
+            for (int i = 0; i < modelo.getSize(); i++) {
+                sugestoes.add(modelo.getElementAt(i));
+            }
+        });
+        return sugestoes;
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws Exception {
+        long limite = System.currentTimeMillis() + 10_000;
+        boolean[] pronto = {false};
+        while (!pronto[0]) {
+            assertTrue(System.currentTimeMillis() < limite, "tempo esgotado");
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> pronto[0] = condicao.getAsBoolean());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package campo;
+
+import org.junit.jupiter.api.Test;
+import util.TextoUtil;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ordem dos resultados, remoção de itens e busca aproximada (distância de Myers)
+ * do {@link IndiceBusca}.
+ */
+class IndiceBuscaTest {
+
+    private static IndiceBusca indice(String... chaves) {
+        IndiceBusca indice = new IndiceBusca();
+        for (String chave : chaves) {
+            indice.adicionar(chave);
+        }
+        return indice;
+    }
+
+    @Test
+    void ordenaIgualPrefixoPalavraContem() {
+        IndiceBusca indice = indice("ameixa", "casa amarela", "mesa", "mesa de centro", "comesa", "mesas");
+
+        // igual, começa com (mais curta primeiro), contém
+        assertArrayEquals(new int[]{2, 5, 3, 4}, indice.buscar("mesa", 10, false));
+        // começa uma palavra vem antes de contém; consultas curtas não usam trigramas
+        assertArrayEquals(new int[]{0, 1}, indice.buscar("am", 10, false));
+    }
+
+    @Test
+    void limiteMantemOsMelhores() {
+        IndiceBusca indice = indice("xxabc", "abc", "xabc", "abcd");
+
+        assertArrayEquals(new int[]{1, 3}, indice.buscar("abc", 2, false));
+    }
+
+    @Test
+    void removidosSaemDosResultadosSemMudarOsIds() {
+        IndiceBusca indice = indice("mesa", "mesas", "comesa");
+        indice.remover(0);
+        indice.remover(0);
+
+        assertEquals(1, indice.getRemovidos());
+        assertTrue(indice.isRemovido(0));
+        assertArrayEquals(new int[]{1, 2}, indice.buscar("mesa", 10, false));
+        assertArrayEquals(new int[]{1, 2}, indice.buscar("me", 10, false));
+        assertArrayEquals(new int[]{1, 2}, indice.buscar("mesz", 10, true));
+
+        assertEquals(3, indice.adicionar("mesa"));
+        assertArrayEquals(new int[]{3, 1, 2}, indice.buscar("mesa", 10, false));
+    }
+
+    @Test
+    void distanciaDeMyersIgualAProgramacaoDinamica() {
+        Random aleatorio = new Random(42);
+        for (int caso = 0; caso < 2000; caso++) {
+            String chave = aleatoria(aleatorio, aleatorio.nextInt(20));
+            String consulta = aleatoria(aleatorio, 1 + aleatorio.nextInt(10));
+            assertEquals(distanciaReferencia(chave, consulta), IndiceBusca.distancia(chave, consulta, mascaras(consulta)),
+                    chave + " / " + consulta);
+        }
+        // Consulta de 64 caracteres usa o bit mais alto do long
+        String longa = "a".repeat(63) + "b";
+        assertEquals(1, IndiceBusca.distancia("a".repeat(70), longa, mascaras(longa)));
+        // Caracteres fora do ASCII não usam a tabela de máscaras
+        assertEquals(1, IndiceBusca.distancia("ação", "açõo", mascaras("açõo")));
+    }
+
+    @Test
+    void aproximadaCompletaPorNumeroDeEdicoes() {
+        IndiceBusca indice = indice(TextoUtil.normalizar("Paracetamol 500mg"), "paracetomal", "dipirona",
+                TextoUtil.normalizar("PARACETAMOL"), "paracitamol");
+
+        // Exatos primeiro; depois uma edição antes de duas
+        assertArrayEquals(new int[]{3, 0, 4, 1}, indice.buscar("paracetamol", 10, true));
+        assertArrayEquals(new int[]{3, 0}, indice.buscar("paracetamol", 10, false));
+        assertEquals(0, IndiceBusca.errosPermitidos(3));
+        assertEquals(1, IndiceBusca.errosPermitidos(7));
+        assertEquals(2, IndiceBusca.errosPermitidos(8));
+    }
+
+    private static String aleatoria(Random aleatorio, int tamanho) {
+        StringBuilder sb = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            sb.append("abcã".charAt(aleatorio.nextInt(4)));
+        }
+        return sb.toString();
+    }
+
+    private static long[] mascaras(String consulta) {
+        long[] mascaras = new long[128];
+        for (int i = 0; i < consulta.length(); i++) {
+            char c = consulta.charAt(i);
+            if (c < 128) mascaras[c] |= 1L << i;
+        }
+        return mascaras;
+    }
+
+    /** Menor distância da consulta a um trecho da chave (primeira linha zerada). */
+    private static int distanciaReferencia(String chave, String consulta) {
+        int m = consulta.length();
+        int[] coluna = new int[m + 1];
+        for (int i = 0; i <= m; i++) coluna[i] = i;
+        int menor = m;
+        for (int j = 0; j < chave.length(); j++) {
+            int diagonal = coluna[0];
+            coluna[0] = 0;
+            for (int i = 1; i <= m; i++) {
+                int acima = coluna[i];
+                int custo = consulta.charAt(i - 1) == chave.charAt(j) ? 0 : 1;
+                coluna[i] = Math.min(Math.min(acima + 1, coluna[i - 1] + 1), diagonal + custo);
+                diagonal = acima;
+            }
+            menor = Math.min(menor, coluna[m]);
+        }
+        return menor;
+    }
+}
@@ -0,0 +1,91 @@
+package tabela;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filtragem em segundo plano do {@link FiltroTexto}, incluindo erros na avaliação.
+ */
+class FiltroTextoTest {
+
+    @Test
+    void assincronoIgualAoSincrono() throws Exception {
+        TabelaModelo<Integer> modelo = new TabelaModelo<>();
+        modelo.addColuna("Valor", v -> v, Integer.class);
+        modelo.addColuna("Texto", v -> "Ítem " + v, String.class);
+        List<Integer> valores = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            valores.add(i);
+        }
+        modelo.setDados(valores);
+        JTable tabela = new JTable(modelo);
+        FiltroTexto filtro = new FiltroTexto(tabela);
+
+        SwingUtilities.invokeAndWait(() -> {
+            filtro.setAssincrono(true);
+            filtro.filtrar("item 12");
+            assertTrue(filtro.isFiltrando());
+        });
+        aguardar(filtro);
+        // Alteração depois do primeiro resultado: o refinamento reaproveita os textos
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1111, tabela.getRowCount());
+            modelo.adicionar(120_000);
+            filtro.filtrar("item 120");
+        });
+        aguardar(filtro);
+
+        SwingUtilities.invokeAndWait(() -> {
+            int assincrono = tabela.getRowCount();
+            filtro.setAssincrono(false);
+            filtro.limpar();
+            filtro.filtrar("item 120");
+            assertEquals(tabela.getRowCount(), assincrono);
+            assertEquals(112, assincrono);
+        });
+    }
+
+    @Test
+    void erroNoSegundoPlanoVaiParaAoErro() throws Exception {
+        TabelaModelo<Integer> modelo = new TabelaModelo<>();
+        modelo.addColuna("Texto", v -> {
+            if (v == 7) throw new IllegalStateException("conversor");
+            return "Ítem " + v;
+        }, String.class);
+        List<Integer> valores = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            valores.add(i);
+        }
+        modelo.setDados(valores);
+        JTable tabela = new JTable(modelo);
+        FiltroTexto filtro = new FiltroTexto(tabela);
+        AtomicReference<Exception> erro = new AtomicReference<>();
+
+        SwingUtilities.invokeAndWait(() -> {
+            filtro.setAoErro(erro::set);
+            filtro.setAssincrono(true);
+            filtro.filtrar("item");
+        });
+        aguardar(filtro);
+
+        assertInstanceOf(IllegalStateException.class, erro.get());
+        SwingUtilities.invokeAndWait(() -> assertEquals(10, tabela.getRowCount()));
+    }
+
+    private static void aguardar(FiltroTexto filtro) throws Exception {
+        AtomicBoolean filtrando = new AtomicBoolean(true);
+        for (int i = 0; i < 500 && filtrando.get(); i++) {
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> filtrando.set(filtro.isFiltrando()));
+        }
+        assertFalse(filtrando.get(), "filtro não terminou");
+    }
+}
@@ -0,0 +1,104 @@
+package tabela;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O {@link IndiceChaves} precisa continuar apontando para a linha certa depois de
+ * remoções (registradas sem reconstruir o mapa), anexos e trocas de chave.
+ */
+class IndiceChavesTest {
+
+    /** Item igual a outro com o mesmo id. */
+    private static final class Item {
+        final int id;
+
+        Item(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Item && ((Item) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    @Test
+    void porChaveAcompanhaOperacoesAleatorias() {
+        conferirOperacoesAleatorias(new IndiceChaves<Item>(item -> item.id), true);
+    }
+
+    @Test
+    void porIdentidadeAcompanhaOperacoesAleatorias() {
+        conferirOperacoesAleatorias(IndiceChaves.porIdentidade(), false);
+    }
+
+    @Test
+    void porIdentidadeDistingueItensIguais() {
+        IndiceChaves<Item> indice = IndiceChaves.porIdentidade();
+        List<Item> dados = new ArrayList<>(List.of(new Item(1), new Item(2)));
+        indice.linhaDe(dados.get(0), dados);
+
+        Item copia = new Item(2);
+        Item anterior = dados.set(1, copia);
+        indice.atualizado(1, anterior, copia);
+
+        assertEquals(1, indice.linhaDe(copia, dados));
+        assertEquals(-1, indice.linhaDe(anterior, dados));
+    }
+
+    private static void conferirOperacoesAleatorias(IndiceChaves<Item> indice, boolean porChave) {
+        Random aleatorio = new Random(7);
+        List<Item> dados = new ArrayList<>();
+        List<Item> removidos = new ArrayList<>();
+        int proximoId = 0;
+        for (int i = 0; i < 200; i++) {
+            dados.add(new Item(proximoId++));
+        }
+        indice.linhaDe(null, dados);
+
+        for (int passo = 0; passo < 5000; passo++) {
+            int operacao = aleatorio.nextInt(10);
+            if (operacao < 4 && !dados.isEmpty()) {
+                int linha = aleatorio.nextInt(dados.size());
+                Item item = dados.remove(linha);
+                indice.removido(linha, item);
+                removidos.add(item);
+            } else if (operacao < 7) {
+                Item item = new Item(proximoId++);
+                dados.add(item);
+                indice.adicionado(dados.size() - 1, item);
+            } else if (operacao < 8 && !dados.isEmpty()) {
+                int linha = aleatorio.nextInt(dados.size());
+                Item novo = new Item(proximoId++);
+                indice.atualizado(linha, dados.set(linha, novo), novo);
+            } else if (operacao < 9) {
+                int linha = aleatorio.nextInt(dados.size() + 1);
+                dados.add(linha, new Item(proximoId++));
+                indice.invalidar();
+            }
+
+            // Consultas intercaladas com as alterações, como no uso real
+            if (passo % 7 == 0) {
+                for (int linha = 0; linha < dados.size(); linha++) {
+                    Item item = dados.get(linha);
+                    assertEquals(linha, indice.linhaDe(porChave ? indice.chave(item) : item, dados), "passo " + passo);
+                }
+                for (Item item : removidos) {
+                    assertEquals(-1, indice.linhaDe(porChave ? indice.chave(item) : item, dados), "removido, passo " + passo);
+                }
+                removidos.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package tabela;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JTable;
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ordenação por índices primitivos e filtro de linhas do {@link OrdenadorTabela}.
+ */
+class OrdenadorTabelaTest {
+
+    private TabelaModelo<Integer> modelo;
+    private OrdenadorTabela<TabelaModelo<Integer>> ordenador;
+    private JTable tabela;
+
+    @BeforeEach
+    void criar() {
+        modelo = new TabelaModelo<>();
+        modelo.addColuna("Valor", v -> v, Integer.class);
+        tabela = new JTable(modelo);
+        ordenador = new OrdenadorTabela<>(modelo);
+        ordenador.setLimiarAssincrono(Integer.MAX_VALUE);
+        tabela.setRowSorter(ordenador);
+    }
+
+    @Test
+    void ordenaComoOrdenacaoEstavel() {
+        Random aleatorio = new Random(42);
+        List<Integer> valores = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            valores.add(aleatorio.nextInt(1_000));
+        }
+        modelo.setDados(valores);
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(0, SortOrder.DESCENDING)));
+
+        List<Integer> esperado = new ArrayList<>();
+        for (int i = 0; i < valores.size(); i++) {
+            esperado.add(i);
+        }
+        esperado.sort(Comparator.<Integer>comparingInt(valores::get).reversed());
+        for (int v = 0; v < esperado.size(); v++) {
+            assertEquals(esperado.get(v).intValue(), ordenador.convertRowIndexToModel(v));
+        }
+    }
+
+    @Test
+    void alteracaoDuranteOrdenacaoAssincronaReordena() throws Exception {
+        List<Integer> valores = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            valores.add((i * 7_919) % 20_000);
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            ordenador.setLimiarAssincrono(100);
+            modelo.setDados(valores);
+            ordenador.setSortKeys(List.of(new RowSorter.SortKey(0, SortOrder.ASCENDING)));
+            assertTrue(ordenador.isOrdenando());
+            // Chegam antes do resultado: uma inserção e uma inserção + remoção do mesmo tamanho
+            modelo.adicionar(-1);
+            modelo.adicionar(-2);
+            modelo.remover(0);
+        });
+        aguardarOrdenacao();
+
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(modelo.getRowCount(), ordenador.getViewRowCount());
+            int anterior = Integer.MIN_VALUE;
+            for (int v = 0; v < ordenador.getViewRowCount(); v++) {
+                int valor = (Integer) modelo.getValueAt(ordenador.convertRowIndexToModel(v), 0);
+                assertTrue(valor >= anterior, "linha " + v);
+                anterior = valor;
+            }
+            assertEquals(-2, modelo.getValueAt(ordenador.convertRowIndexToModel(0), 0));
+        });
+    }
+
+    @Test
+    void filtroMantemOrdem() {
+        for (int i = 0; i < 10; i++) {
+            modelo.adicionar(i);
+        }
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(0, SortOrder.DESCENDING)));
+        ordenador.setRowFilter(pares());
+
+        assertEquals(5, ordenador.getViewRowCount());
+        assertEquals(8, modelo.getValueAt(ordenador.convertRowIndexToModel(0), 0));
+        assertEquals(0, modelo.getValueAt(ordenador.convertRowIndexToModel(4), 0));
+        assertEquals(-1, ordenador.convertRowIndexToView(3));
+
+        ordenador.setRowFilter(null);
+        assertEquals(10, ordenador.getViewRowCount());
+        assertEquals(9, modelo.getValueAt(ordenador.convertRowIndexToModel(0), 0));
+    }
+
+    @Test
+    void alteracoesDoModeloRespeitamFiltro() {
+        for (int i = 0; i < 10; i++) {
+            modelo.adicionar(i);
+        }
+        ordenador.setRowFilter(pares());
+        modelo.adicionar(100);
+        modelo.adicionarTodos(List.of(101, 102));
+        modelo.remover(0);
+        modelo.atualizar(4, 7);
+        assertCoerente();
+    }
+
+    @Test
+    void filtroTextoUsaOrdenador() {
+        for (int i = 0; i < 100; i++) {
+            modelo.adicionar(i);
+        }
+        FiltroTexto filtro = new FiltroTexto(tabela);
+        filtro.filtrar("5");
+
+        assertSame(ordenador, tabela.getRowSorter());
+        assertEquals(19, tabela.getRowCount());
+        assertEquals(19, filtro.getTotalFiltrado());
+        filtro.limpar();
+        assertEquals(100, tabela.getRowCount());
+    }
+
+    private void aguardarOrdenacao() throws Exception {
+        long limite = System.currentTimeMillis() + 10_000;
+        boolean[] ordenando = {true};
+        while (ordenando[0]) {
+            assertTrue(System.currentTimeMillis() < limite, "ordenação não terminou");
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> ordenando[0] = ordenador.isOrdenando());
+        }
+    }
+
+    private static RowFilter<Object, Integer> pares() {
+        return new RowFilter<Object, Integer>() {
+            @Override
+            public boolean include(Entry<?, ? extends Integer> entry) {
+                return ((Integer) entry.getValue(0)) % 2 == 0;
+            }
+        };
+    }
+
+    private void assertCoerente() {
+        int passam = 0;
+        for (int m = 0; m < modelo.getRowCount(); m++) {
+            boolean par = (Integer) modelo.getValueAt(m, 0) % 2 == 0;
+            if (par) passam++;
+            int v = ordenador.convertRowIndexToView(m);
+            assertEquals(par, v >= 0, "linha " + m);
+            if (v >= 0) assertEquals(m, ordenador.convertRowIndexToModel(v));
+        }
+        assertEquals(passam, ordenador.getViewRowCount());
+    }
+}
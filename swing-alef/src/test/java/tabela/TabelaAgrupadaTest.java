@@ -0,0 +1,66 @@
+package tabela;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Agregações incrementais da {@link TabelaAgrupada} quando os itens são
+ * alterados no lugar depois de entrar na tabela.
+ */
+class TabelaAgrupadaTest {
+
+    private TabelaAgrupada<double[]> agrupada;
+
+    @BeforeEach
+    void criar() {
+        agrupada = new TabelaAgrupada<>();
+        agrupada.setColunas("Grupo", "Valor");
+        agrupada.setConversor(l -> new Object[]{l[0], l[1]});
+        agrupada.setChaveAgrupamento(l -> (int) l[0]);
+        agrupada.addAgregacao(1, TabelaAgrupada.Agregacao.SOMA);
+        List<double[]> itens = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            itens.add(new double[]{i % 2, i * 10});
+        }
+        agrupada.setItens(itens);
+    }
+
+    @Test
+    void removerItemAlteradoSubtraiValorQueSomou() {
+        double[] novo = {0, 100};
+        agrupada.adicionarItem(novo);
+        assertEquals(160.0, agrupada.getAgregado(0, 1));
+
+        novo[1] = 30;   // alterado sem avisar a tabela; entre o mínimo e o máximo
+        agrupada.removerItem(novo);
+        assertEquals(60.0, agrupada.getAgregado(0, 1));
+    }
+
+    @Test
+    void atualizarItemAlteradoNoLugarTrocaOsValores() {
+        double[] item = agrupada.getItens().get(1);   // {0, 20}
+        item[1] = 25;
+        agrupada.atualizarItem(item);
+        assertEquals(65.0, agrupada.getAgregado(0, 1));
+
+        item[1] = 30;
+        agrupada.removerItem(item);
+        assertEquals(40.0, agrupada.getAgregado(0, 1));
+    }
+
+    @Test
+    void itemQueMudaDeGrupoLevaOValorAtual() {
+        double[] item = agrupada.getItens().get(1);   // {0, 20}
+        item[0] = 1;
+        item[1] = 5;
+        agrupada.atualizarItem(item);
+
+        assertEquals(40.0, agrupada.getAgregado(0, 1));
+        assertEquals(45.0, agrupada.getAgregado(1, 1));
+    }
+}
@@ -0,0 +1,167 @@
+package tabela;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableRowSorter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Colagem (leitura do TSV e conversão de números), preenchimento e diário de
+ * gravação do {@link TabelaEditavel}.
+ */
+class TabelaEditavelTest {
+
+    private TabelaEditavel<int[]> editavel;
+    /** Última edição de cada linha do modelo (valor novo da coluna 1). */
+    private final Map<Integer, Object> editadas = new HashMap<>();
+
+    @BeforeEach
+    void criar() {
+        editavel = new TabelaEditavel<>();
+        editavel.setColunas("ID", "Valor");
+        editavel.setConversor(l -> new Object[]{l[0], l[1]});
+        editavel.setColunasEditaveis(1);
+        List<int[]> itens = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            itens.add(new int[]{i, i * 10});
+        }
+        editavel.setItens(itens);
+        editavel.setAoEditarLote(edicoes -> {
+            for (TabelaEditavel.Edicao<int[]> edicao : edicoes) {
+                editadas.put(edicao.getItem()[0], edicao.getValorNovo());
+            }
+        });
+    }
+
+    @Test
+    void lerTsvComAspas() {
+        List<String[]> linhas = TabelaEditavel.lerTsv("a\t\"b\tc\"\r\n\"d\ne\"\t\"f \"\"g\"\"\"\n");
+
+        assertEquals(2, linhas.size());
+        assertArrayEquals(new String[]{"a", "b\tc"}, linhas.get(0));
+        assertArrayEquals(new String[]{"d\ne", "f \"g\""}, linhas.get(1));
+    }
+
+    @Test
+    void converteNumerosNoFormatoBrasileiro() {
+        List<String[]> linhas = new ArrayList<>();
+        linhas.add(new String[]{"1.234", "1.234,56", "1.5", "R$ 1.234,56", "12", "1,5"});
+        Object[] valores = TabelaEditavel.converterBloco(linhas, new Class<?>[]{
+                Integer.class, Double.class, Double.class, BigDecimal.class, Short.class, Integer.class})[0];
+
+        assertEquals(1234, valores[0]);
+        assertEquals(1234.56, valores[1]);
+        assertEquals(1.5, valores[2]);
+        assertEquals(new BigDecimal("1234.56"), valores[3]);
+        assertEquals((short) 12, valores[4]);
+        assertFalse(valores[5] instanceof Number, "coluna inteira não aceita casas decimais");
+    }
+
+    @Test
+    void preencherAbaixoSegueLinhasExibidas() {
+        JTable tabela = editavel.getTabela();
+        TableRowSorter<?> ordenador = new TableRowSorter<>(tabela.getModel());
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(1, SortOrder.DESCENDING)));
+        tabela.setRowSorter(ordenador);
+        tabela.setSelectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION);
+        tabela.setRowSelectionInterval(0, 2);
+        tabela.setColumnSelectionInterval(1, 1);
+
+        editavel.preencherAbaixo();
+
+        // Exibidas: modelo 5, 4, 3; as linhas 0..2 do modelo não foram selecionadas
+        assertEquals(Map.of(4, 50, 3, 50), editadas);
+    }
+
+    @Test
+    void preencherSerieUsaPassoDasDuasPrimeiras() {
+        editavel.setItens(List.of(new int[]{0, 10}, new int[]{1, 25}, new int[]{2, 0}, new int[]{3, 0}));
+        editavel.preencherSerie(1, 0, 3);
+
+        assertEquals(Map.of(2, 40, 3, 55), editadas);
+    }
+
+    @Test
+    void diarioCombinaEdicoesDaMesmaCelula() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            editavel.setGravador(lote -> { });
+            editavel.getTabela().getModel().setValueAt(11, 1, 1);
+            editavel.getTabela().getModel().setValueAt(12, 1, 1);
+            editavel.getTabela().getModel().setValueAt(30, 2, 1);
+            assertEquals(2, editavel.getEdicoesPendentes());
+
+            // Voltar ao valor gravado tira a célula do diário
+            editavel.getTabela().getModel().setValueAt(10, 1, 1);
+            assertEquals(1, editavel.getEdicoesPendentes());
+        });
+    }
+
+    @Test
+    void loteComFalhaEGravadoDeNovo() throws Exception {
+        AtomicInteger tentativas = new AtomicInteger();
+        List<List<Object>> gravados = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            editavel.setAoErro(e -> { });
+            editavel.setIntervaloGravacao(10);
+            editavel.setGravador(lote -> {
+                if (tentativas.incrementAndGet() == 1) throw new IllegalStateException("offline");
+                List<Object> valores = new ArrayList<>();
+                for (TabelaEditavel.Edicao<int[]> edicao : lote) valores.add(edicao.getValorNovo());
+                synchronized (gravados) {
+                    gravados.add(valores);
+                }
+            });
+            editavel.getTabela().getModel().setValueAt(11, 1, 1);
+            editavel.salvar();
+        });
+
+        aguardar(() -> editavel.getEdicoesPendentes() == 0 && !editavel.isGravando());
+        assertEquals(2, tentativas.get());
+        synchronized (gravados) {
+            assertEquals(List.of(List.of(11)), gravados);
+        }
+    }
+
+    @Test
+    void removerItemDescartaDiarioEHistorico() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            List<int[]> itens = editavel.getItens();
+            editavel.setGravador(lote -> { });
+            editavel.getTabela().getModel().setValueAt(11, 1, 1);
+            editavel.getTabela().getModel().setValueAt(21, 2, 1);
+
+            editavel.removerItem(itens.get(1));
+            assertEquals(1, editavel.getEdicoesPendentes());
+            assertEquals(TabelaEditavel.EstadoGravacao.SALVO, editavel.getEstadoGravacao(itens.get(1)));
+            assertTrue(editavel.desfazer());
+            assertFalse(editavel.desfazer(), "edição do item removido saiu do histórico");
+
+            editavel.limpar();
+            assertEquals(0, editavel.getEdicoesPendentes());
+            assertFalse(editavel.podeRefazer());
+        });
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao) throws Exception {
+        long limite = System.currentTimeMillis() + 10_000;
+        boolean[] pronto = {false};
+        while (!pronto[0]) {
+            assertTrue(System.currentTimeMillis() < limite, "tempo esgotado");
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> pronto[0] = condicao.getAsBoolean());
+        }
+    }
+}
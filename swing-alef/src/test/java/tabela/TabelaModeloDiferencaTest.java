@@ -0,0 +1,71 @@
+package tabela;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TabelaModelo#setDados} por diferença com entidades comparadas por ID.
+ */
+class TabelaModeloDiferencaTest {
+
+    /** Entidade cujo equals compara só o ID. */
+    static final class Entidade {
+        final int id;
+        final String nome;
+
+        Entidade(int id, String nome) {
+            this.id = id;
+            this.nome = nome;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entidade && ((Entidade) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id);
+        }
+    }
+
+    @Test
+    void itemDeMesmaChaveComDadosNovosAtualizaLinha() {
+        TabelaModelo<Entidade> modelo = new TabelaModelo<>(e -> e.id);
+        modelo.addColuna("Nome", e -> e.nome);
+        modelo.setDados(List.of(new Entidade(1, "a"), new Entidade(2, "b")));
+
+        List<TableModelEvent> eventos = new ArrayList<>();
+        modelo.addTableModelListener(eventos::add);
+        Entidade nova = new Entidade(1, "A");
+        modelo.setDados(List.of(nova, new Entidade(2, "b")));
+
+        assertEquals("A", modelo.getValueAt(0, 0));
+        assertSame(nova, modelo.getItem(0));
+        assertEquals(1, eventos.size());
+        assertEquals(TableModelEvent.UPDATE, eventos.get(0).getType());
+        assertEquals(0, eventos.get(0).getFirstRow());
+        assertEquals(0, eventos.get(0).getLastRow());
+    }
+
+    @Test
+    void itemSemAlteracaoVisivelTrocaInstanciaSemEvento() {
+        TabelaModelo<Entidade> modelo = new TabelaModelo<>(e -> e.id);
+        modelo.addColuna("Nome", e -> e.nome);
+        modelo.setDados(List.of(new Entidade(1, "a")));
+
+        List<TableModelEvent> eventos = new ArrayList<>();
+        modelo.addTableModelListener(eventos::add);
+        Entidade nova = new Entidade(1, "a");
+        modelo.setDados(List.of(nova));
+
+        assertSame(nova, modelo.getItem(0));
+        assertTrue(eventos.isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package tabela;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableRowSorter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lotes do {@link TabelaModelo} com uma JTable ordenada: os eventos disparados
+ * na confirmação precisam ser coerentes com o estado final dos dados.
+ */
+class TabelaModeloLoteTest {
+
+    private TabelaModelo<Integer> modelo;
+    private TableRowSorter<TabelaModelo<Integer>> ordenador;
+    private final List<TableModelEvent> eventos = new ArrayList<>();
+
+    @BeforeEach
+    void criar() {
+        modelo = new TabelaModelo<>();
+        modelo.addColuna("Valor", v -> v, Integer.class);
+        for (int i = 0; i < 10; i++) {
+            modelo.adicionar(i * 10);
+        }
+        JTable tabela = new JTable(modelo);
+        ordenador = new TableRowSorter<>(modelo);
+        ordenador.setSortKeys(List.of(new RowSorter.SortKey(0, SortOrder.DESCENDING)));
+        tabela.setRowSorter(ordenador);
+        modelo.addTableModelListener(eventos::add);
+    }
+
+    @Test
+    void inserirDepoisRemover() {
+        modelo.lote(m -> {
+            m.adicionar(100);
+            m.remover(0);
+        });
+        assertOrdenadoCoerente();
+    }
+
+    @Test
+    void removerDepoisInserir() {
+        modelo.lote(m -> {
+            m.remover(3);
+            m.adicionar(5);
+            m.remover(0);
+        });
+        assertOrdenadoCoerente();
+    }
+
+    @Test
+    void intervaloUnicoGeraEventoUnico() {
+        modelo.lote(m -> {
+            m.adicionar(100);
+            m.adicionar(200);
+            m.atualizar(0, 1);
+        });
+        assertEquals(2, eventos.size());
+        assertEquals(TableModelEvent.INSERT, eventos.get(0).getType());
+        assertEquals(10, eventos.get(0).getFirstRow());
+        assertEquals(11, eventos.get(0).getLastRow());
+        assertOrdenadoCoerente();
+    }
+
+    @Test
+    void inserirERemoverMesmaLinhaNaoGeraEstrutural() {
+        modelo.lote(m -> {
+            m.adicionar(100);
+            m.remover(10);
+        });
+        assertTrue(eventos.stream().noneMatch(e -> e.getType() != TableModelEvent.UPDATE));
+        assertOrdenadoCoerente();
+    }
+
+    private void assertOrdenadoCoerente() {
+        assertEquals(modelo.getRowCount(), ordenador.getViewRowCount());
+        int anterior = Integer.MAX_VALUE;
+        for (int v = 0; v < ordenador.getViewRowCount(); v++) {
+            int valor = modelo.getItem(ordenador.convertRowIndexToModel(v));
+            assertTrue(valor <= anterior, "ordem decrescente na visão");
+            anterior = valor;
+        }
+    }
+}